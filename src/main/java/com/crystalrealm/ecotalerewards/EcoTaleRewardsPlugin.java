@@ -1,11 +1,14 @@
 package com.crystalrealm.ecotalerewards;
 
 import com.crystalrealm.ecotalerewards.calendar.CalendarService;
+import com.crystalrealm.ecotalerewards.claim.ClaimService;
 import com.crystalrealm.ecotalerewards.commands.RewardsCommandCollection;
 import com.crystalrealm.ecotalerewards.config.ConfigManager;
 import com.crystalrealm.ecotalerewards.config.RewardsConfig;
 import com.crystalrealm.ecotalerewards.gui.RewardsCalendarGui;
+import com.crystalrealm.ecotalerewards.lang.LangArgs;
 import com.crystalrealm.ecotalerewards.lang.LangManager;
+import com.crystalrealm.ecotalerewards.lang.Placeholder;
 import com.crystalrealm.ecotalerewards.model.PlayerRewardData;
 import com.crystalrealm.ecotalerewards.model.ReturnRewardTier;
 import com.crystalrealm.ecotalerewards.model.StreakMilestone;
@@ -16,16 +19,25 @@ import com.crystalrealm.ecotalerewards.provider.leveling.GenericLevelProvider;
 import com.crystalrealm.ecotalerewards.provider.leveling.LevelBridge;
 import com.crystalrealm.ecotalerewards.provider.leveling.MMOSkillTreeProvider;
 import com.crystalrealm.ecotalerewards.returns.ReturnRewardService;
+import com.crystalrealm.ecotalerewards.rewards.RewardContext;
 import com.crystalrealm.ecotalerewards.rewards.RewardService;
+import com.crystalrealm.ecotalerewards.storage.BinaryRewardStorage;
+import com.crystalrealm.ecotalerewards.storage.CachedRewardStorage;
+import com.crystalrealm.ecotalerewards.storage.ClaimJournal;
+import com.crystalrealm.ecotalerewards.storage.JournaledRewardStorage;
 import com.crystalrealm.ecotalerewards.storage.JsonRewardStorage;
+import com.crystalrealm.ecotalerewards.storage.RewardOutbox;
 import com.crystalrealm.ecotalerewards.storage.RewardStorage;
 import com.crystalrealm.ecotalerewards.streaks.StreakService;
+import com.crystalrealm.ecotalerewards.util.EpochDays;
+import com.crystalrealm.ecotalerewards.util.MessageTemplate;
 import com.crystalrealm.ecotalerewards.util.MessageUtil;
 import com.crystalrealm.ecotalerewards.util.PermissionHelper;
 import com.crystalrealm.ecotalerewards.util.PluginLogger;
 
 import com.hypixel.hytale.server.core.HytaleServer;
 import com.hypixel.hytale.server.core.entity.entities.Player;
+import com.hypixel.hytale.server.core.event.events.player.PlayerDisconnectEvent;
 import com.hypixel.hytale.server.core.event.events.player.PlayerReadyEvent;
 import com.hypixel.hytale.server.core.plugin.JavaPlugin;
 import com.hypixel.hytale.server.core.plugin.JavaPluginInit;
@@ -37,9 +49,16 @@ import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 
 import javax.annotation.Nonnull;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * EcoTaleRewards — MMORPG retention system for Hytale servers.
@@ -52,7 +71,7 @@ import java.util.concurrent.TimeUnit;
  *   <li>Anti-abuse protection (min online time, relog cooldown, daily limit)</li>
  *   <li>Native GUI — calendar panel &amp; admin panel</li>
  *   <li>VIP multipliers via permission tiers</li>
- *   <li>JSON storage, full RU/EN localization</li>
+ *   <li>JSON, memory-mapped binary or journaled storage, full RU/EN localization</li>
  * </ul>
  *
  * @version 1.2.0
@@ -70,11 +89,24 @@ public class EcoTaleRewardsPlugin extends JavaPlugin {
     private StreakService       streakService;
     private ReturnRewardService returnService;
     private RewardService      rewardService;
+    private RewardOutbox       outbox;
+    private ClaimService       claimService;
     private AntiAbuseGuard     antiAbuse;
+    private EconomyBridge       economyBridge;
     private LevelBridge         levelBridge;
 
+    /** Join time of each login in progress or session open, keyed by player. */
+    private final Map<UUID, Long> activeLogins = new ConcurrentHashMap<>();
+
+    /**
+     * Epoch day the calendar was last auto-opened for each player. Kept here,
+     * not on the record, because records are evicted on disconnect.
+     */
+    private final Map<UUID, Integer> autoGuiShownDay = new ConcurrentHashMap<>();
+
     // ── Scheduled tasks ─────────────────────────────────────
     private ScheduledFuture<?> autoSaveTask;
+    private ScheduledFuture<?> outboxTask;
 
     public EcoTaleRewardsPlugin(JavaPluginInit init) {
         super(init);
@@ -97,13 +129,15 @@ public class EcoTaleRewardsPlugin extends JavaPlugin {
 
         // 1b. Permission resolver (reads permissions.json for group-based checks)
         PermissionHelper.getInstance().init(getDataDirectory());
+        PermissionHelper.getInstance().setCacheTtlSeconds(config.getGeneral().getPermissionCacheSeconds());
 
         // 2. Language
         langManager = new LangManager(getDataDirectory());
         langManager.load(config.getGeneral().getLanguage());
+        langManager.setMessagePrefix(config.getGeneral().getMessagePrefix());
 
         // 3. Storage
-        storage = new JsonRewardStorage(getDataDirectory());
+        storage = createStorage(config.getGeneral());
         storage.initialize();
 
         // 4. Calendar service
@@ -118,20 +152,38 @@ public class EcoTaleRewardsPlugin extends JavaPlugin {
         // 7. Reward issuer
         rewardService = new RewardService(config, this);
 
+        // 7b. Outbox for reward legs that failed after a claim
+        outbox = new RewardOutbox(getDataDirectory(), storage::submitIo);
+        outbox.load();
+        rewardService.setOutbox(outbox);
+
         // 8. Anti-abuse
         antiAbuse = new AntiAbuseGuard(config);
 
+        // 8b. Claim engine (shared by GUI and /rewards claim)
+        claimService = new ClaimService(calendarService, streakService,
+                returnService, rewardService, antiAbuse, storage);
+
+        // 8c. Journal hooks (journal storage only)
+        if (storage instanceof ClaimJournal journal) {
+            calendarService.setJournal(journal);
+            streakService.setJournal(journal);
+            returnService.setJournal(journal);
+            claimService.setJournal(journal);
+        }
+
         // 9. Commands
         RewardsCommandCollection rewardsCmd = new RewardsCommandCollection(
                 configManager, langManager, calendarService, streakService,
-                returnService, rewardService, antiAbuse, storage, VERSION
+                returnService, rewardService, antiAbuse, claimService, storage, VERSION
         );
         getCommandRegistry().registerCommand(rewardsCmd);
         getCommandRegistry().registerCommand(new com.crystalrealm.ecotalerewards.commands.CalendarCommand(rewardsCmd));
         LOGGER.info("Registered /rewards and /calendar commands.");
 
-        // 10. Player join event listener
+        // 10. Player join / leave event listeners
         registerPlayerJoinHandler();
+        registerPlayerLeaveHandler();
     }
 
     @Override
@@ -141,7 +193,7 @@ public class EcoTaleRewardsPlugin extends JavaPlugin {
         RewardsConfig config = configManager.getConfig();
 
         // ── Economy Bridge ──
-        EconomyBridge economyBridge = new EconomyBridge();
+        economyBridge = new EconomyBridge();
         var geCfg = config.getGenericEconomy();
         if (geCfg.isConfigured()) {
             economyBridge.registerProvider("generic", new GenericEconomyProvider(
@@ -170,12 +222,22 @@ public class EcoTaleRewardsPlugin extends JavaPlugin {
         rewardService.setEconomyBridge(economyBridge);
         rewardService.setLevelBridge(levelBridge);
 
+        // ── Provider health probes ──
+        int probeSeconds = config.getGeneral().getProviderProbeSeconds();
+        int failureThreshold = config.getGeneral().getProviderFailureThreshold();
+        economyBridge.startHealthProbe(HytaleServer.SCHEDULED_EXECUTOR, probeSeconds, failureThreshold);
+        levelBridge.startHealthProbe(HytaleServer.SCHEDULED_EXECUTOR, probeSeconds, failureThreshold);
+
         // Schedule auto-save
         int saveInterval = configManager.getConfig().getGeneral().getAutoSaveIntervalMinutes();
         autoSaveTask = HytaleServer.SCHEDULED_EXECUTOR.scheduleAtFixedRate(
                 () -> {
                     try {
                         storage.saveAll();
+                        antiAbuse.purgeExpired();
+                        int today = EpochDays.today();
+                        autoGuiShownDay.values().removeIf(day -> day != today);
+                        rewardService.getCommandDispatcher().logMetrics();
                     } catch (Exception e) {
                         LOGGER.error("Auto-save failed: {}", e.getMessage());
                     }
@@ -183,6 +245,23 @@ public class EcoTaleRewardsPlugin extends JavaPlugin {
                 saveInterval, saveInterval, TimeUnit.MINUTES
         );
 
+        // Reward commands: batched every tick, run on the claiming world's thread under a per-tick budget
+        rewardService.startCommandDispatcher(HytaleServer.SCHEDULED_EXECUTOR,
+                config.getGeneral().getCommandsPerTick(), config.getGeneral().getCommandTickBudgetMillis());
+
+        // Retry failed reward legs
+        int retrySeconds = config.getGeneral().getOutboxRetrySeconds();
+        outboxTask = HytaleServer.SCHEDULED_EXECUTOR.scheduleWithFixedDelay(
+                () -> {
+                    try {
+                        rewardService.retryPending();
+                    } catch (Exception e) {
+                        LOGGER.error("Outbox retry failed: {}", e.getMessage());
+                    }
+                },
+                retrySeconds, retrySeconds, TimeUnit.SECONDS
+        );
+
         LOGGER.info("═══════════════════════════════════════");
         LOGGER.info("  EcoTaleRewards v{} — STARTED", VERSION);
         LOGGER.info("  Calendar:  {} days", configManager.getConfig().getCalendar().getTotalDays());
@@ -198,18 +277,53 @@ public class EcoTaleRewardsPlugin extends JavaPlugin {
 
         // Cancel scheduled tasks
         if (autoSaveTask != null) autoSaveTask.cancel(false);
+        if (outboxTask != null) outboxTask.cancel(false);
+        if (economyBridge != null) economyBridge.stopHealthProbe();
+        if (levelBridge != null) levelBridge.stopHealthProbe();
+        if (rewardService != null) rewardService.stopCommandDispatcher();
 
         // Save all player data
         if (storage != null) storage.shutdown();
+        if (outbox != null) outbox.persistIfDirty();
 
         // Cleanup
         if (antiAbuse != null) antiAbuse.cleanup();
+        activeLogins.clear();
+        autoGuiShownDay.clear();
         MessageUtil.clearCache();
         if (langManager != null) langManager.clearPlayerData();
 
         LOGGER.info("EcoTaleRewards v{} — shutdown complete.", VERSION);
     }
 
+    /**
+     * Build the storage backend selected by {@code General.StorageType}.
+     */
+    @Nonnull
+    private CachedRewardStorage createStorage(@Nonnull RewardsConfig.GeneralSection general) {
+        String type = general.getStorageType().toLowerCase();
+        CachedRewardStorage backend;
+        if (type.equals("binary")) {
+            backend = new BinaryRewardStorage(getDataDirectory(),
+                    general.isWriteBehind(), general.getWriteBehindFlushSeconds());
+        } else if (type.equals("journal")) {
+            backend = new JournaledRewardStorage(getDataDirectory(),
+                    general.isWriteBehind(), general.getWriteBehindFlushSeconds(),
+                    general.getJournalCompactMinutes());
+        } else {
+            if (!type.equals("json")) {
+                LOGGER.warn("Unknown StorageType '{}' — using json.", general.getStorageType());
+            }
+            JsonRewardStorage json = new JsonRewardStorage(getDataDirectory(),
+                    general.isWriteBehind(), general.getWriteBehindFlushSeconds());
+            json.setPrettyPrint(general.isPrettyPrintJson());
+            json.setMigrationThreads(general.getShardMigrationThreads());
+            backend = json;
+        }
+        backend.setCachePolicy(general.getCacheMaxPlayers(), general.getCacheIdleMinutes());
+        return backend;
+    }
+
     // ═════════════════════════════════════════════════════════
     //  PLAYER JOIN HANDLER
     // ═════════════════════════════════════════════════════════
@@ -217,30 +331,49 @@ public class EcoTaleRewardsPlugin extends JavaPlugin {
     /**
      * Registers a handler that processes login events:
      * <ol>
-     *   <li>Set session join time (for anti-abuse min-online check)</li>
+     *   <li>Load reward data asynchronously (storage I/O thread)</li>
+     *   <li>Set session join time (for anti-abuse min-online check), reloading if the record was just evicted</li>
      *   <li>Process calendar: advance day, handle missed days</li>
      *   <li>Handle streak: increment or break</li>
      *   <li>Process return rewards if absent long enough</li>
-     *   <li>Send welcome/notification messages</li>
+     *   <li>Send welcome/notification messages on the player's world thread</li>
      * </ol>
      *
      * <p>Uses {@link HytaleServer#SCHEDULED_EXECUTOR} with a small delay
      * to ensure the player entity is fully loaded before sending messages.</p>
      */
     private void registerPlayerJoinHandler() {
-        // Register using Hytale's native event system.
         // PlayerReadyEvent fires when the player entity is fully loaded.
-        // Try register() first (present in all stubs), fallback to registerGlobal().
+        registerEventHandler(PlayerReadyEvent.class, this::handlePlayerReady,
+                "join", "onPlayerJoin()");
+    }
+
+    /**
+     * Registers a handler that ends the player's session on disconnect:
+     * flushes and evicts their reward data and drops every per-UUID cache,
+     * so memory stays proportional to online players.
+     */
+    private void registerPlayerLeaveHandler() {
+        registerEventHandler(PlayerDisconnectEvent.class, this::handlePlayerDisconnect,
+                "leave", "onPlayerLeave()");
+    }
+
+    /**
+     * Register using Hytale's native event system.
+     * Try register() first (present in all stubs), fallback to registerGlobal().
+     */
+    private <T> void registerEventHandler(@Nonnull Class<T> eventClass, @Nonnull Consumer<T> handler,
+                                          @Nonnull String label, @Nonnull String manualEntry) {
         try {
-            getEventRegistry().register(PlayerReadyEvent.class, this::handlePlayerReady);
-            LOGGER.info("Player join listener registered via EventRegistry.register().");
+            getEventRegistry().register(eventClass, handler);
+            LOGGER.info("Player {} listener registered via EventRegistry.register().", label);
         } catch (Exception | NoSuchMethodError | NoClassDefFoundError e) {
             LOGGER.warn("EventRegistry.register() failed: {} — trying registerGlobal fallback...", e.getMessage());
             try {
-                getEventRegistry().registerGlobal(PlayerReadyEvent.class, this::handlePlayerReady);
-                LOGGER.info("Player join listener registered via registerGlobal fallback.");
+                getEventRegistry().registerGlobal(eventClass, handler);
+                LOGGER.info("Player {} listener registered via registerGlobal fallback.", label);
             } catch (Exception | NoSuchMethodError | NoClassDefFoundError e2) {
-                LOGGER.warn("Both register methods failed: {} — onPlayerJoin() must be called manually.", e2.getMessage());
+                LOGGER.warn("Both register methods failed: {} — {} must be called manually.", e2.getMessage(), manualEntry);
             }
         }
     }
@@ -266,36 +399,141 @@ public class EcoTaleRewardsPlugin extends JavaPlugin {
                 } catch (Exception ignored) {}
             }
 
-            // Process login directly — player is already ready, no delay needed
-            processPlayerLogin(playerUuid);
-
-            // Send notifications
-            PlayerRewardData data = storage.loadOrCreate(playerUuid);
-            sendLoginNotifications(playerUuid, data, 0, player);
+            // Session-scoped PlayerRef for chat notifications (removed on disconnect)
+            try {
+                MessageUtil.cachePlayerRef(playerUuid, player.getPlayerRef());
+            } catch (Exception ignored) {}
+
+            // Load + process off the event thread; notify on the player's world thread
+            Executor worldThread = command -> {
+                World world = player.getWorld();
+                if (world != null) world.execute(command); else command.run();
+            };
+            beginLogin(playerUuid)
+                    .thenAcceptAsync(login -> {
+                        if (login != null) {
+                            sendLoginNotifications(playerUuid, login.data(), login.absenceDays(), player);
+                        }
+                        deliverPendingRewards(playerUuid, player);
+                    }, worldThread)
+                    .exceptionally(e -> {
+                        LOGGER.error("Login pipeline failed for {}: {}", playerUuid, e.getMessage());
+                        return null;
+                    });
         } catch (Exception e) {
             LOGGER.error("Failed to process PlayerReadyEvent: {}", e.getMessage());
         }
     }
 
+    /** Deliver outbox entries (including items) now that the player entity is loaded. */
+    private void deliverPendingRewards(@Nonnull UUID playerUuid, @Nonnull Player player) {
+        try {
+            Ref<EntityStore> ref = player.getReference();
+            Store<EntityStore> store = ref != null ? ref.getStore() : null;
+            rewardService.deliverPending(RewardContext.of(playerUuid, ref, store));
+        } catch (Exception e) {
+            LOGGER.warn("Pending reward delivery failed for {}: {}", playerUuid, e.getMessage());
+        }
+    }
+
+    /**
+     * Handles {@link PlayerDisconnectEvent} — the player left the server.
+     */
+    private void handlePlayerDisconnect(@Nonnull PlayerDisconnectEvent event) {
+        try {
+            PlayerRef playerRef = event.getPlayerRef();
+            if (playerRef == null) return;
+            onPlayerLeave(playerRef.getUuid());
+        } catch (Exception e) {
+            LOGGER.error("Failed to process PlayerDisconnectEvent: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Public entry point for player leave processing (for external plugins).
+     * Ends the session, flushes and evicts the player's data and clears
+     * per-player caches.
+     *
+     * @param playerUuid the leaving player's UUID
+     */
+    public void onPlayerLeave(@Nonnull UUID playerUuid) {
+        try {
+            activeLogins.remove(playerUuid);
+            PlayerRewardData data = storage.getCached(playerUuid);
+            if (data != null) data.setSessionJoinTime(0);
+            storage.evict(playerUuid);
+
+            MessageUtil.removePlayerRef(playerUuid);
+            if (antiAbuse != null) antiAbuse.onPlayerLeave(playerUuid);
+            if (levelBridge != null) levelBridge.onPlayerLeave(playerUuid);
+            PermissionHelper.getInstance().invalidate(playerUuid);
+            LOGGER.debug("[PlayerLeave] Session ended for {}", playerUuid);
+        } catch (Exception e) {
+            LOGGER.error("Failed to process logout for {}: {}", playerUuid, e.getMessage());
+        }
+    }
+
     /**
      * Public entry point for player join processing (for external plugins).
      *
      * @param playerUuid the joining player's UUID
      */
     public void onPlayerJoin(@Nonnull UUID playerUuid) {
-        try {
-            processPlayerLogin(playerUuid);
-        } catch (Exception e) {
+        beginLogin(playerUuid).exceptionally(e -> {
             LOGGER.error("Failed to process login for {}: {}", playerUuid, e.getMessage());
-        }
+            return null;
+        });
     }
 
-    private void processPlayerLogin(@Nonnull UUID playerUuid) {
-        PlayerRewardData data = storage.loadOrCreate(playerUuid);
-        LocalDate today = LocalDate.now();
+    /** Outcome of the login pipeline, handed to notifications and the GUI. */
+    private record LoginResult(@Nonnull PlayerRewardData data, int absenceDays) {}
+
+    /**
+     * Login pipeline: load the player's data asynchronously, then apply
+     * calendar, streak and return processing once it is ready. Persistence
+     * is left to the storage (write-behind when enabled).
+     *
+     * @return future with the login outcome, or null if the player left before it finished
+     */
+    @Nonnull
+    private CompletableFuture<LoginResult> beginLogin(@Nonnull UUID playerUuid) {
+        long joinTime = System.currentTimeMillis();
+        activeLogins.put(playerUuid, joinTime);
+
+        return attachSession(playerUuid, joinTime).thenApply(data -> {
+            int absenceDays = processPlayerLogin(data);
+
+            // Left while the data was loading — end the session that was just opened
+            if (!Long.valueOf(joinTime).equals(activeLogins.get(playerUuid))) {
+                data.setSessionJoinTime(0);
+                storage.evict(playerUuid);
+                return null;
+            }
+            return new LoginResult(data, absenceDays);
+        });
+    }
 
-        // Set session join time (anti-abuse)
-        data.setSessionJoinTime(System.currentTimeMillis());
+    /**
+     * Load the player's record and open the session on it (join time for the
+     * anti-abuse check). If an eviction queued by the previous disconnect
+     * removed the record before it saw the session, the loaded instance is
+     * orphaned — reload the record it wrote.
+     */
+    @Nonnull
+    private CompletableFuture<PlayerRewardData> attachSession(@Nonnull UUID playerUuid, long joinTime) {
+        return storage.loadAsync(playerUuid).thenCompose(data -> {
+            data.setSessionJoinTime(joinTime);
+            if (storage.getCached(playerUuid) == data) return CompletableFuture.completedFuture(data);
+            LOGGER.debug("[PlayerReady] Record of {} evicted during login — reloading.", playerUuid);
+            return attachSession(playerUuid, joinTime);
+        });
+    }
+
+    /**
+     * @return absence days reported by the calendar (0 = consecutive login)
+     */
+    private int processPlayerLogin(@Nonnull PlayerRewardData data) {
+        LocalDate today = LocalDate.now();
 
         // Process calendar (returns absence days if any)
         int absenceDays = calendarService.processLogin(data, today);
@@ -315,62 +553,63 @@ public class EcoTaleRewardsPlugin extends JavaPlugin {
             returnService.processAbsence(data, absenceDays);
         }
 
-        // Save
-        storage.savePlayer(playerUuid);
-
-        // Notifications are sent from handlePlayerReady after processPlayerLogin
+        // No-op under write-behind — the dirty record is flushed with the next batch
+        storage.savePlayer(data.getPlayerUuid());
+        return absenceDays;
     }
 
     private void sendLoginNotifications(@Nonnull UUID playerUuid,
                                         @Nonnull PlayerRewardData data,
                                         int absenceDays,
                                         @Nonnull Player player) {
-        RewardsConfig config = configManager.getConfig();
+        List<String> parts = configManager.getConfig().getGeneral().getLoginNotifications();
+        List<String> lines = new ArrayList<>(4);
 
         // Welcome back message
-        String welcomeMsg = langManager.getForPlayer(playerUuid, "notify.welcome",
-                "day", String.valueOf(data.getCurrentDay()),
-                "streak", String.valueOf(data.getStreak()));
-        MessageUtil.sendMessage(playerUuid,
-                config.getGeneral().getMessagePrefix() + " " + welcomeMsg);
+        if (parts.contains("welcome")) {
+            lines.add(langManager.prefixedTemplate(playerUuid, "notify.welcome").renderJson(
+                    LangArgs.of(Placeholder.DAY, data.getCurrentDay())
+                            .and(Placeholder.STREAK, data.getStreak())));
+        }
 
         // Return reward notification
-        if (data.isPendingReturnReward()) {
+        if (parts.contains("return_reward") && data.isPendingReturnReward()) {
             ReturnRewardTier tier = returnService.getPlayerReturnTier(data);
             if (tier != null) {
-                String returnMsg = langManager.getForPlayer(playerUuid, "notify.return_reward",
-                        "days", String.valueOf(absenceDays),
-                        "coins", MessageUtil.formatCoins(tier.getCoins()),
-                        "xp", String.valueOf(tier.getXp()));
-                MessageUtil.sendMessage(playerUuid,
-                        config.getGeneral().getMessagePrefix() + " " + returnMsg);
+                lines.add(langManager.prefixedTemplate(playerUuid, "notify.return_reward").renderJson(
+                        LangArgs.of(Placeholder.DAYS, absenceDays)
+                                .and(Placeholder.COINS, MessageUtil.formatCoins(tier.getCoins()))
+                                .and(Placeholder.XP, tier.getXp())));
             }
         }
 
         // Unclaimed day reminder
-        if (calendarService.canClaim(data, LocalDate.now())) {
-            String claimMsg = langManager.getForPlayer(playerUuid, "notify.claim_available",
-                    "day", String.valueOf(data.getCurrentDay()));
-            MessageUtil.sendMessage(playerUuid,
-                    config.getGeneral().getMessagePrefix() + " " + claimMsg);
+        if (parts.contains("claim_available") && calendarService.canClaim(data, LocalDate.now())) {
+            lines.add(langManager.prefixedTemplate(playerUuid, "notify.claim_available").renderJson(
+                    LangArgs.of(Placeholder.DAY, data.getCurrentDay())));
         }
 
         // Milestone approaching
-        StreakMilestone next = streakService.getNextMilestone(data.getStreak());
+        StreakMilestone next = parts.contains("milestone_close")
+                ? streakService.getNextMilestone(data.getStreak()) : null;
         if (next != null) {
             int remaining = next.getDays() - data.getStreak();
             if (remaining <= 3 && remaining > 0) {
-                String msMsg = langManager.getForPlayer(playerUuid, "notify.milestone_close",
-                        "remaining", String.valueOf(remaining),
-                        "days", String.valueOf(next.getDays()));
-                MessageUtil.sendMessage(playerUuid,
-                        config.getGeneral().getMessagePrefix() + " " + msMsg);
+                lines.add(langManager.prefixedTemplate(playerUuid, "notify.milestone_close").renderJson(
+                        LangArgs.of(Placeholder.REMAINING, remaining)
+                                .and(Placeholder.DAYS, next.getDays())));
             }
         }
 
+        // One multi-line message, one send
+        if (!lines.isEmpty()) {
+            MessageUtil.sendMessage(playerUuid, MessageTemplate.joinLines(lines));
+        }
+
         // Auto-open calendar GUI only ONCE per day (first login of the day)
-        if (!data.hasAutoGuiShownToday()) {
-            data.markAutoGuiShown();
+        int today = EpochDays.today();
+        Integer shownDay = autoGuiShownDay.put(playerUuid, today);
+        if (shownDay == null || shownDay != today) {
             HytaleServer.SCHEDULED_EXECUTOR.schedule(
                     () -> openCalendarGuiForPlayer(player, playerUuid),
                     3, TimeUnit.SECONDS);
@@ -411,7 +650,7 @@ public class EcoTaleRewardsPlugin extends JavaPlugin {
 
                     RewardsConfig cfg = configManager.getConfig();
                     RewardsCalendarGui.open(calendarService, streakService,
-                            returnService, rewardService, antiAbuse,
+                            returnService, rewardService, antiAbuse, claimService,
                             storage, langManager, cfg,
                             playerRef, ref, store, playerUuid);
                     LOGGER.info("[autoGUI] Calendar GUI opened for {}", playerUuid);
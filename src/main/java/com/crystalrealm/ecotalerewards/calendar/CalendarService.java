@@ -4,13 +4,16 @@ import com.crystalrealm.ecotalerewards.config.RewardsConfig;
 import com.crystalrealm.ecotalerewards.model.DayStatus;
 import com.crystalrealm.ecotalerewards.model.PlayerRewardData;
 import com.crystalrealm.ecotalerewards.model.RewardDay;
+import com.crystalrealm.ecotalerewards.rewards.PayoutRow;
+import com.crystalrealm.ecotalerewards.rewards.PayoutScale;
+import com.crystalrealm.ecotalerewards.storage.ClaimJournal;
+import com.crystalrealm.ecotalerewards.util.EpochDays;
 import com.crystalrealm.ecotalerewards.util.PluginLogger;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
 import java.util.*;
 
 /**
@@ -23,6 +26,7 @@ public class CalendarService {
 
     private final RewardsConfig config;
     private final Map<Integer, RewardDay> rewardDays = new LinkedHashMap<>();
+    private ClaimJournal journal = ClaimJournal.NONE;
 
     public CalendarService(@Nonnull RewardsConfig config) {
         this.config = config;
@@ -30,23 +34,31 @@ public class CalendarService {
     }
 
     /**
-     * Parse reward day configs into RewardDay objects.
+     * Parse reward day configs into RewardDay objects with compiled payout rows.
      */
     private void loadRewardDays() {
         rewardDays.clear();
+        PayoutScale scale = PayoutScale.compile(config);
         Map<String, RewardsConfig.DayRewardEntry> days = config.getCalendar().getDays();
         for (Map.Entry<String, RewardsConfig.DayRewardEntry> entry : days.entrySet()) {
             try {
                 int dayNum = Integer.parseInt(entry.getKey());
                 RewardsConfig.DayRewardEntry e = entry.getValue();
-                rewardDays.put(dayNum, new RewardDay(
+                BigDecimal coins = BigDecimal.valueOf(e.getCoins());
+                RewardDay rewardDay = new RewardDay(
                         dayNum,
-                        BigDecimal.valueOf(e.getCoins()),
+                        coins,
                         e.getXP(),
                         e.getItems() != null ? e.getItems() : List.of(),
                         e.getCommands() != null ? e.getCommands() : List.of(),
-                        e.getDescription() != null ? e.getDescription() : ""
-                ));
+                        e.getDescription() != null ? e.getDescription() : "",
+                        PayoutRow.withStreak(scale, coins, e.getXP(), "DailyReward Day " + dayNum, "day" + dayNum)
+                );
+                int invalid = rewardDay.getItems().size() - rewardDay.getItemGrants().size();
+                if (invalid > 0) {
+                    LOGGER.warn("Day {}: {} invalid item entr(ies) ignored: {}", dayNum, invalid, rewardDay.getItems());
+                }
+                rewardDays.put(dayNum, rewardDay);
             } catch (NumberFormatException ignored) {
                 LOGGER.warn("Invalid day key in config: {}", entry.getKey());
             }
@@ -54,6 +66,13 @@ public class CalendarService {
         LOGGER.info("Loaded {} calendar reward days.", rewardDays.size());
     }
 
+    /**
+     * Journal that records state transitions (see {@link ClaimJournal}).
+     */
+    public void setJournal(@Nonnull ClaimJournal journal) {
+        this.journal = journal;
+    }
+
     /**
      * Reload reward days from config (after hot-reload).
      */
@@ -68,21 +87,28 @@ public class CalendarService {
      * @return number of absence days (0 = consecutive login)
      */
     public int processLogin(@Nonnull PlayerRewardData data, @Nonnull LocalDate today) {
-        LocalDate lastLogin = data.getLastLoginDate();
-        data.setLastLoginDate(today);
+        int absenceDays = applyLogin(data, today);
+        journal.recordLogin(data);
+        return absenceDays;
+    }
+
+    private int applyLogin(@Nonnull PlayerRewardData data, @Nonnull LocalDate today) {
+        int todayDay = (int) today.toEpochDay();
+        int lastLogin = data.getLastLoginEpochDay();
+        data.setLastLoginEpochDay(todayDay);
 
-        if (lastLogin == null) {
+        if (lastLogin == EpochDays.NONE) {
             // First ever login
             data.setCurrentDay(1);
             return 0;
         }
 
-        if (lastLogin.equals(today)) {
+        if (lastLogin == todayDay) {
             // Already logged in today
             return 0;
         }
 
-        long daysSinceLastLogin = ChronoUnit.DAYS.between(lastLogin, today);
+        long daysSinceLastLogin = (long) todayDay - lastLogin;
 
         if (daysSinceLastLogin == 1) {
             // Consecutive login — advance calendar
@@ -140,11 +166,10 @@ public class CalendarService {
     public Map<Integer, DayStatus> getDayStatuses(@Nonnull PlayerRewardData data) {
         int totalDays = config.getCalendar().getTotalDays();
         int currentDay = data.getCurrentDay();
-        Set<Integer> claimed = data.getClaimedDays();
 
         Map<Integer, DayStatus> statuses = new LinkedHashMap<>();
         for (int day = 1; day <= totalDays; day++) {
-            if (claimed.contains(day)) {
+            if (data.isClaimedDay(day)) {
                 statuses.put(day, DayStatus.CLAIMED);
             } else if (day == currentDay) {
                 statuses.put(day, DayStatus.AVAILABLE);
@@ -182,7 +207,7 @@ public class CalendarService {
         if (data.isClaimedDay(currentDay)) return false;
 
         // Already claimed today (different day number check)
-        if (today.equals(data.getLastClaimDate())) return false;
+        if (data.getLastClaimEpochDay() == today.toEpochDay()) return false;
 
         return true;
     }
@@ -192,7 +217,8 @@ public class CalendarService {
      */
     public void markClaimed(@Nonnull PlayerRewardData data, int day, @Nonnull LocalDate today) {
         data.addClaimedDay(day);
-        data.setLastClaimDate(today);
+        data.setLastClaimEpochDay((int) today.toEpochDay());
         data.recordClaimToday(today);
+        journal.recordClaim(data, day);
     }
 }
@@ -0,0 +1,260 @@
+package com.crystalrealm.ecotalerewards.claim;
+
+import com.crystalrealm.ecotalerewards.calendar.CalendarService;
+import com.crystalrealm.ecotalerewards.model.PlayerRewardData;
+import com.crystalrealm.ecotalerewards.model.ReturnRewardTier;
+import com.crystalrealm.ecotalerewards.model.RewardDay;
+import com.crystalrealm.ecotalerewards.model.StreakMilestone;
+import com.crystalrealm.ecotalerewards.protection.AntiAbuseGuard;
+import com.crystalrealm.ecotalerewards.returns.ReturnRewardService;
+import com.crystalrealm.ecotalerewards.rewards.RewardContext;
+import com.crystalrealm.ecotalerewards.rewards.RewardService;
+import com.crystalrealm.ecotalerewards.storage.ClaimJournal;
+import com.crystalrealm.ecotalerewards.storage.RewardStorage;
+import com.crystalrealm.ecotalerewards.streaks.StreakService;
+import com.crystalrealm.ecotalerewards.util.PluginLogger;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Claim engine — the single path for daily and return reward claims,
+ * shared by the calendar GUI and {@code /rewards claim}.
+ *
+ * <p>Claims are serialized per player on a striped lock, so a double click
+ * racing a command cannot pay out twice while different players claim in
+ * parallel. Each claim reserves its state (day marked, streak advanced),
+ * waits until the journal has the reservation on disk, then pays out and
+ * restores the state if the payout fails.</p>
+ */
+public class ClaimService {
+
+    private static final PluginLogger LOGGER = PluginLogger.forEnclosingClass();
+
+    private static final int STRIPES = 64; // power of two
+
+    /** Outcome of a claim attempt. */
+    public enum Outcome {
+        CLAIMED,
+        MIN_ONLINE,
+        COOLDOWN,
+        MAX_CLAIMS,
+        ALREADY_CLAIMED,
+        NO_REWARD,
+        PAYOUT_FAILED
+    }
+
+    /** Result of a daily claim; reward fields are set once a reward day was resolved. */
+    public record DayClaim(@Nonnull Outcome outcome,
+                           int day,
+                           @Nullable RewardDay reward,
+                           @Nullable StreakMilestone milestone,
+                           int streak,
+                           double streakMultiplier) {
+
+        static DayClaim rejected(@Nonnull Outcome outcome, int day) {
+            return new DayClaim(outcome, day, null, null, 0, 1.0);
+        }
+
+        public boolean isClaimed() {
+            return outcome == Outcome.CLAIMED;
+        }
+    }
+
+    /** Result of a return reward claim. */
+    public record ReturnClaim(@Nonnull Outcome outcome, @Nullable ReturnRewardTier tier) {
+
+        public boolean isClaimed() {
+            return outcome == Outcome.CLAIMED;
+        }
+    }
+
+    private final CalendarService calendarService;
+    private final StreakService streakService;
+    private final ReturnRewardService returnService;
+    private final RewardService rewardService;
+    private final AntiAbuseGuard antiAbuse;
+    private final RewardStorage storage;
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private ClaimJournal journal = ClaimJournal.NONE;
+
+    public ClaimService(@Nonnull CalendarService calendarService,
+                        @Nonnull StreakService streakService,
+                        @Nonnull ReturnRewardService returnService,
+                        @Nonnull RewardService rewardService,
+                        @Nonnull AntiAbuseGuard antiAbuse,
+                        @Nonnull RewardStorage storage) {
+        this.calendarService = calendarService;
+        this.streakService = streakService;
+        this.returnService = returnService;
+        this.rewardService = rewardService;
+        this.antiAbuse = antiAbuse;
+        this.storage = storage;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Journal that claims wait on before paying out and that records rollbacks (see {@link ClaimJournal}).
+     */
+    public void setJournal(@Nonnull ClaimJournal journal) {
+        this.journal = journal;
+    }
+
+    // ═════════════════════════════════════════════════════════
+    //  DAILY CLAIM
+    // ═════════════════════════════════════════════════════════
+
+    /**
+     * Claim today's calendar reward.
+     *
+     * @param ctx       the claiming player and its entity handles
+     * @param vipSender command sender for the VIP lookup, or null (GUI) to use PermissionHelper
+     */
+    @Nonnull
+    public DayClaim claimDay(@Nonnull RewardContext ctx, @Nullable Object vipSender) {
+        ReentrantLock lock = lockFor(ctx.getPlayerUuid());
+        lock.lock();
+        try {
+            return claimDayLocked(ctx, vipSender);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Nonnull
+    private DayClaim claimDayLocked(@Nonnull RewardContext ctx, @Nullable Object vipSender) {
+        UUID playerUuid = ctx.getPlayerUuid();
+        PlayerRewardData prd = storage.loadOrCreate(playerUuid);
+        LocalDate today = LocalDate.now();
+        int day = prd.getCurrentDay();
+
+        String abuseReason = antiAbuse.checkCanClaim(prd, today);
+        if (abuseReason != null) {
+            Outcome outcome = switch (abuseReason) {
+                case "min_online" -> Outcome.MIN_ONLINE;
+                case "cooldown"   -> Outcome.COOLDOWN;
+                default           -> Outcome.MAX_CLAIMS;
+            };
+            return DayClaim.rejected(outcome, day);
+        }
+        if (!calendarService.canClaim(prd, today)) {
+            return DayClaim.rejected(Outcome.ALREADY_CLAIMED, day);
+        }
+        RewardDay rewardDay = calendarService.getRewardForDay(day);
+        if (rewardDay == null) {
+            return DayClaim.rejected(Outcome.NO_REWARD, day);
+        }
+
+        // Reserve: remember what the claim changes, then apply it
+        int prevStreak = prd.getStreak();
+        int prevLongest = prd.getLongestStreak();
+        int prevLastClaim = prd.getLastClaimEpochDay();
+        streakService.incrementStreak(prd);
+        calendarService.markClaimed(prd, day, today);
+
+        double streakMult = streakService.calculateMultiplier(prd.getStreak());
+        int vipLevel = rewardService.getVipLevel(playerUuid, vipSender);
+
+        boolean paid = false;
+        if (!journal.awaitDurable()) {
+            LOGGER.warn("Claim of day {} for {} not persisted in time — payout skipped.", day, playerUuid);
+        } else {
+            try {
+                paid = rewardService.issueDayReward(ctx, rewardDay, vipLevel, prd.getStreak());
+            } catch (RuntimeException e) {
+                LOGGER.error("Day {} payout failed for {}", day, playerUuid, e);
+            }
+        }
+
+        if (!paid) {
+            prd.removeClaimedDay(day);
+            prd.setLastClaimEpochDay(prevLastClaim);
+            prd.undoClaimToday(today);
+            prd.setStreak(prevStreak);
+            prd.setLongestStreak(prevLongest);
+            journal.recordRollback(prd);
+            storage.savePlayer(playerUuid);
+            LOGGER.warn("Claim of day {} rolled back for {} — payout failed.", day, playerUuid);
+            return new DayClaim(Outcome.PAYOUT_FAILED, day, rewardDay, null, prevStreak, streakMult);
+        }
+
+        antiAbuse.recordClaim(playerUuid);
+
+        StreakMilestone milestone = streakService.checkMilestone(prd.getStreak());
+        if (milestone != null) {
+            try {
+                rewardService.issueMilestoneReward(ctx, milestone, vipLevel);
+            } catch (RuntimeException e) {
+                LOGGER.error("Milestone {}d payout failed for {}", milestone.getDays(), playerUuid, e);
+            }
+        }
+
+        storage.savePlayer(playerUuid);
+        return new DayClaim(Outcome.CLAIMED, day, rewardDay, milestone, prd.getStreak(), streakMult);
+    }
+
+    // ═════════════════════════════════════════════════════════
+    //  RETURN CLAIM
+    // ═════════════════════════════════════════════════════════
+
+    /**
+     * Claim the pending return reward. Parameters as in {@link #claimDay}.
+     */
+    @Nonnull
+    public ReturnClaim claimReturn(@Nonnull RewardContext ctx, @Nullable Object vipSender) {
+        UUID playerUuid = ctx.getPlayerUuid();
+        ReentrantLock lock = lockFor(playerUuid);
+        lock.lock();
+        try {
+            PlayerRewardData prd = storage.loadOrCreate(playerUuid);
+            ReturnRewardTier tier = returnService.getPlayerReturnTier(prd);
+            if (tier == null) {
+                return new ReturnClaim(Outcome.NO_REWARD, null);
+            }
+
+            int prevAbsence = prd.getAbsenceDays();
+            returnService.markReturnClaimed(prd);
+
+            boolean paid = false;
+            if (!journal.awaitDurable()) {
+                LOGGER.warn("Return claim for {} not persisted in time — payout skipped.", playerUuid);
+            } else {
+                try {
+                    paid = rewardService.issueReturnReward(ctx, tier,
+                            rewardService.getVipLevel(playerUuid, vipSender));
+                } catch (RuntimeException e) {
+                    LOGGER.error("Return reward payout failed for {}", playerUuid, e);
+                }
+            }
+
+            if (!paid) {
+                prd.setPendingReturnReward(true);
+                prd.setAbsenceDays(prevAbsence);
+                journal.recordRollback(prd);
+                storage.savePlayer(playerUuid);
+                LOGGER.warn("Return reward claim rolled back for {} — payout failed.", playerUuid);
+                return new ReturnClaim(Outcome.PAYOUT_FAILED, tier);
+            }
+
+            storage.savePlayer(playerUuid);
+            return new ReturnClaim(Outcome.CLAIMED, tier);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ═════════════════════════════════════════════════════════
+    //  PRIVATE
+    // ═════════════════════════════════════════════════════════
+
+    @Nonnull
+    private ReentrantLock lockFor(@Nonnull UUID playerUuid) {
+        int h = playerUuid.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+}
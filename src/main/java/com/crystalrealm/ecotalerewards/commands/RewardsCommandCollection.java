@@ -1,19 +1,23 @@
 package com.crystalrealm.ecotalerewards.commands;
 
 import com.crystalrealm.ecotalerewards.calendar.CalendarService;
+import com.crystalrealm.ecotalerewards.claim.ClaimService;
 import com.crystalrealm.ecotalerewards.config.ConfigManager;
 import com.crystalrealm.ecotalerewards.config.RewardsConfig;
 import com.crystalrealm.ecotalerewards.gui.AdminRewardsGui;
 import com.crystalrealm.ecotalerewards.gui.RewardsCalendarGui;
+import com.crystalrealm.ecotalerewards.lang.LangArgs;
 import com.crystalrealm.ecotalerewards.lang.LangManager;
+import com.crystalrealm.ecotalerewards.lang.Placeholder;
 import com.crystalrealm.ecotalerewards.model.*;
 import com.crystalrealm.ecotalerewards.protection.AntiAbuseGuard;
 import com.crystalrealm.ecotalerewards.returns.ReturnRewardService;
+import com.crystalrealm.ecotalerewards.rewards.RewardContext;
 import com.crystalrealm.ecotalerewards.rewards.RewardService;
 import com.crystalrealm.ecotalerewards.storage.RewardStorage;
 import com.crystalrealm.ecotalerewards.streaks.StreakService;
+import com.crystalrealm.ecotalerewards.util.MessageTemplate;
 import com.crystalrealm.ecotalerewards.util.MessageUtil;
-import com.crystalrealm.ecotalerewards.util.MiniMessageParser;
 import com.crystalrealm.ecotalerewards.util.PermissionHelper;
 import com.crystalrealm.ecotalerewards.util.PluginLogger;
 
@@ -26,10 +30,11 @@ import com.hypixel.hytale.server.core.command.system.basecommands.AbstractAsyncC
 import com.hypixel.hytale.server.core.command.system.basecommands.AbstractCommandCollection;
 import com.hypixel.hytale.server.core.entity.entities.Player;
 import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.world.World;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 
 import javax.annotation.Nonnull;
-import java.time.LocalDate;
+import javax.annotation.Nullable;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 
@@ -75,6 +80,7 @@ public class RewardsCommandCollection extends AbstractCommandCollection {
     private final ReturnRewardService returnService;
     private final RewardService      rewardService;
     private final AntiAbuseGuard     antiAbuse;
+    private final ClaimService       claimService;
     private final RewardStorage      storage;
     private final String             pluginVersion;
 
@@ -85,6 +91,7 @@ public class RewardsCommandCollection extends AbstractCommandCollection {
                                     @Nonnull ReturnRewardService returnService,
                                     @Nonnull RewardService rewardService,
                                     @Nonnull AntiAbuseGuard antiAbuse,
+                                    @Nonnull ClaimService claimService,
                                     @Nonnull RewardStorage storage,
                                     @Nonnull String pluginVersion) {
         super("rewards", "EcoTaleRewards — daily login calendar & streak system");
@@ -97,6 +104,7 @@ public class RewardsCommandCollection extends AbstractCommandCollection {
         this.returnService  = returnService;
         this.rewardService  = rewardService;
         this.antiAbuse      = antiAbuse;
+        this.claimService   = claimService;
         this.storage        = storage;
         this.pluginVersion  = pluginVersion;
 
@@ -148,72 +156,62 @@ public class RewardsCommandCollection extends AbstractCommandCollection {
             if (!checkPerm(sender, context, "ecotalerewards.use")) return done();
 
             UUID uuid = sender.getUuid();
-            PlayerRewardData prd = storage.loadOrCreate(uuid);
-            LocalDate today = LocalDate.now();
-            RewardsConfig config = configManager.getConfig();
-
-            // Anti-abuse
-            String abuseReason = antiAbuse.checkCanClaim(prd, today);
-            if (abuseReason != null) {
-                String msg = switch (abuseReason) {
-                    case "min_online"  -> L(sender, "error.min_online",
-                            "minutes", String.valueOf(config.getAntiAbuse().getMinOnlineMinutes()));
-                    case "cooldown"    -> L(sender, "error.cooldown");
-                    case "max_claims"  -> L(sender, "error.max_claims");
-                    default            -> L(sender, "error.generic");
-                };
-                context.sendMessage(msg(msg));
-                return done();
-            }
-
-            // Calendar check
-            if (!calendarService.canClaim(prd, today)) {
-                context.sendMessage(msg(L(sender, "error.already_claimed")));
-                return done();
-            }
-
-            int day = prd.getCurrentDay();
-            RewardDay rewardDay = calendarService.getRewardForDay(day);
-            if (rewardDay == null) {
-                context.sendMessage(msg(L(sender, "error.no_reward")));
+            Player player = resolvePlayer(sender);
+            Ref<EntityStore> ref = player != null ? player.getReference() : null;
+            World world = player != null ? player.getWorld() : null;
+            if (ref == null || !ref.isValid() || world == null) {
+                // No entity to touch — items go to the outbox, so claiming here is safe
+                sendClaimResult(context, sender, claimService.claimDay(RewardContext.offline(uuid), sender));
                 return done();
             }
 
-            // Streak
-            streakService.incrementStreak(prd);
-            double streakMult = streakService.calculateMultiplier(prd.getStreak());
-            double vipMult = rewardService.getVipMultiplier(uuid, sender);
+            // Payout touches the ECS store and inventory — claim on the player's world thread
+            return CompletableFuture.runAsync(() -> sendClaimResult(context, sender,
+                    claimService.claimDay(RewardContext.of(uuid, ref, ref.getStore()), sender)), world)
+                    .exceptionally(e -> {
+                        LOGGER.error("[rewards claim] Claim failed for {}: {}", uuid, e.getMessage());
+                        return null;
+                    });
+        }
 
-            // Issue reward
-            rewardService.issueDayReward(uuid, rewardDay, vipMult, streakMult);
-            calendarService.markClaimed(prd, day, today);
-            antiAbuse.recordClaim(uuid);
+        private void sendClaimResult(CommandContext context, CommandSender sender, ClaimService.DayClaim claim) {
+            UUID uuid = sender.getUuid();
+            RewardsConfig config = configManager.getConfig();
 
-            // Milestone
-            StreakMilestone milestone = streakService.checkMilestone(prd.getStreak());
-            if (milestone != null) {
-                rewardService.issueMilestoneReward(uuid, milestone, vipMult);
+            com.hypixel.hytale.server.core.Message error = switch (claim.outcome()) {
+                case CLAIMED         -> null;
+                case MIN_ONLINE      -> M(sender, "error.min_online",
+                        LangArgs.of(Placeholder.MINUTES, config.getAntiAbuse().getMinOnlineMinutes()));
+                case COOLDOWN        -> M(sender, "error.cooldown");
+                case MAX_CLAIMS      -> M(sender, "error.max_claims");
+                case ALREADY_CLAIMED -> M(sender, "error.already_claimed");
+                case NO_REWARD       -> M(sender, "error.no_reward");
+                case PAYOUT_FAILED   -> M(sender, "error.payout_failed");
+            };
+            if (error != null) {
+                context.sendMessage(error);
+                return;
             }
 
-            storage.savePlayer(uuid);
+            RewardDay rewardDay = claim.reward();
+            StreakMilestone milestone = claim.milestone();
+            int day = claim.day();
 
             // Output
             String coinStr = MessageUtil.formatCoins(rewardDay.getCoins());
-            String msg = L(sender, "success.claimed",
-                    "day", String.valueOf(day),
-                    "coins", coinStr,
-                    "xp", String.valueOf(rewardDay.getXp()));
-            context.sendMessage(msg(msg));
+            context.sendMessage(M(sender, "success.claimed",
+                    LangArgs.of(Placeholder.DAY, day)
+                            .and(Placeholder.COINS, coinStr)
+                            .and(Placeholder.XP, rewardDay.getXp())));
 
             if (milestone != null) {
-                context.sendMessage(msg(L(sender, "success.milestone",
-                        "days", String.valueOf(milestone.getDays()),
-                        "bonus", MessageUtil.formatCoins(milestone.getBonusCoins()))));
+                context.sendMessage(M(sender, "success.milestone",
+                        LangArgs.of(Placeholder.DAYS, milestone.getDays())
+                                .and(Placeholder.BONUS, MessageUtil.formatCoins(milestone.getBonusCoins()))));
             }
 
             LOGGER.info("[rewards claim] {} claimed day {} (streak={}, mult={})",
-                    uuid, day, prd.getStreak(), String.format("%.2f", streakMult));
-            return done();
+                    uuid, day, claim.streak(), String.format("%.2f", claim.streakMultiplier()));
         }
     }
 
@@ -236,44 +234,44 @@ public class RewardsCommandCollection extends AbstractCommandCollection {
             double vipMult = rewardService.getVipMultiplier(uuid, sender);
             double totalMult = streakMult * vipMult;
 
-            context.sendMessage(msg(L(sender, "cmd.info.header")));
-            context.sendMessage(msg(L(sender, "cmd.info.day",
-                    "current", String.valueOf(prd.getCurrentDay()),
-                    "total", String.valueOf(calendarService.getTotalDays()))));
-            context.sendMessage(msg(L(sender, "cmd.info.streak",
-                    "streak", String.valueOf(prd.getStreak()),
-                    "longest", String.valueOf(prd.getLongestStreak()))));
-            context.sendMessage(msg(L(sender, "cmd.info.multiplier",
-                    "mult", String.format("%.2f", totalMult))));
+            context.sendMessage(M(sender, "cmd.info.header"));
+            context.sendMessage(M(sender, "cmd.info.day",
+                    LangArgs.of(Placeholder.CURRENT, prd.getCurrentDay())
+                            .and(Placeholder.TOTAL, calendarService.getTotalDays())));
+            context.sendMessage(M(sender, "cmd.info.streak",
+                    LangArgs.of(Placeholder.STREAK, prd.getStreak())
+                            .and(Placeholder.LONGEST, prd.getLongestStreak())));
+            context.sendMessage(M(sender, "cmd.info.multiplier",
+                    LangArgs.of(Placeholder.MULT, String.format("%.2f", totalMult))));
 
             // Show VIP tier if player has one
             String vipName = rewardService.getVipTierName(uuid, sender);
             if (vipName != null) {
-                context.sendMessage(msg(L(sender, "cmd.info.vip",
-                        "tier", vipName, "mult", String.format("%.2f", vipMult))));
+                context.sendMessage(M(sender, "cmd.info.vip",
+                        LangArgs.of(Placeholder.TIER, vipName).and(Placeholder.MULT, String.format("%.2f", vipMult))));
             }
 
-            context.sendMessage(msg(L(sender, "cmd.info.claimed",
-                    "count", String.valueOf(prd.getTotalClaimed()))));
+            context.sendMessage(M(sender, "cmd.info.claimed",
+                    LangArgs.of(Placeholder.COUNT, prd.getTotalClaimed())));
 
             StreakMilestone next = streakService.getNextMilestone(prd.getStreak());
             if (next != null) {
                 int remaining = next.getDays() - prd.getStreak();
-                context.sendMessage(msg(L(sender, "cmd.info.next_milestone",
-                        "days", String.valueOf(next.getDays()),
-                        "remaining", String.valueOf(remaining))));
+                context.sendMessage(M(sender, "cmd.info.next_milestone",
+                        LangArgs.of(Placeholder.DAYS, next.getDays())
+                                .and(Placeholder.REMAINING, remaining)));
             }
 
             if (prd.isPendingReturnReward()) {
                 ReturnRewardTier tier = returnService.getPlayerReturnTier(prd);
                 if (tier != null) {
-                    context.sendMessage(msg(L(sender, "cmd.info.return_pending",
-                            "coins", MessageUtil.formatCoins(tier.getCoins()),
-                            "xp", String.valueOf(tier.getXp()))));
+                    context.sendMessage(M(sender, "cmd.info.return_pending",
+                            LangArgs.of(Placeholder.COINS, MessageUtil.formatCoins(tier.getCoins()))
+                                    .and(Placeholder.XP, tier.getXp())));
                 }
             }
 
-            context.sendMessage(msg(L(sender, "cmd.info.footer")));
+            context.sendMessage(M(sender, "cmd.info.footer"));
             return done();
         }
     }
@@ -311,18 +309,18 @@ public class RewardsCommandCollection extends AbstractCommandCollection {
 
             String arg = parseTrailingArg(context);
             if (arg == null || arg.isEmpty()) {
-                context.sendMessage(msg(L(sender, "cmd.reset.usage")));
+                context.sendMessage(M(sender, "cmd.reset.usage"));
                 return done();
             }
 
             try {
                 UUID targetUuid = UUID.fromString(arg);
                 storage.deletePlayer(targetUuid);
-                context.sendMessage(msg(L(sender, "cmd.reset.success",
-                        "uuid", targetUuid.toString())));
+                context.sendMessage(M(sender, "cmd.reset.success",
+                        LangArgs.of(Placeholder.UUID, targetUuid.toString())));
                 LOGGER.info("[rewards reset] {} reset player {}", sender.getDisplayName(), targetUuid);
             } catch (IllegalArgumentException e) {
-                context.sendMessage(msg(L(sender, "cmd.reset.invalid_uuid")));
+                context.sendMessage(M(sender, "cmd.reset.invalid_uuid"));
             }
 
             return done();
@@ -345,13 +343,14 @@ public class RewardsCommandCollection extends AbstractCommandCollection {
             if (success) {
                 String newLang = configManager.getConfig().getGeneral().getLanguage();
                 langManager.reload(newLang);
+                langManager.setMessagePrefix(configManager.getConfig().getGeneral().getMessagePrefix());
                 calendarService.reload();
                 streakService.reload();
                 returnService.reload();
                 PermissionHelper.getInstance().reload();
-                context.sendMessage(msg(L(sender, "cmd.reload.success")));
+                context.sendMessage(M(sender, "cmd.reload.success"));
             } else {
-                context.sendMessage(msg(L(sender, "cmd.reload.fail")));
+                context.sendMessage(M(sender, "cmd.reload.fail"));
             }
             return done();
         }
@@ -375,7 +374,7 @@ public class RewardsCommandCollection extends AbstractCommandCollection {
             CommandSender sender = context.sender();
             if (!checkPerm(sender, context, "ecotalerewards.use")) return done();
             langManager.setPlayerLang(sender.getUuid(), langCode);
-            context.sendMessage(msg(L(sender, "cmd.lang.switched")));
+            context.sendMessage(M(sender, "cmd.lang.switched"));
             return done();
         }
     }
@@ -393,16 +392,16 @@ public class RewardsCommandCollection extends AbstractCommandCollection {
             CommandSender sender = context.sender();
             if (!checkPerm(sender, context, "ecotalerewards.use")) return done();
 
-            context.sendMessage(msg(L(sender, "cmd.help.header")));
-            context.sendMessage(msg(L(sender, "cmd.help.rewards")));
-            context.sendMessage(msg(L(sender, "cmd.help.calendar")));
-            context.sendMessage(msg(L(sender, "cmd.help.claim")));
-            context.sendMessage(msg(L(sender, "cmd.help.info")));
-            context.sendMessage(msg(L(sender, "cmd.help.admin_reset")));
-            context.sendMessage(msg(L(sender, "cmd.help.admin_grant")));
-            context.sendMessage(msg(L(sender, "cmd.help.lang")));
-            context.sendMessage(msg(L(sender, "cmd.help.help")));
-            context.sendMessage(msg(L(sender, "cmd.help.footer")));
+            context.sendMessage(M(sender, "cmd.help.header"));
+            context.sendMessage(M(sender, "cmd.help.rewards"));
+            context.sendMessage(M(sender, "cmd.help.calendar"));
+            context.sendMessage(M(sender, "cmd.help.claim"));
+            context.sendMessage(M(sender, "cmd.help.info"));
+            context.sendMessage(M(sender, "cmd.help.admin_reset"));
+            context.sendMessage(M(sender, "cmd.help.admin_grant"));
+            context.sendMessage(M(sender, "cmd.help.lang"));
+            context.sendMessage(M(sender, "cmd.help.help"));
+            context.sendMessage(M(sender, "cmd.help.footer"));
             return done();
         }
     }
@@ -418,32 +417,7 @@ public class RewardsCommandCollection extends AbstractCommandCollection {
     private void openGuiForSender(CommandContext context, CommandSender sender, boolean admin) {
         String label = admin ? "admin" : "gui";
 
-        // Try direct cast first, then reflection fallback (LuckPerms compatibility)
-        Player player = null;
-        if (sender instanceof Player p) {
-            player = p;
-        } else {
-            // Fallback: resolve Player from CommandSender via reflection
-            try {
-                java.lang.reflect.Method getPlayer = sender.getClass().getMethod("getPlayer");
-                Object result = getPlayer.invoke(sender);
-                if (result instanceof Player p) {
-                    player = p;
-                }
-            } catch (Exception ignored) {}
-
-            if (player == null) {
-                // Second fallback: try casting the underlying sender
-                try {
-                    java.lang.reflect.Method getHandle = sender.getClass().getMethod("getHandle");
-                    Object handle = getHandle.invoke(sender);
-                    if (handle instanceof Player p) {
-                        player = p;
-                    }
-                } catch (Exception ignored) {}
-            }
-        }
-
+        Player player = resolvePlayer(sender);
         if (player == null) {
             LOGGER.warn("[rewards {}] Could not resolve Player from sender: {} (class: {})",
                     label, sender.getDisplayName(), sender.getClass().getName());
@@ -484,7 +458,7 @@ public class RewardsCommandCollection extends AbstractCommandCollection {
                                         uuid, pluginVersion);
                             } else {
                                 RewardsCalendarGui.open(calendarService, streakService,
-                                        returnService, rewardService, antiAbuse,
+                                        returnService, rewardService, antiAbuse, claimService,
                                         storage, langManager, cfg,
                                         playerRef, ref, store, uuid);
                             }
@@ -531,6 +505,28 @@ public class RewardsCommandCollection extends AbstractCommandCollection {
         openGuiForSender(context, sender, true);
     }
 
+    /**
+     * Resolves the {@link Player} behind a sender — direct cast first, then
+     * reflection fallbacks (LuckPerms compatibility).
+     */
+    @Nullable
+    private static Player resolvePlayer(CommandSender sender) {
+        if (sender instanceof Player p) return p;
+
+        // Fallback: resolve Player from CommandSender via reflection
+        try {
+            java.lang.reflect.Method getPlayer = sender.getClass().getMethod("getPlayer");
+            if (getPlayer.invoke(sender) instanceof Player p) return p;
+        } catch (Exception ignored) {}
+
+        // Second fallback: try casting the underlying sender
+        try {
+            java.lang.reflect.Method getHandle = sender.getClass().getMethod("getHandle");
+            if (getHandle.invoke(sender) instanceof Player p) return p;
+        } catch (Exception ignored) {}
+        return null;
+    }
+
     /**
      * Parses trailing argument from {@code getInputString()},
      * filtering out known command keywords.
@@ -556,13 +552,17 @@ public class RewardsCommandCollection extends AbstractCommandCollection {
         return null;
     }
 
-    private String L(CommandSender sender, String key, String... args) {
-        return langManager.getForPlayer(sender.getUuid(), key, args);
+    private com.hypixel.hytale.server.core.Message M(CommandSender sender, String key) {
+        return langManager.messageForPlayer(sender.getUuid(), key);
+    }
+
+    private com.hypixel.hytale.server.core.Message M(CommandSender sender, String key, LangArgs args) {
+        return langManager.messageForPlayer(sender.getUuid(), key, args);
     }
 
     private boolean checkPerm(CommandSender sender, CommandContext ctx, String perm) {
         if (hasPermWithWildcard(sender, perm)) return true;
-        ctx.sendMessage(msg(L(sender, "cmd.no_permission")));
+        ctx.sendMessage(M(sender, "cmd.no_permission"));
         return false;
     }
 
@@ -580,15 +580,8 @@ public class RewardsCommandCollection extends AbstractCommandCollection {
         // 1. Native check (works with LuckPerms, OP, etc.)
         if (sender.hasPermission(perm)) return true;
         // 2. Wildcard chain via native: a.b.c → a.b.* → a.* → *
-        String[] parts = perm.split("\\.");
-        for (int i = parts.length - 1; i >= 1; i--) {
-            StringBuilder sb = new StringBuilder();
-            for (int j = 0; j < i; j++) {
-                if (j > 0) sb.append('.');
-                sb.append(parts[j]);
-            }
-            sb.append(".*");
-            if (sender.hasPermission(sb.toString())) return true;
+        for (String wildcard : PermissionHelper.wildcardAncestors(perm)) {
+            if (sender.hasPermission(wildcard)) return true;
         }
         if (sender.hasPermission("*")) return true;
         // 3. Fallback: resolve from permissions.json groups
@@ -596,7 +589,7 @@ public class RewardsCommandCollection extends AbstractCommandCollection {
     }
 
     private static com.hypixel.hytale.server.core.Message msg(String miniMessage) {
-        return com.hypixel.hytale.server.core.Message.parse(MiniMessageParser.toJson(miniMessage));
+        return MessageTemplate.compile(miniMessage).render();
     }
 
     private static CompletableFuture<Void> done() {
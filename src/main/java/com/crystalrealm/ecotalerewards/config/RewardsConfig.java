@@ -44,12 +44,30 @@ public class RewardsConfig {
     // ═════════════════════════════════════════════════════════
 
     public static class GeneralSection {
+        private static final List<String> DEFAULT_LOGIN_NOTIFICATIONS =
+                List.of("welcome", "return_reward", "claim_available", "milestone_close");
+
         private boolean DebugMode = false;
         private String Language = "ru";
         private String MessagePrefix = "<dark_gray>[<gold>\uD83C\uDF81<dark_gray>]";
         private int AutoSaveIntervalMinutes = 5;
         private String EconomyProvider = "ecotale";
         private String LevelProvider = "rpgleveling";
+        private String StorageType = "json";
+        private boolean PrettyPrintJson = false;
+        private int ShardMigrationThreads = 2;
+        private boolean WriteBehind = true;
+        private int WriteBehindFlushSeconds = 10;
+        private int CacheMaxPlayers = 2000;
+        private int CacheIdleMinutes = 30;
+        private int JournalCompactMinutes = 15;
+        private int ProviderProbeSeconds = 30;
+        private int ProviderFailureThreshold = 3;
+        private int OutboxRetrySeconds = 60;
+        private int CommandsPerTick = 20;
+        private int CommandTickBudgetMillis = 5;
+        private int PermissionCacheSeconds = 60;
+        private List<String> LoginNotifications = new ArrayList<>(DEFAULT_LOGIN_NOTIFICATIONS);
 
         public boolean isDebugMode() { return DebugMode; }
         public void setDebugMode(boolean v) { DebugMode = v; }
@@ -60,6 +78,24 @@ public class RewardsConfig {
         public void setAutoSaveIntervalMinutes(int v) { AutoSaveIntervalMinutes = Math.max(1, v); }
         public String getEconomyProvider() { return EconomyProvider != null ? EconomyProvider : "ecotale"; }
         public String getLevelProvider() { return LevelProvider != null ? LevelProvider : "rpgleveling"; }
+        public String getStorageType() { return StorageType != null ? StorageType : "json"; }
+        public boolean isPrettyPrintJson() { return PrettyPrintJson; }
+        public int getShardMigrationThreads() { return Math.max(0, ShardMigrationThreads); }
+        public boolean isWriteBehind() { return WriteBehind; }
+        public int getWriteBehindFlushSeconds() { return Math.max(1, WriteBehindFlushSeconds); }
+        public int getCacheMaxPlayers() { return Math.max(1, CacheMaxPlayers); }
+        public int getCacheIdleMinutes() { return Math.max(1, CacheIdleMinutes); }
+        public int getJournalCompactMinutes() { return Math.max(1, JournalCompactMinutes); }
+        public int getProviderProbeSeconds() { return Math.max(5, ProviderProbeSeconds); }
+        public int getProviderFailureThreshold() { return Math.max(1, ProviderFailureThreshold); }
+        public int getOutboxRetrySeconds() { return Math.max(10, OutboxRetrySeconds); }
+        public int getCommandsPerTick() { return Math.max(1, CommandsPerTick); }
+        public int getCommandTickBudgetMillis() { return Math.max(1, Math.min(50, CommandTickBudgetMillis)); }
+        public int getPermissionCacheSeconds() { return Math.max(0, PermissionCacheSeconds); }
+        /** Parts of the login message: welcome, return_reward, claim_available, milestone_close. */
+        public List<String> getLoginNotifications() {
+            return LoginNotifications != null ? LoginNotifications : DEFAULT_LOGIN_NOTIFICATIONS;
+        }
     }
 
     public static class CalendarSection {
@@ -2,7 +2,9 @@ package com.crystalrealm.ecotalerewards.gui;
 
 import com.crystalrealm.ecotalerewards.config.ConfigManager;
 import com.crystalrealm.ecotalerewards.config.RewardsConfig;
+import com.crystalrealm.ecotalerewards.lang.LangArgs;
 import com.crystalrealm.ecotalerewards.lang.LangManager;
+import com.crystalrealm.ecotalerewards.lang.Placeholder;
 import com.crystalrealm.ecotalerewards.storage.RewardStorage;
 import com.crystalrealm.ecotalerewards.util.PluginLogger;
 
@@ -406,7 +408,7 @@ public final class AdminRewardsGui extends InteractiveCustomUIPage<AdminRewardsG
                 }
 
                 saveConfig();
-                refreshPage(null, L("gui.admin.day_saved", "day", String.valueOf(editingDay)));
+                refreshPage(null, L("gui.admin.day_saved", LangArgs.of(Placeholder.DAY, editingDay)));
             }
         }
     }
@@ -571,7 +573,7 @@ public final class AdminRewardsGui extends InteractiveCustomUIPage<AdminRewardsG
 
         // Stats
         cmd.set("#StatPlayersLabel.Text", L("gui.admin.stat_players"));
-        cmd.set("#StatPlayersValue.Text", "—");
+        cmd.set("#StatPlayersValue.Text", String.valueOf(storage.getTrackedPlayerCount()));
         cmd.set("#StatTotalClaimsLabel.Text", L("gui.admin.stat_total_claims"));
         cmd.set("#StatTotalClaimsValue.Text", "—");
         cmd.set("#StatVersionLabel.Text", L("gui.admin.stat_version"));
@@ -586,7 +588,7 @@ public final class AdminRewardsGui extends InteractiveCustomUIPage<AdminRewardsG
         RewardsConfig.DayRewardEntry entry = getOrCreateDayEntry(editingDay);
 
         // Day selector
-        cmd.set("#DayNumLabel.Text", L("gui.admin.day_num", "day", String.valueOf(editingDay)));
+        cmd.set("#DayNumLabel.Text", L("gui.admin.day_num", LangArgs.of(Placeholder.DAY, editingDay)));
         cmd.set("#DayDescLabel.Text", entry.getDescription());
 
         // Coins (TextField)
@@ -768,7 +770,11 @@ public final class AdminRewardsGui extends InteractiveCustomUIPage<AdminRewardsG
     //  HELPERS
     // ════════════════════════════════════════════════════════
 
-    private String L(String key, String... args) {
+    private String L(String key) {
+        return langManager.getForPlayer(playerUuid, key);
+    }
+
+    private String L(String key, LangArgs args) {
         return langManager.getForPlayer(playerUuid, key, args);
     }
 
@@ -1,11 +1,15 @@
 package com.crystalrealm.ecotalerewards.gui;
 
 import com.crystalrealm.ecotalerewards.calendar.CalendarService;
+import com.crystalrealm.ecotalerewards.claim.ClaimService;
 import com.crystalrealm.ecotalerewards.config.RewardsConfig;
+import com.crystalrealm.ecotalerewards.lang.LangArgs;
 import com.crystalrealm.ecotalerewards.lang.LangManager;
+import com.crystalrealm.ecotalerewards.lang.Placeholder;
 import com.crystalrealm.ecotalerewards.model.*;
 import com.crystalrealm.ecotalerewards.protection.AntiAbuseGuard;
 import com.crystalrealm.ecotalerewards.returns.ReturnRewardService;
+import com.crystalrealm.ecotalerewards.rewards.RewardContext;
 import com.crystalrealm.ecotalerewards.rewards.RewardService;
 import com.crystalrealm.ecotalerewards.storage.RewardStorage;
 import com.crystalrealm.ecotalerewards.streaks.StreakService;
@@ -27,6 +31,7 @@ import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.UUID;
 
@@ -54,6 +59,14 @@ public final class RewardsCalendarGui extends InteractiveCustomUIPage<RewardsCal
     private static final String PAGE_PATH = "Pages/CrystalRealm_EcoTaleRewards_CalendarPanel.ui";
     private static final int    MAX_DAYS  = 30;
 
+    private static final String[] DAY_PREFIXES = new String[MAX_DAYS + 1];
+    static {
+        for (int i = 1; i <= MAX_DAYS; i++) DAY_PREFIXES[i] = "#Day" + i;
+    }
+
+    /** Inputs of one day cell; equal state means the cell renders identically. */
+    private record CellState(RewardDay reward, DayStatus status, boolean claimable, String lang) {}
+
     // ── Event data keys ─────────────────────────────────────
     private static final String KEY_ACTION = "Action";
     private static final String KEY_SLOT   = "Slot";
@@ -70,6 +83,7 @@ public final class RewardsCalendarGui extends InteractiveCustomUIPage<RewardsCal
     private final ReturnRewardService returnService;
     private final RewardService      rewardService;
     private final AntiAbuseGuard     antiAbuse;
+    private final ClaimService       claimService;
     private final RewardStorage      storage;
     private final LangManager        lang;
     private final RewardsConfig      config;
@@ -82,6 +96,10 @@ public final class RewardsCalendarGui extends InteractiveCustomUIPage<RewardsCal
     private Ref<EntityStore>   savedRef;
     private Store<EntityStore> savedStore;
 
+    // What the client currently shows, so refreshes send only changes
+    private final UiDelta     delta      = new UiDelta();
+    private final CellState[] cellStates = new CellState[MAX_DAYS + 1];
+
     // ════════════════════════════════════════════════════════
     //  CONSTRUCTORS
     // ════════════════════════════════════════════════════════
@@ -91,13 +109,14 @@ public final class RewardsCalendarGui extends InteractiveCustomUIPage<RewardsCal
                               @Nonnull ReturnRewardService returnService,
                               @Nonnull RewardService rewardService,
                               @Nonnull AntiAbuseGuard antiAbuse,
+                              @Nonnull ClaimService claimService,
                               @Nonnull RewardStorage storage,
                               @Nonnull LangManager lang,
                               @Nonnull RewardsConfig config,
                               @Nonnull PlayerRef playerRef,
                               @Nonnull UUID playerUuid) {
         this(calendarService, streakService, returnService, rewardService,
-             antiAbuse, storage, lang, config, playerRef, playerUuid, null, null);
+             antiAbuse, claimService, storage, lang, config, playerRef, playerUuid, null, null);
     }
 
     public RewardsCalendarGui(@Nonnull CalendarService calendarService,
@@ -105,6 +124,7 @@ public final class RewardsCalendarGui extends InteractiveCustomUIPage<RewardsCal
                               @Nonnull ReturnRewardService returnService,
                               @Nonnull RewardService rewardService,
                               @Nonnull AntiAbuseGuard antiAbuse,
+                              @Nonnull ClaimService claimService,
                               @Nonnull RewardStorage storage,
                               @Nonnull LangManager lang,
                               @Nonnull RewardsConfig config,
@@ -118,6 +138,7 @@ public final class RewardsCalendarGui extends InteractiveCustomUIPage<RewardsCal
         this.returnService   = returnService;
         this.rewardService   = rewardService;
         this.antiAbuse       = antiAbuse;
+        this.claimService    = claimService;
         this.storage         = storage;
         this.lang            = lang;
         this.config          = config;
@@ -139,9 +160,11 @@ public final class RewardsCalendarGui extends InteractiveCustomUIPage<RewardsCal
         this.savedStore = store;
 
         cmd.append(PAGE_PATH);
+        resetDelta();
+        UiDelta ui = delta.begin(cmd);
 
         // Title
-        cmd.set("#TitleLabel.Text", L("gui.title"));
+        ui.set("#TitleLabel.Text", L("gui.title"));
 
         // ── Bind events (once) ──────────────────────────────
 
@@ -157,19 +180,19 @@ public final class RewardsCalendarGui extends InteractiveCustomUIPage<RewardsCal
 
         // ── Banners ─────────────────────────────────────────
         if (errorMessage != null && !errorMessage.isEmpty()) {
-            cmd.set("#ErrorBanner.Visible", true);
-            cmd.set("#ErrorText.Text", stripForUI(errorMessage));
+            ui.set("#ErrorBanner.Visible", true);
+            ui.set("#ErrorText.Text", stripForUI(errorMessage));
         }
         if (successMessage != null && !successMessage.isEmpty()) {
-            cmd.set("#SuccessBanner.Visible", true);
-            cmd.set("#SuccessText.Text", stripForUI(successMessage));
+            ui.set("#SuccessBanner.Visible", true);
+            ui.set("#SuccessText.Text", stripForUI(successMessage));
         }
 
         // ── Fill all data ───────────────────────────────────
-        updateCalendarData(cmd);
-        updateStreakPanel(cmd);
-        updateReturnBanner(cmd);
-        updateClaimArea(cmd);
+        updateCalendarData(ui);
+        updateStreakPanel(ui);
+        updateReturnBanner(ui);
+        updateClaimArea(ui);
 
         LOGGER.info("Calendar GUI built for {}", playerUuid);
     }
@@ -207,70 +230,38 @@ public final class RewardsCalendarGui extends InteractiveCustomUIPage<RewardsCal
     // ── Claim daily reward ──────────────────────────────────
 
     private void handleClaim() {
-        PlayerRewardData prd = storage.loadOrCreate(playerUuid);
-        LocalDate today = LocalDate.now();
-
-        // Anti-abuse check
-        String abuseReason = antiAbuse.checkCanClaim(prd, today);
-        if (abuseReason != null) {
-            String msg = switch (abuseReason) {
-                case "min_online"  -> L("error.min_online",
-                        "minutes", String.valueOf(config.getAntiAbuse().getMinOnlineMinutes()));
-                case "cooldown"    -> L("error.cooldown");
-                case "max_claims"  -> L("error.max_claims");
-                default            -> L("error.generic");
-            };
-            refreshPage(msg, null);
-            return;
-        }
-
-        // Calendar check
-        if (!calendarService.canClaim(prd, today)) {
-            refreshPage(L("error.already_claimed"), null);
-            return;
-        }
-
-        int day = prd.getCurrentDay();
-        RewardDay rewardDay = calendarService.getRewardForDay(day);
-        if (rewardDay == null) {
-            refreshPage(L("error.no_reward"), null);
+        ClaimService.DayClaim claim = claimService.claimDay(
+                RewardContext.of(playerUuid, savedRef, savedStore), null);
+
+        String error = switch (claim.outcome()) {
+            case CLAIMED         -> null;
+            case MIN_ONLINE      -> L("error.min_online",
+                    LangArgs.of(Placeholder.MINUTES, config.getAntiAbuse().getMinOnlineMinutes()));
+            case COOLDOWN        -> L("error.cooldown");
+            case MAX_CLAIMS      -> L("error.max_claims");
+            case ALREADY_CLAIMED -> L("error.already_claimed");
+            case NO_REWARD       -> L("error.no_reward");
+            case PAYOUT_FAILED   -> L("error.payout_failed");
+        };
+        if (error != null) {
+            refreshPage(error, null);
             return;
         }
 
-        // Increment streak
-        streakService.incrementStreak(prd);
-        double streakMult = streakService.calculateMultiplier(prd.getStreak());
-        double vipMult = rewardService.getVipMultiplier(playerUuid, null);
-
-        // Register ECS context so RewardService can access Player entity for inventory
-        rewardService.registerPlayerContext(savedRef, savedStore);
-        rewardService.issueDayReward(playerUuid, rewardDay, vipMult, streakMult);
-
-        // Mark claimed
-        calendarService.markClaimed(prd, day, today);
-        antiAbuse.recordClaim(playerUuid);
-
-        // Check milestone
-        StreakMilestone milestone = streakService.checkMilestone(prd.getStreak());
-        if (milestone != null) {
-            rewardService.issueMilestoneReward(playerUuid, milestone, vipMult);
-        }
-
-        // Save
-        storage.savePlayer(playerUuid);
-
         // Build success message
+        RewardDay rewardDay = claim.reward();
         String coinStr = MessageUtil.formatCoins(rewardDay.getCoins());
-        String msg = L("success.claimed", "day", String.valueOf(day),
-                "coins", coinStr, "xp", String.valueOf(rewardDay.getXp()));
+        String msg = L("success.claimed", LangArgs.of(Placeholder.DAY, claim.day())
+                .and(Placeholder.COINS, coinStr).and(Placeholder.XP, rewardDay.getXp()));
         if (!rewardDay.getItems().isEmpty()) {
             msg += " + " + formatItemsShort(rewardDay.getItems());
         }
 
+        StreakMilestone milestone = claim.milestone();
         if (milestone != null) {
             msg += " " + L("success.milestone",
-                    "days", String.valueOf(milestone.getDays()),
-                    "bonus", MessageUtil.formatCoins(milestone.getBonusCoins()));
+                    LangArgs.of(Placeholder.DAYS, milestone.getDays())
+                            .and(Placeholder.BONUS, MessageUtil.formatCoins(milestone.getBonusCoins())));
         }
 
         refreshPage(null, msg);
@@ -279,23 +270,18 @@ public final class RewardsCalendarGui extends InteractiveCustomUIPage<RewardsCal
     // ── Claim return reward ─────────────────────────────────
 
     private void handleReturnClaim() {
-        PlayerRewardData prd = storage.loadOrCreate(playerUuid);
-
-        ReturnRewardTier tier = returnService.getPlayerReturnTier(prd);
-        if (tier == null) {
-            refreshPage(L("error.no_return_reward"), null);
+        ClaimService.ReturnClaim claim = claimService.claimReturn(
+                RewardContext.of(playerUuid, savedRef, savedStore), null);
+        if (!claim.isClaimed()) {
+            refreshPage(L(claim.outcome() == ClaimService.Outcome.PAYOUT_FAILED
+                    ? "error.payout_failed" : "error.no_return_reward"), null);
             return;
         }
 
-        double vipMult = rewardService.getVipMultiplier(playerUuid, null);
-        rewardService.registerPlayerContext(savedRef, savedStore);
-        rewardService.issueReturnReward(playerUuid, tier, vipMult);
-        returnService.markReturnClaimed(prd);
-        storage.savePlayer(playerUuid);
-
+        ReturnRewardTier tier = claim.tier();
         String msg = L("success.return_claimed",
-                "coins", MessageUtil.formatCoins(tier.getCoins()),
-                "xp", String.valueOf(tier.getXp()));
+                LangArgs.of(Placeholder.COINS, MessageUtil.formatCoins(tier.getCoins()))
+                        .and(Placeholder.XP, tier.getXp()));
         refreshPage(null, msg);
     }
 
@@ -314,21 +300,23 @@ public final class RewardsCalendarGui extends InteractiveCustomUIPage<RewardsCal
 
         String sText = L("day.status." + status.getId());
         String info = L("gui.day_info",
-                "day", String.valueOf(day),
-                "coins", MessageUtil.formatCoins(rewardDay.getCoins()),
-                "xp", String.valueOf(rewardDay.getXp()),
-                "status", sText);
+                LangArgs.of(Placeholder.DAY, day)
+                        .and(Placeholder.COINS, MessageUtil.formatCoins(rewardDay.getCoins()))
+                        .and(Placeholder.XP, rewardDay.getXp())
+                        .and(Placeholder.STATUS, sText));
         if (!rewardDay.getItems().isEmpty()) {
             info += " | " + formatItemsShort(rewardDay.getItems());
         }
 
         try {
             UICommandBuilder cmd = new UICommandBuilder();
-            cmd.set("#SuccessBanner.Visible", true);
-            cmd.set("#SuccessText.Text", stripForUI(info));
-            cmd.set("#ErrorBanner.Visible", false);
+            UiDelta ui = delta.begin(cmd);
+            ui.set("#SuccessBanner.Visible", true);
+            ui.set("#SuccessText.Text", stripForUI(info));
+            ui.set("#ErrorBanner.Visible", false);
             sendUpdate(cmd);
         } catch (Exception e) {
+            resetDelta();
             LOGGER.warn("[dayInfo] sendUpdate failed: {}", e.getMessage());
         }
     }
@@ -340,21 +328,24 @@ public final class RewardsCalendarGui extends InteractiveCustomUIPage<RewardsCal
     private void refreshPage(@Nullable String error, @Nullable String success) {
         try {
             UICommandBuilder cmd = new UICommandBuilder();
+            UiDelta ui = delta.begin(cmd);
 
             // Banners
-            cmd.set("#ErrorBanner.Visible", error != null && !error.isEmpty());
-            if (error != null && !error.isEmpty()) cmd.set("#ErrorText.Text", stripForUI(error));
-            cmd.set("#SuccessBanner.Visible", success != null && !success.isEmpty());
-            if (success != null && !success.isEmpty()) cmd.set("#SuccessText.Text", stripForUI(success));
+            ui.set("#ErrorBanner.Visible", error != null && !error.isEmpty());
+            if (error != null && !error.isEmpty()) ui.set("#ErrorText.Text", stripForUI(error));
+            ui.set("#SuccessBanner.Visible", success != null && !success.isEmpty());
+            if (success != null && !success.isEmpty()) ui.set("#SuccessText.Text", stripForUI(success));
 
-            // Refresh all data
-            updateCalendarData(cmd);
-            updateStreakPanel(cmd);
-            updateReturnBanner(cmd);
-            updateClaimArea(cmd);
+            // Refresh changed data only
+            updateCalendarData(ui);
+            updateStreakPanel(ui);
+            updateReturnBanner(ui);
+            updateClaimArea(ui);
 
             sendUpdate(cmd);
+            LOGGER.debug("[refreshPage] sent {} properties, {} unchanged", ui.emitted(), ui.skipped());
         } catch (Exception e) {
+            resetDelta();
             LOGGER.warn("[refreshPage] sendUpdate failed, falling back to reopen: {}", e.getMessage());
             reopen(error, success);
         }
@@ -364,7 +355,7 @@ public final class RewardsCalendarGui extends InteractiveCustomUIPage<RewardsCal
     //  DATA BUILDERS
     // ════════════════════════════════════════════════════════
 
-    private void updateCalendarData(@Nonnull UICommandBuilder cmd) {
+    private void updateCalendarData(@Nonnull UiDelta ui) {
         PlayerRewardData prd = storage.loadOrCreate(playerUuid);
         Map<Integer, DayStatus> statuses = calendarService.getDayStatuses(prd);
         int totalDays = calendarService.getTotalDays();
@@ -372,97 +363,105 @@ public final class RewardsCalendarGui extends InteractiveCustomUIPage<RewardsCal
         boolean canClaim = calendarService.canClaim(prd, today)
                 && antiAbuse.checkCanClaim(prd, today) == null;
 
-        cmd.set("#SecCalendar.Text", L("gui.sec.calendar"));
+        String langCode = lang.getPlayerLang(playerUuid);
+
+        ui.set("#SecCalendar.Text", L("gui.sec.calendar"));
 
         for (int i = 1; i <= MAX_DAYS; i++) {
-            String prefix = "#Day" + i;
+            String prefix = DAY_PREFIXES[i];
 
             if (i > totalDays) {
-                cmd.set(prefix + ".Visible", false);
+                ui.set(prefix + ".Visible", false);
+                cellStates[i] = null;
                 continue;
             }
 
-            cmd.set(prefix + ".Visible", true);
-
             RewardDay rd = calendarService.getRewardForDay(i);
             DayStatus status = statuses.getOrDefault(i, DayStatus.LOCKED);
 
+            // Unchanged cell — the client already shows exactly this
+            CellState state = new CellState(rd, status, status == DayStatus.AVAILABLE && canClaim, langCode);
+            if (state.equals(cellStates[i])) continue;
+            cellStates[i] = state;
+
+            ui.set(prefix + ".Visible", true);
+
             // Day label
-            cmd.set(prefix + "Day.Text", L("gui.day_label", "day", String.valueOf(i)));
+            ui.set(prefix + "Day.Text", L("gui.day_label", LangArgs.of(Placeholder.DAY, i)));
 
             // Split coins / XP labels
             if (rd != null) {
-                cmd.set(prefix + "Coins.Text", "+" + MessageUtil.formatCoins(rd.getCoins()) + "$");
-                cmd.set(prefix + "Xp.Text", "+" + rd.getXp() + " XP");
+                ui.set(prefix + "Coins.Text", "+" + MessageUtil.formatCoins(rd.getCoins()) + "$");
+                ui.set(prefix + "Xp.Text", "+" + rd.getXp() + " XP");
             } else {
-                cmd.set(prefix + "Coins.Text", "");
-                cmd.set(prefix + "Xp.Text", "");
+                ui.set(prefix + "Coins.Text", "");
+                ui.set(prefix + "Xp.Text", "");
             }
 
             // Items — two separate rows
             if (rd != null && !rd.getItems().isEmpty()) {
                 // Item 1
-                cmd.set(prefix + "Item1.Visible", true);
+                ui.set(prefix + "Item1.Visible", true);
                 String icon1Id = extractItemNameForIcon(rd.getItems().get(0));
                 if (icon1Id != null) {
-                    cmd.set(prefix + "Icon1.ItemId", icon1Id);
+                    ui.set(prefix + "Icon1.ItemId", icon1Id);
                 }
-                cmd.set(prefix + "Item1Name.Text", formatSingleItem(rd.getItems().get(0)));
+                ui.set(prefix + "Item1Name.Text", formatSingleItem(rd.getItems().get(0)));
 
                 // Item 2
                 if (rd.getItems().size() >= 2) {
-                    cmd.set(prefix + "Item2.Visible", true);
+                    ui.set(prefix + "Item2.Visible", true);
                     String icon2Id = extractItemNameForIcon(rd.getItems().get(1));
                     if (icon2Id != null) {
-                        cmd.set(prefix + "Icon2.ItemId", icon2Id);
+                        ui.set(prefix + "Icon2.ItemId", icon2Id);
                     }
                     String item2Text = formatSingleItem(rd.getItems().get(1));
                     if (rd.getItems().size() > 2) {
                         item2Text += " +" + (rd.getItems().size() - 2);
                     }
-                    cmd.set(prefix + "Item2Name.Text", item2Text);
+                    ui.set(prefix + "Item2Name.Text", item2Text);
                 } else {
-                    cmd.set(prefix + "Item2.Visible", false);
+                    ui.set(prefix + "Item2.Visible", false);
                 }
             } else {
-                cmd.set(prefix + "Item1.Visible", false);
-                cmd.set(prefix + "Item2.Visible", false);
+                ui.set(prefix + "Item1.Visible", false);
+                ui.set(prefix + "Item2.Visible", false);
             }
 
             // Status text + style + dynamic background color based on state
-            cmd.set(prefix + "Status.Text", statusText(status));
-            cmd.set(prefix + "Status.Style.TextColor", statusColor(status));
-            cmd.set(prefix + ".Background.Color", dayBackgroundColor(i, status));
+            ui.set(prefix + "Status.Text", statusText(status));
+            ui.set(prefix + "Status.Style.TextColor", statusColor(status));
+            ui.set(prefix + ".Background.Color", dayBackgroundColor(i, status));
 
             // Claim button — visible for the available day
             if (status == DayStatus.AVAILABLE) {
-                cmd.set(prefix + "Btn.Visible", true);
-                cmd.set(prefix + "Btn.Text", canClaim
+                ui.set(prefix + "Btn.Visible", true);
+                ui.set(prefix + "Btn.Text", canClaim
                         ? L("gui.btn.claim")
                         : L("gui.btn.wait"));
             } else {
-                cmd.set(prefix + "Btn.Visible", false);
+                ui.set(prefix + "Btn.Visible", false);
             }
         }
     }
 
-    private void updateStreakPanel(@Nonnull UICommandBuilder cmd) {
+    private void updateStreakPanel(@Nonnull UiDelta ui) {
         PlayerRewardData prd = storage.loadOrCreate(playerUuid);
 
         // Left section: streak + multiplier
-        cmd.set("#StreakLabel.Text", L("gui.streak_label"));
-        cmd.set("#StreakValue.Text", String.valueOf(prd.getStreak()));
+        ui.set("#StreakLabel.Text", L("gui.streak_label"));
+        ui.set("#StreakValue.Text", String.valueOf(prd.getStreak()));
 
         double streakMult = streakService.calculateMultiplier(prd.getStreak());
         double vipMult = rewardService.getVipMultiplier(playerUuid, null);
         double totalMult = streakMult * vipMult;
 
-        cmd.set("#MultLabel.Text", L("gui.mult_label"));
+        ui.set("#MultLabel.Text", L("gui.mult_label"));
         String vipName = rewardService.getVipTierName(playerUuid, null);
         if (vipName != null) {
-            cmd.set("#MultValue.Text", String.format("x%.2f [%s]", totalMult, vipName));
+            ui.set("#MultValue.Text", String.format("x%.2f [%s]", totalMult, vipName));
         } else {
-            cmd.set("#MultValue.Text", String.format("x%.2f", totalMult));
+            ui.set("#MultValue.Text", String.format("x%.2f", totalMult));
         }
 
         // Center: progress + next milestone
@@ -470,60 +469,60 @@ public final class RewardsCalendarGui extends InteractiveCustomUIPage<RewardsCal
         int currentDay = prd.getCurrentDay();
         int claimed = Math.min(currentDay - 1, totalDays);
         if (prd.isClaimedDay(currentDay)) claimed = currentDay;
-        cmd.set("#ProgressText.Text", L("gui.progress", "claimed", String.valueOf(claimed), "total", String.valueOf(totalDays)));
+        ui.set("#ProgressText.Text", L("gui.progress", LangArgs.of(Placeholder.CLAIMED, claimed).and(Placeholder.TOTAL, totalDays)));
 
         StreakMilestone next = streakService.getNextMilestone(prd.getStreak());
         if (next != null) {
             int remaining = next.getDays() - prd.getStreak();
-            cmd.set("#NextMsLabel.Text", L("gui.next_milestone",
-                    "days", String.valueOf(next.getDays()),
-                    "remaining", String.valueOf(remaining)));
+            ui.set("#NextMsLabel.Text", L("gui.next_milestone",
+                    LangArgs.of(Placeholder.DAYS, next.getDays())
+                            .and(Placeholder.REMAINING, remaining)));
         } else {
-            cmd.set("#NextMsLabel.Text", L("gui.all_milestones_done"));
+            ui.set("#NextMsLabel.Text", L("gui.all_milestones_done"));
         }
 
         // Right section: claimed stats
-        cmd.set("#TotalCoinsLabel.Text", L("gui.total_claimed"));
-        cmd.set("#TotalCoinsValue.Text", String.valueOf(prd.getTotalClaimed()));
-        cmd.set("#TotalXpLabel.Text", L("gui.current_day"));
-        cmd.set("#TotalXpValue.Text", String.valueOf(prd.getCurrentDay()) + " / " + totalDays);
+        ui.set("#TotalCoinsLabel.Text", L("gui.total_claimed"));
+        ui.set("#TotalCoinsValue.Text", String.valueOf(prd.getTotalClaimed()));
+        ui.set("#TotalXpLabel.Text", L("gui.current_day"));
+        ui.set("#TotalXpValue.Text", String.valueOf(prd.getCurrentDay()) + " / " + totalDays);
     }
 
-    private void updateReturnBanner(@Nonnull UICommandBuilder cmd) {
+    private void updateReturnBanner(@Nonnull UiDelta ui) {
         PlayerRewardData prd = storage.loadOrCreate(playerUuid);
         ReturnRewardTier tier = returnService.getPlayerReturnTier(prd);
 
         if (tier != null) {
-            cmd.set("#ReturnBanner.Visible", true);
-            cmd.set("#ReturnText.Text", stripForUI(L("gui.return_reward",
-                    "days", String.valueOf(prd.getAbsenceDays()),
-                    "coins", MessageUtil.formatCoins(tier.getCoins()),
-                    "xp", String.valueOf(tier.getXp()))));
-            cmd.set("#ReturnClaimBtn.Text", L("gui.btn.claim"));
+            ui.set("#ReturnBanner.Visible", true);
+            ui.set("#ReturnText.Text", stripForUI(L("gui.return_reward",
+                    LangArgs.of(Placeholder.DAYS, prd.getAbsenceDays())
+                            .and(Placeholder.COINS, MessageUtil.formatCoins(tier.getCoins()))
+                            .and(Placeholder.XP, tier.getXp()))));
+            ui.set("#ReturnClaimBtn.Text", L("gui.btn.claim"));
         } else {
-            cmd.set("#ReturnBanner.Visible", false);
+            ui.set("#ReturnBanner.Visible", false);
         }
     }
 
-    private void updateClaimArea(@Nonnull UICommandBuilder cmd) {
+    private void updateClaimArea(@Nonnull UiDelta ui) {
         PlayerRewardData prd = storage.loadOrCreate(playerUuid);
         int day = prd.getCurrentDay();
 
         if (prd.isClaimedDay(day)) {
-            cmd.set("#ClaimDayLabel.Text", L("gui.already_claimed_today"));
+            ui.set("#ClaimDayLabel.Text", L("gui.already_claimed_today"));
         } else {
             RewardDay rd = calendarService.getRewardForDay(day);
             if (rd != null) {
                 String desc = L("gui.claim_description",
-                        "day", String.valueOf(day),
-                        "coins", MessageUtil.formatCoins(rd.getCoins()),
-                        "xp", String.valueOf(rd.getXp()));
+                        LangArgs.of(Placeholder.DAY, day)
+                                .and(Placeholder.COINS, MessageUtil.formatCoins(rd.getCoins()))
+                                .and(Placeholder.XP, rd.getXp()));
                 if (!rd.getItems().isEmpty()) {
                     desc += " + " + formatItemsShort(rd.getItems());
                 }
-                cmd.set("#ClaimDayLabel.Text", desc);
+                ui.set("#ClaimDayLabel.Text", desc);
             } else {
-                cmd.set("#ClaimDayLabel.Text", L("gui.cannot_claim_yet"));
+                ui.set("#ClaimDayLabel.Text", L("gui.cannot_claim_yet"));
             }
         }
     }
@@ -536,7 +535,7 @@ public final class RewardsCalendarGui extends InteractiveCustomUIPage<RewardsCal
         close();
         RewardsCalendarGui newPage = new RewardsCalendarGui(
                 calendarService, streakService, returnService, rewardService,
-                antiAbuse, storage, lang, config, playerRef, playerUuid,
+                antiAbuse, claimService, storage, lang, config, playerRef, playerUuid,
                 error, success);
         PageOpenHelper.openPage(savedRef, savedStore, newPage);
     }
@@ -546,6 +545,7 @@ public final class RewardsCalendarGui extends InteractiveCustomUIPage<RewardsCal
                             @Nonnull ReturnRewardService returnService,
                             @Nonnull RewardService rewardService,
                             @Nonnull AntiAbuseGuard antiAbuse,
+                            @Nonnull ClaimService claimService,
                             @Nonnull RewardStorage storage,
                             @Nonnull LangManager lang,
                             @Nonnull RewardsConfig config,
@@ -555,7 +555,7 @@ public final class RewardsCalendarGui extends InteractiveCustomUIPage<RewardsCal
                             @Nonnull UUID playerUuid) {
         RewardsCalendarGui page = new RewardsCalendarGui(
                 calendarService, streakService, returnService, rewardService,
-                antiAbuse, storage, lang, config, playerRef, playerUuid);
+                antiAbuse, claimService, storage, lang, config, playerRef, playerUuid);
         PageOpenHelper.openPage(ref, store, page);
     }
 
@@ -563,7 +563,16 @@ public final class RewardsCalendarGui extends InteractiveCustomUIPage<RewardsCal
     //  HELPERS
     // ════════════════════════════════════════════════════════
 
-    private String L(String key, String... args) {
+    private void resetDelta() {
+        delta.reset();
+        Arrays.fill(cellStates, null);
+    }
+
+    private String L(String key) {
+        return lang.getForPlayer(playerUuid, key);
+    }
+
+    private String L(String key, LangArgs args) {
         return lang.getForPlayer(playerUuid, key, args);
     }
 
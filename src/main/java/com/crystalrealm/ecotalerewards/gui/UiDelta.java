@@ -0,0 +1,62 @@
+package com.crystalrealm.ecotalerewards.gui;
+
+import com.hypixel.hytale.server.core.ui.builder.UICommandBuilder;
+
+import javax.annotation.Nonnull;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Remembers the last value sent for each UI property of a page and
+ * forwards only changed ones to the current {@link UICommandBuilder}.
+ * {@link #reset()} forgets everything (fresh build, or an update that
+ * may not have reached the client).
+ */
+final class UiDelta {
+
+    private final Map<String, Object> sent = new HashMap<>();
+    private UICommandBuilder target;
+    private int emitted;
+    private int skipped;
+
+    /** Start a new update written into {@code cmd}. */
+    @Nonnull
+    UiDelta begin(@Nonnull UICommandBuilder cmd) {
+        this.target = cmd;
+        this.emitted = 0;
+        this.skipped = 0;
+        return this;
+    }
+
+    void reset() {
+        sent.clear();
+    }
+
+    void set(@Nonnull String property, @Nonnull String value) {
+        if (value.equals(sent.put(property, value))) {
+            skipped++;
+            return;
+        }
+        target.set(property, value);
+        emitted++;
+    }
+
+    void set(@Nonnull String property, boolean value) {
+        if (Boolean.valueOf(value).equals(sent.put(property, value))) {
+            skipped++;
+            return;
+        }
+        target.set(property, value);
+        emitted++;
+    }
+
+    /** Properties written since {@link #begin}. */
+    int emitted() {
+        return emitted;
+    }
+
+    /** Properties left out since {@link #begin} because the client already has them. */
+    int skipped() {
+        return skipped;
+    }
+}
@@ -0,0 +1,33 @@
+package com.crystalrealm.ecotalerewards.lang;
+
+import javax.annotation.Nonnull;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dense ids for translation keys, shared by every locale so each locale
+ * is a plain array indexed by id. Append-only: ids stay valid across
+ * reloads and lazily loaded locales.
+ */
+final class KeyIndex {
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile int size;
+
+    /** @return id of the key, or -1 if no loaded locale has it */
+    int id(@Nonnull String key) {
+        Integer id = ids.get(key);
+        return id != null ? id : -1;
+    }
+
+    synchronized int intern(@Nonnull String key) {
+        Integer id = ids.get(key);
+        if (id != null) return id;
+        ids.put(key, size);
+        return size++;
+    }
+
+    int size() {
+        return size;
+    }
+}
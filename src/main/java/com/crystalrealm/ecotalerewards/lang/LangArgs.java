@@ -0,0 +1,42 @@
+package com.crystalrealm.ecotalerewards.lang;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Placeholder values for one rendering, indexed by {@link Placeholder}:
+ * {@code LangArgs.of(Placeholder.DAY, 5).and(Placeholder.COINS, coins)}.
+ */
+public final class LangArgs {
+
+    private final String[] values = new String[Placeholder.COUNT_ALL];
+
+    private LangArgs() {}
+
+    @Nonnull
+    public static LangArgs of(@Nonnull Placeholder placeholder, @Nonnull String value) {
+        return new LangArgs().and(placeholder, value);
+    }
+
+    @Nonnull
+    public static LangArgs of(@Nonnull Placeholder placeholder, long value) {
+        return new LangArgs().and(placeholder, value);
+    }
+
+    @Nonnull
+    public LangArgs and(@Nonnull Placeholder placeholder, @Nonnull String value) {
+        values[placeholder.ordinal()] = value;
+        return this;
+    }
+
+    @Nonnull
+    public LangArgs and(@Nonnull Placeholder placeholder, long value) {
+        return and(placeholder, Long.toString(value));
+    }
+
+    /** Value for a placeholder ordinal, or null if not set. */
+    @Nullable
+    public String get(int placeholder) {
+        return values[placeholder];
+    }
+}
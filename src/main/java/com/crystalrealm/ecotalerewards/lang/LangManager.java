@@ -2,9 +2,12 @@ package com.crystalrealm.ecotalerewards.lang;
 
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
+import com.crystalrealm.ecotalerewards.util.MessageTemplate;
 import com.crystalrealm.ecotalerewards.util.PluginLogger;
+import com.hypixel.hytale.server.core.Message;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.io.*;
 import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
@@ -15,7 +18,8 @@ import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Localization manager with RU/EN support.
- * Loads from JAR resources + user overrides from data directory.
+ * Loads from JAR resources + user overrides from data directory; each
+ * locale is loaded on first use.
  */
 public class LangManager {
 
@@ -26,8 +30,13 @@ public class LangManager {
     public static final List<String> SUPPORTED_LANGS = List.of("en", "ru", "pt_br", "fr", "de", "es");
     public static final String DEFAULT_LANG = "ru";
 
-    private final Map<String, Map<String, String>> translations = new HashMap<>();
+    private final KeyIndex keyIndex = new KeyIndex();
+    /** Loaded locales as tables indexed by {@link KeyIndex}, with the en fallback merged in. */
+    private final Map<String, LangTemplate[]> locales = new ConcurrentHashMap<>();
     private final Map<UUID, String> playerLangs = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, MessageTemplate>> templates = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, MessageTemplate>> prefixedTemplates = new ConcurrentHashMap<>();
+    private volatile String messagePrefix = "";
     private String serverLang;
     private final Path dataDirectory;
 
@@ -39,61 +48,99 @@ public class LangManager {
     public void load(@Nonnull String defaultLang) {
         this.serverLang = SUPPORTED_LANGS.contains(defaultLang) ? defaultLang : DEFAULT_LANG;
 
-        for (String lang : SUPPORTED_LANGS) {
-            Map<String, String> messages = loadLangFile(lang);
-            if (messages != null && !messages.isEmpty()) {
-                translations.put(lang, messages);
-                LOGGER.info("Loaded {} messages for locale '{}'.", messages.size(), lang);
-            }
+        synchronized (locales) {
+            locales.clear();
         }
-        loadCustomOverrides();
+        // Other locales load on first use
+        table(serverLang);
         LOGGER.info("LangManager initialized. Server language: '{}'", serverLang);
     }
 
     public void reload(@Nonnull String defaultLang) {
-        translations.clear();
+        clearTemplates();
         load(defaultLang);
     }
 
+    /** Chat prefix prepended by {@link #prefixedTemplate}. */
+    public void setMessagePrefix(@Nonnull String prefix) {
+        this.messagePrefix = prefix;
+        prefixedTemplates.clear();
+    }
+
     // ── Message Retrieval ───────────────────────────────────────
 
     @Nonnull
-    public String get(@Nonnull String key, @Nonnull String... args) {
+    public String get(@Nonnull String key) {
+        return getForLang(serverLang, key, null);
+    }
+
+    @Nonnull
+    public String get(@Nonnull String key, @Nullable LangArgs args) {
         return getForLang(serverLang, key, args);
     }
 
     @Nonnull
-    public String getForLang(@Nonnull String langCode, @Nonnull String key, @Nonnull String... args) {
-        String message = getRaw(langCode, key);
-        if (args.length >= 2) {
-            for (int i = 0; i < args.length - 1; i += 2) {
-                message = message.replace("{" + args[i] + "}", args[i + 1]);
-            }
-        }
-        return message;
+    public String getForLang(@Nonnull String langCode, @Nonnull String key) {
+        return getForLang(langCode, key, null);
+    }
+
+    @Nonnull
+    public String getForLang(@Nonnull String langCode, @Nonnull String key, @Nullable LangArgs args) {
+        LangTemplate template = getTemplate(langCode, key);
+        return template != null ? template.render(args) : key;
     }
 
     @Nonnull
-    public String getForPlayer(@Nonnull UUID playerUuid, @Nonnull String key, @Nonnull String... args) {
-        String lang = playerLangs.getOrDefault(playerUuid, serverLang);
-        return getForLang(lang, key, args);
+    public String getForPlayer(@Nonnull UUID playerUuid, @Nonnull String key) {
+        return getForLang(getPlayerLang(playerUuid), key, null);
+    }
+
+    @Nonnull
+    public String getForPlayer(@Nonnull UUID playerUuid, @Nonnull String key, @Nullable LangArgs args) {
+        return getForLang(getPlayerLang(playerUuid), key, args);
+    }
+
+    @Nullable
+    private LangTemplate getTemplate(@Nonnull String langCode, @Nonnull String key) {
+        int id = keyIndex.id(key);
+        if (id < 0) return null;
+        LangTemplate[] table = table(langCode);
+        return id < table.length ? table[id] : null;
     }
 
     @Nonnull
     private String getRaw(@Nonnull String langCode, @Nonnull String key) {
-        Map<String, String> messages = translations.get(langCode);
-        if (messages != null) {
-            String value = messages.get(key);
-            if (value != null) return value;
-        }
-        if (!"en".equals(langCode)) {
-            Map<String, String> en = translations.get("en");
-            if (en != null) {
-                String value = en.get(key);
-                if (value != null) return value;
-            }
-        }
-        return key;
+        LangTemplate template = getTemplate(langCode, key);
+        return template != null ? template.source() : key;
+    }
+
+    // ── Chat Messages ───────────────────────────────────────────
+
+    @Nonnull
+    public Message messageForPlayer(@Nonnull UUID playerUuid, @Nonnull String key) {
+        return messageForPlayer(playerUuid, key, null);
+    }
+
+    /** Message for a player, rendered from the template compiled once per locale. */
+    @Nonnull
+    public Message messageForPlayer(@Nonnull UUID playerUuid, @Nonnull String key, @Nullable LangArgs args) {
+        String lang = getPlayerLang(playerUuid);
+        return templates.computeIfAbsent(lang, l -> new ConcurrentHashMap<>())
+                .computeIfAbsent(key, k -> MessageTemplate.compile(getRaw(lang, k)))
+                .render(args);
+    }
+
+    /** Compiled template of a player's translation with the chat prefix in front. */
+    @Nonnull
+    public MessageTemplate prefixedTemplate(@Nonnull UUID playerUuid, @Nonnull String key) {
+        String lang = getPlayerLang(playerUuid);
+        return prefixedTemplates.computeIfAbsent(lang, l -> new ConcurrentHashMap<>())
+                .computeIfAbsent(key, k -> MessageTemplate.compile(messagePrefix + " " + getRaw(lang, k)));
+    }
+
+    private void clearTemplates() {
+        templates.clear();
+        prefixedTemplates.clear();
     }
 
     // ── Player Language ─────────────────────────────────────────
@@ -115,12 +162,56 @@ public class LangManager {
 
     // ── Loading ─────────────────────────────────────────────────
 
+    @Nonnull
+    private LangTemplate[] table(@Nonnull String langCode) {
+        LangTemplate[] table = locales.get(langCode);
+        if (table != null) return table;
+        synchronized (locales) {
+            table = locales.get(langCode);
+            if (table == null) {
+                table = loadLocale(langCode);
+                locales.put(langCode, table);
+            }
+            return table;
+        }
+    }
+
+    /**
+     * Bundled file plus custom overrides, compiled into a table over the
+     * shared key index. Keys missing here point at the en template, and
+     * translations identical to en reuse its instance.
+     */
+    @Nonnull
+    private LangTemplate[] loadLocale(@Nonnull String langCode) {
+        if (!SUPPORTED_LANGS.contains(langCode)) return table("en");
+        Map<String, String> messages = new HashMap<>(loadLangFile(langCode));
+        int bundled = messages.size();
+        applyCustomOverrides(langCode, messages);
+
+        LangTemplate[] fallback = "en".equals(langCode) ? new LangTemplate[0] : table("en");
+        for (String key : messages.keySet()) {
+            keyIndex.intern(key);
+        }
+        LangTemplate[] table = Arrays.copyOf(fallback, keyIndex.size());
+        messages.forEach((key, value) -> {
+            if (value == null) return;
+            int id = keyIndex.id(key);
+            LangTemplate shared = id < fallback.length ? fallback[id] : null;
+            table[id] = shared != null && shared.source().equals(value) ? shared : LangTemplate.compile(value);
+        });
+        if (bundled > 0) {
+            LOGGER.info("Loaded {} messages for locale '{}'.", bundled, langCode);
+        }
+        return table;
+    }
+
     private Map<String, String> loadLangFile(String langCode) {
         String resourcePath = "lang/" + langCode + ".json";
         try (InputStream is = getClass().getClassLoader().getResourceAsStream(resourcePath)) {
             if (is == null) return Collections.emptyMap();
             try (Reader reader = new InputStreamReader(is, StandardCharsets.UTF_8)) {
-                return GSON.fromJson(reader, MAP_TYPE);
+                Map<String, String> messages = GSON.fromJson(reader, MAP_TYPE);
+                return messages != null ? messages : Collections.emptyMap();
             }
         } catch (Exception e) {
             LOGGER.error("Failed to load language file: " + resourcePath, e);
@@ -128,23 +219,17 @@ public class LangManager {
         }
     }
 
-    private void loadCustomOverrides() {
-        Path langDir = dataDirectory.resolve("lang");
-        if (!Files.isDirectory(langDir)) return;
-
-        for (String lang : SUPPORTED_LANGS) {
-            Path customFile = langDir.resolve(lang + ".json");
-            if (Files.exists(customFile)) {
-                try (Reader reader = Files.newBufferedReader(customFile, StandardCharsets.UTF_8)) {
-                    Map<String, String> overrides = GSON.fromJson(reader, MAP_TYPE);
-                    if (overrides != null) {
-                        translations.computeIfAbsent(lang, k -> new HashMap<>()).putAll(overrides);
-                        LOGGER.info("Applied {} custom overrides for '{}'.", overrides.size(), lang);
-                    }
-                } catch (Exception e) {
-                    LOGGER.error("Failed to load custom lang file: " + customFile, e);
-                }
+    private void applyCustomOverrides(@Nonnull String lang, @Nonnull Map<String, String> messages) {
+        Path customFile = dataDirectory.resolve("lang").resolve(lang + ".json");
+        if (!Files.exists(customFile)) return;
+        try (Reader reader = Files.newBufferedReader(customFile, StandardCharsets.UTF_8)) {
+            Map<String, String> overrides = GSON.fromJson(reader, MAP_TYPE);
+            if (overrides != null) {
+                messages.putAll(overrides);
+                LOGGER.info("Applied {} custom overrides for '{}'.", overrides.size(), lang);
             }
+        } catch (Exception e) {
+            LOGGER.error("Failed to load custom lang file: " + customFile, e);
         }
     }
 }
@@ -0,0 +1,72 @@
+package com.crystalrealm.ecotalerewards.lang;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Translation compiled into literal parts around placeholder slots, so
+ * rendering is one pass into a single {@link StringBuilder}. Braces that do
+ * not name a {@link Placeholder} stay literal text; slots without a value
+ * are written back as {@code {name}}.
+ */
+final class LangTemplate {
+
+    private final String source;
+    private final String[] parts;
+    private final Placeholder[] slots;
+    private final int literalLength;
+
+    private LangTemplate(String source, String[] parts, Placeholder[] slots, int literalLength) {
+        this.source = source;
+        this.parts = parts;
+        this.slots = slots;
+        this.literalLength = literalLength;
+    }
+
+    @Nonnull
+    static LangTemplate compile(@Nonnull String source) {
+        List<String> parts = new ArrayList<>();
+        List<Placeholder> slots = new ArrayList<>();
+        int from = 0;
+        int open;
+        while ((open = source.indexOf('{', from)) >= 0) {
+            int close = source.indexOf('}', open + 1);
+            if (close < 0) break;
+            Placeholder placeholder = Placeholder.byKey(source.substring(open + 1, close));
+            if (placeholder == null) {
+                from = open + 1;
+                continue;
+            }
+            parts.add(source.substring(from, open));
+            slots.add(placeholder);
+            from = close + 1;
+        }
+        parts.add(source.substring(from));
+        int literalLength = 0;
+        for (String part : parts) literalLength += part.length();
+        return new LangTemplate(source, parts.toArray(new String[0]),
+                slots.toArray(new Placeholder[0]), literalLength);
+    }
+
+    /** Translation as written in the lang file. */
+    @Nonnull
+    String source() {
+        return source;
+    }
+
+    @Nonnull
+    String render(@Nullable LangArgs args) {
+        if (slots.length == 0) return source;
+        StringBuilder sb = new StringBuilder(literalLength + 8 * slots.length);
+        sb.append(parts[0]);
+        for (int i = 0; i < slots.length; i++) {
+            String value = args != null ? args.get(slots[i].ordinal()) : null;
+            if (value != null) sb.append(value);
+            else sb.append('{').append(slots[i].key()).append('}');
+            sb.append(parts[i + 1]);
+        }
+        return sb.toString();
+    }
+}
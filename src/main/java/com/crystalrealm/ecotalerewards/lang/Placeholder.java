@@ -0,0 +1,39 @@
+package com.crystalrealm.ecotalerewards.lang;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Placeholders used in lang files. Each constant is written as its
+ * lower-case name in braces, e.g. {@link #DAY} is {@code {day}}.
+ * Templates store the ordinal, so filling a slot is an array index.
+ */
+public enum Placeholder {
+    BONUS, CLAIMED, COINS, COUNT, CURRENT, DATE, DAY, DAYS, DESC, LONGEST,
+    MINUTES, MULT, PLAYER, REMAINING, STATUS, STREAK, TIER, TIME, TOTAL, UUID, XP;
+
+    static final int COUNT_ALL = values().length;
+
+    private static final Map<String, Placeholder> BY_NAME = new HashMap<>();
+    static {
+        for (Placeholder p : values()) {
+            BY_NAME.put(p.key, p);
+        }
+    }
+
+    private final String key = name().toLowerCase(Locale.ROOT);
+
+    /** Name inside the braces, e.g. {@code day}. */
+    @Nonnull
+    public String key() {
+        return key;
+    }
+
+    @Nullable
+    public static Placeholder byKey(@Nonnull String key) {
+        return BY_NAME.get(key);
+    }
+}
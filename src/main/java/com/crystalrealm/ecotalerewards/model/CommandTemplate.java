@@ -0,0 +1,67 @@
+package com.crystalrealm.ecotalerewards.model;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reward command compiled from config: leading {@code /} stripped, trimmed,
+ * and split around {@code {player}} so rendering is a plain concatenation.
+ */
+public final class CommandTemplate {
+
+    private static final String PLAYER = "{player}";
+
+    private final String[] parts;
+
+    private CommandTemplate(@Nonnull String[] parts) {
+        this.parts = parts;
+    }
+
+    @Nonnull
+    public static CommandTemplate compile(@Nonnull String command) {
+        String cmd = command.trim();
+        if (cmd.startsWith("/")) {
+            cmd = cmd.substring(1).trim();
+        }
+        List<String> parts = new ArrayList<>();
+        int from = 0;
+        int at;
+        while ((at = cmd.indexOf(PLAYER, from)) >= 0) {
+            parts.add(cmd.substring(from, at));
+            from = at + PLAYER.length();
+        }
+        parts.add(cmd.substring(from));
+        return new CommandTemplate(parts.toArray(new String[0]));
+    }
+
+    /** Compile config commands, dropping blank ones. */
+    @Nonnull
+    public static List<CommandTemplate> compileAll(@Nonnull List<String> commands) {
+        List<CommandTemplate> out = new ArrayList<>(commands.size());
+        for (String command : commands) {
+            if (command == null) continue;
+            CommandTemplate template = compile(command);
+            if (!template.isBlank()) out.add(template);
+        }
+        return List.copyOf(out);
+    }
+
+    public boolean usesPlayer() {
+        return parts.length > 1;
+    }
+
+    public boolean isBlank() {
+        return parts.length == 1 && parts[0].isBlank();
+    }
+
+    @Nonnull
+    public String render(@Nonnull String playerName) {
+        if (parts.length == 1) return parts[0];
+        StringBuilder sb = new StringBuilder(parts[0]);
+        for (int i = 1; i < parts.length; i++) {
+            sb.append(playerName).append(parts[i]);
+        }
+        return sb.toString();
+    }
+}
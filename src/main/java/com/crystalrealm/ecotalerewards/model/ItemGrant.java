@@ -0,0 +1,50 @@
+package com.crystalrealm.ecotalerewards.model;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parsed item reward — built once from a config entry of the form
+ * {@code item_name:count} or {@code namespace:item_name:count}
+ * (count defaults to 1).
+ *
+ * @param spec the original config entry, kept for outbox entries and display
+ */
+public record ItemGrant(@Nonnull String itemId, int count, @Nonnull String spec) {
+
+    /**
+     * Parse a config entry.
+     *
+     * @return the grant, or null if the item ID is blank or the count is not positive
+     */
+    @Nullable
+    public static ItemGrant parse(@Nullable String spec) {
+        if (spec == null || spec.isBlank()) return null;
+        String itemId = spec;
+        int count = 1;
+        int sep = spec.lastIndexOf(':');
+        if (sep > 0) {
+            try {
+                count = Integer.parseInt(spec.substring(sep + 1));
+                itemId = spec.substring(0, sep);
+            } catch (NumberFormatException ignored) {
+                // No count suffix — entire string is item ID
+            }
+        }
+        if (itemId.isBlank() || count <= 0) return null;
+        return new ItemGrant(itemId, count, spec);
+    }
+
+    /** Parse config entries, dropping invalid ones. */
+    @Nonnull
+    public static List<ItemGrant> parseAll(@Nonnull List<String> specs) {
+        List<ItemGrant> grants = new ArrayList<>(specs.size());
+        for (String spec : specs) {
+            ItemGrant grant = parse(spec);
+            if (grant != null) grants.add(grant);
+        }
+        return List.copyOf(grants);
+    }
+}
@@ -1,13 +1,21 @@
 package com.crystalrealm.ecotalerewards.model;
 
+import com.crystalrealm.ecotalerewards.util.EpochDays;
+
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 /**
  * Per-player reward data — calendar progress, streak, and timestamps.
  * Mutable — updated by services, persisted via DAO.
+ *
+ * <p>Claimed days are a bitmap and dates are int epoch days
+ * ({@link EpochDays#NONE} when unset). The {@link LocalDate} and
+ * {@code Set<Integer>} accessors are adapters over that representation.</p>
  */
 public final class PlayerRewardData {
 
@@ -22,19 +30,18 @@ public final class PlayerRewardData {
     /** Longest streak ever achieved. */
     private int longestStreak;
 
-    /** Date of last login (server date). */
-    @Nullable
-    private LocalDate lastLoginDate;
+    /** Epoch day of last login (server date). */
+    private int lastLoginDay = EpochDays.NONE;
 
-    /** Date of last reward claim. */
-    @Nullable
-    private LocalDate lastClaimDate;
+    /** Epoch day of last reward claim. */
+    private int lastClaimDay = EpochDays.NONE;
 
     /** Total rewards claimed all-time. */
     private int totalClaimed;
 
-    /** Set of calendar days that have been claimed. */
-    private final Set<Integer> claimedDays;
+    /** Claimed calendar days: bit (day - 1). Guarded by {@link #claimedLock}. */
+    private long[] claimedBits = new long[1];
+    private final Object claimedLock = new Object();
 
     /** Whether the player has a pending return reward (not yet shown). */
     private boolean pendingReturnReward;
@@ -42,19 +49,24 @@ public final class PlayerRewardData {
     /** Absence days count (for return reward calculation). */
     private int absenceDays;
 
-    /** Session join time (epoch millis, transient — not persisted). */
-    private transient long sessionJoinTime;
+    /** Session join time (epoch millis, transient — not persisted). Read by eviction on the storage thread. */
+    private transient volatile long sessionJoinTime;
 
     /** Number of claims today (anti-abuse). */
     private transient int claimsToday;
 
-    /** Date of claimsToday counter (anti-abuse). */
-    @Nullable
-    private transient LocalDate claimsTodayDate;
+    /** Epoch day of claimsToday counter (anti-abuse). */
+    private transient int claimsTodayDay = EpochDays.NONE;
+
+    /** Last time the storage handed this record out (epoch millis, for idle eviction). */
+    private transient volatile long lastAccessTime = System.currentTimeMillis();
+
+    /** Set when a persisted field changes; cleared by the storage before it writes the record. */
+    private final transient AtomicBoolean dirty = new AtomicBoolean(false);
 
-    /** Date when the calendar GUI was last auto-shown (once per server-day). */
+    /** Notified on the clean → dirty transition (write-behind queue hook). */
     @Nullable
-    private transient LocalDate lastAutoGuiDate;
+    private transient volatile Consumer<PlayerRewardData> dirtyListener;
 
     public PlayerRewardData(@Nonnull UUID playerUuid) {
         this.playerUuid = playerUuid;
@@ -62,7 +74,6 @@ public final class PlayerRewardData {
         this.streak = 0;
         this.longestStreak = 0;
         this.totalClaimed = 0;
-        this.claimedDays = new LinkedHashSet<>();
         this.pendingReturnReward = false;
         this.absenceDays = 0;
     }
@@ -73,74 +84,224 @@ public final class PlayerRewardData {
     public int getCurrentDay() { return currentDay; }
     public int getStreak() { return streak; }
     public int getLongestStreak() { return longestStreak; }
-    @Nullable public LocalDate getLastLoginDate() { return lastLoginDate; }
-    @Nullable public LocalDate getLastClaimDate() { return lastClaimDate; }
+    @Nullable public LocalDate getLastLoginDate() { return EpochDays.toDate(lastLoginDay); }
+    @Nullable public LocalDate getLastClaimDate() { return EpochDays.toDate(lastClaimDay); }
+    public int getLastLoginEpochDay() { return lastLoginDay; }
+    public int getLastClaimEpochDay() { return lastClaimDay; }
     public int getTotalClaimed() { return totalClaimed; }
-    @Nonnull public Set<Integer> getClaimedDays() { return Collections.unmodifiableSet(claimedDays); }
-    public boolean isPendingReturnReward() { return pendingReturnReward; }
-    public int getAbsenceDays() { return absenceDays; }
-    public long getSessionJoinTime() { return sessionJoinTime; }
-    public int getClaimsToday() { return claimsToday; }
-    @Nullable public LocalDate getClaimsTodayDate() { return claimsTodayDate; }
 
     /**
-     * Returns true if the auto-GUI has already been shown today.
+     * Snapshot of the claimed days in ascending order. Allocates — prefer
+     * {@link #isClaimedDay} or {@link #nextClaimedDay} on hot paths.
      */
-    public boolean hasAutoGuiShownToday() {
-        return LocalDate.now().equals(lastAutoGuiDate);
+    @Nonnull public Set<Integer> getClaimedDays() {
+        Set<Integer> days = new LinkedHashSet<>();
+        for (int day = nextClaimedDay(1); day > 0; day = nextClaimedDay(day + 1)) {
+            days.add(day);
+        }
+        return Collections.unmodifiableSet(days);
     }
+    public boolean isPendingReturnReward() { return pendingReturnReward; }
+    public int getAbsenceDays() { return absenceDays; }
+    public long getSessionJoinTime() { return sessionJoinTime; }
+    public long getLastAccessTime() { return lastAccessTime; }
 
     /**
-     * Mark that the auto-GUI was shown today.
+     * Returns true while the player is online (join time set, not yet cleared on disconnect).
      */
-    public void markAutoGuiShown() {
-        this.lastAutoGuiDate = LocalDate.now();
+    public boolean hasActiveSession() {
+        return sessionJoinTime > 0;
     }
+    public int getClaimsToday() { return claimsToday; }
+    @Nullable public LocalDate getClaimsTodayDate() { return EpochDays.toDate(claimsTodayDay); }
 
     // ── Setters ─────────────────────────────────────────────
 
-    public void setCurrentDay(int currentDay) { this.currentDay = currentDay; }
+    public void setCurrentDay(int currentDay) {
+        if (this.currentDay == currentDay) return;
+        this.currentDay = currentDay;
+        markDirty();
+    }
 
     public void setStreak(int streak) {
+        if (this.streak == streak) return;
         this.streak = streak;
         if (streak > longestStreak) this.longestStreak = streak;
+        markDirty();
+    }
+
+    public void setLongestStreak(int longestStreak) {
+        if (this.longestStreak == longestStreak) return;
+        this.longestStreak = longestStreak;
+        markDirty();
+    }
+
+    public void setLastLoginDate(@Nullable LocalDate lastLoginDate) {
+        setLastLoginEpochDay(EpochDays.of(lastLoginDate));
+    }
+
+    public void setLastLoginEpochDay(int epochDay) {
+        if (this.lastLoginDay == epochDay) return;
+        this.lastLoginDay = epochDay;
+        markDirty();
+    }
+
+    public void setLastClaimDate(@Nullable LocalDate lastClaimDate) {
+        setLastClaimEpochDay(EpochDays.of(lastClaimDate));
+    }
+
+    public void setLastClaimEpochDay(int epochDay) {
+        if (this.lastClaimDay == epochDay) return;
+        this.lastClaimDay = epochDay;
+        markDirty();
+    }
+
+    public void setTotalClaimed(int totalClaimed) {
+        if (this.totalClaimed == totalClaimed) return;
+        this.totalClaimed = totalClaimed;
+        markDirty();
+    }
+
+    public void setPendingReturnReward(boolean pending) {
+        if (this.pendingReturnReward == pending) return;
+        this.pendingReturnReward = pending;
+        markDirty();
+    }
+
+    public void setAbsenceDays(int absenceDays) {
+        if (this.absenceDays == absenceDays) return;
+        this.absenceDays = absenceDays;
+        markDirty();
     }
 
-    public void setLongestStreak(int longestStreak) { this.longestStreak = longestStreak; }
-    public void setLastLoginDate(@Nullable LocalDate lastLoginDate) { this.lastLoginDate = lastLoginDate; }
-    public void setLastClaimDate(@Nullable LocalDate lastClaimDate) { this.lastClaimDate = lastClaimDate; }
-    public void setTotalClaimed(int totalClaimed) { this.totalClaimed = totalClaimed; }
-    public void setPendingReturnReward(boolean pending) { this.pendingReturnReward = pending; }
-    public void setAbsenceDays(int absenceDays) { this.absenceDays = absenceDays; }
     public void setSessionJoinTime(long sessionJoinTime) { this.sessionJoinTime = sessionJoinTime; }
 
+    /** Record an access for the storage's idle-eviction policy. */
+    public void touch() { this.lastAccessTime = System.currentTimeMillis(); }
+
+    /** Mark a day claimed and count it toward {@link #getTotalClaimed()}. */
     public void addClaimedDay(int day) {
-        claimedDays.add(day);
+        setClaimedBit(day);
         totalClaimed++;
+        markDirty();
+    }
+
+    /** Undo {@link #addClaimedDay} for a claim that was rolled back. */
+    public void removeClaimedDay(int day) {
+        if (day < 1) return;
+        int word = (day - 1) >>> 6;
+        long mask = 1L << ((day - 1) & 63);
+        synchronized (claimedLock) {
+            if (word >= claimedBits.length || (claimedBits[word] & mask) == 0) return;
+            claimedBits[word] &= ~mask;
+        }
+        if (totalClaimed > 0) totalClaimed--;
+        markDirty();
+    }
+
+    /**
+     * Mark a day claimed without touching the all-time total
+     * (for storages restoring a saved record).
+     */
+    public void restoreClaimedDay(int day) {
+        if (setClaimedBit(day)) markDirty();
+    }
+
+    /**
+     * Replace the claimed days with a saved bitmap (bit {@code day - 1})
+     * without touching the all-time total.
+     */
+    public void restoreClaimedDayBits(@Nonnull long[] bits) {
+        synchronized (claimedLock) {
+            if (Arrays.equals(claimedBits, bits)) return;
+            claimedBits = bits.length > 0 ? bits.clone() : new long[1];
+        }
+        markDirty();
     }
 
     public boolean isClaimedDay(int day) {
-        return claimedDays.contains(day);
+        if (day < 1) return false;
+        int word = (day - 1) >>> 6;
+        synchronized (claimedLock) {
+            return word < claimedBits.length && (claimedBits[word] & (1L << ((day - 1) & 63))) != 0;
+        }
+    }
+
+    /**
+     * First claimed day {@code >= fromDay}, or -1 if there is none.
+     * Iterate with {@code for (d = nextClaimedDay(1); d > 0; d = nextClaimedDay(d + 1))}.
+     */
+    public int nextClaimedDay(int fromDay) {
+        int bit = Math.max(0, fromDay - 1);
+        synchronized (claimedLock) {
+            int word = bit >>> 6;
+            if (word >= claimedBits.length) return -1;
+            long w = claimedBits[word] & (-1L << (bit & 63));
+            while (true) {
+                if (w != 0) return word * 64 + Long.numberOfTrailingZeros(w) + 1;
+                if (++word >= claimedBits.length) return -1;
+                w = claimedBits[word];
+            }
+        }
+    }
+
+    public boolean hasClaimedDays() {
+        synchronized (claimedLock) {
+            for (long w : claimedBits) {
+                if (w != 0) return true;
+            }
+            return false;
+        }
+    }
+
+    /** Copy of the claimed-days bitmap (bit {@code day - 1}). */
+    @Nonnull
+    public long[] getClaimedDayBits() {
+        synchronized (claimedLock) {
+            return claimedBits.clone();
+        }
+    }
+
+    /** @return true if the bit was newly set */
+    private boolean setClaimedBit(int day) {
+        if (day < 1) return false;
+        int word = (day - 1) >>> 6;
+        long mask = 1L << ((day - 1) & 63);
+        synchronized (claimedLock) {
+            if (word >= claimedBits.length) {
+                claimedBits = Arrays.copyOf(claimedBits, word + 1);
+            }
+            if ((claimedBits[word] & mask) != 0) return false;
+            claimedBits[word] |= mask;
+            return true;
+        }
     }
 
     public void incrementStreak() {
         streak++;
         if (streak > longestStreak) longestStreak = streak;
+        markDirty();
     }
 
     /**
      * Increment claims-today counter with date check.
      */
     public void recordClaimToday(@Nonnull LocalDate today) {
-        if (!today.equals(claimsTodayDate)) {
-            claimsTodayDate = today;
+        int day = (int) today.toEpochDay();
+        if (day != claimsTodayDay) {
+            claimsTodayDay = day;
             claimsToday = 0;
         }
         claimsToday++;
     }
 
+    /** Undo {@link #recordClaimToday} for a claim that was rolled back. */
+    public void undoClaimToday(@Nonnull LocalDate today) {
+        if ((int) today.toEpochDay() == claimsTodayDay && claimsToday > 0) claimsToday--;
+    }
+
     public int getClaimsToday(@Nonnull LocalDate today) {
-        if (!today.equals(claimsTodayDate)) return 0;
+        if ((int) today.toEpochDay() != claimsTodayDay) return 0;
         return claimsToday;
     }
 
@@ -148,8 +309,48 @@ public final class PlayerRewardData {
      * Reset the calendar to day 1 (full reset).
      */
     public void resetCalendar() {
+        synchronized (claimedLock) {
+            if (currentDay == 1 && !hasClaimedDays()) return;
+            claimedBits = new long[1];
+        }
         currentDay = 1;
-        claimedDays.clear();
+        markDirty();
+    }
+
+    // ── Dirty tracking ──────────────────────────────────────
+
+    /**
+     * Whether persisted fields changed since the record was last written.
+     */
+    public boolean isDirty() {
+        return dirty.get();
+    }
+
+    /**
+     * Flag the record as changed. The listener fires only on the
+     * clean → dirty transition, so repeated changes coalesce into one write.
+     */
+    public void markDirty() {
+        if (dirty.compareAndSet(false, true)) {
+            Consumer<PlayerRewardData> listener = dirtyListener;
+            if (listener != null) listener.accept(this);
+        }
+    }
+
+    /**
+     * Clear the dirty flag before serializing.
+     *
+     * @return true if the record was dirty (i.e. a write is needed)
+     */
+    public boolean markClean() {
+        return dirty.getAndSet(false);
+    }
+
+    /**
+     * Install the storage hook notified when this record becomes dirty.
+     */
+    public void setDirtyListener(@Nullable Consumer<PlayerRewardData> listener) {
+        this.dirtyListener = listener;
     }
 
     @Override
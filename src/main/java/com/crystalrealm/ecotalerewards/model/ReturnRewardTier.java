@@ -1,5 +1,7 @@
 package com.crystalrealm.ecotalerewards.model;
 
+import com.crystalrealm.ecotalerewards.rewards.PayoutRow;
+
 import javax.annotation.Nonnull;
 import java.math.BigDecimal;
 import java.util.List;
@@ -14,21 +16,28 @@ public final class ReturnRewardTier {
     private final BigDecimal coins;
     private final int xp;
     private final List<String> items;
+    private final List<ItemGrant> itemGrants;
     private final List<String> commands;
+    private final List<CommandTemplate> commandTemplates;
     private final String description;
+    private final PayoutRow payout;
 
     public ReturnRewardTier(int minAbsenceDays, int maxAbsenceDays,
                             BigDecimal coins, int xp,
                             @Nonnull List<String> items,
                             @Nonnull List<String> commands,
-                            @Nonnull String description) {
+                            @Nonnull String description,
+                            @Nonnull PayoutRow payout) {
         this.minAbsenceDays = minAbsenceDays;
         this.maxAbsenceDays = maxAbsenceDays;
         this.coins = coins;
         this.xp = xp;
         this.items = List.copyOf(items);
+        this.itemGrants = ItemGrant.parseAll(this.items);
         this.commands = List.copyOf(commands);
+        this.commandTemplates = CommandTemplate.compileAll(this.commands);
         this.description = description;
+        this.payout = payout;
     }
 
     public int getMinAbsenceDays() { return minAbsenceDays; }
@@ -36,8 +45,14 @@ public final class ReturnRewardTier {
     public BigDecimal getCoins() { return coins; }
     public int getXp() { return xp; }
     @Nonnull public List<String> getItems() { return items; }
+    /** Parsed, valid entries of {@link #getItems()}. */
+    @Nonnull public List<ItemGrant> getItemGrants() { return itemGrants; }
     @Nonnull public List<String> getCommands() { return commands; }
+    /** Compiled, non-blank entries of {@link #getCommands()}. */
+    @Nonnull public List<CommandTemplate> getCommandTemplates() { return commandTemplates; }
     @Nonnull public String getDescription() { return description; }
+    /** Compiled coins/XP by VIP level. */
+    @Nonnull public PayoutRow getPayout() { return payout; }
 
     /**
      * Check if this tier matches the given absence duration.
@@ -1,5 +1,7 @@
 package com.crystalrealm.ecotalerewards.model;
 
+import com.crystalrealm.ecotalerewards.rewards.PayoutRow;
+
 import javax.annotation.Nonnull;
 import java.math.BigDecimal;
 import java.util.Collections;
@@ -15,27 +17,40 @@ public final class RewardDay {
     private final BigDecimal coins;
     private final int xp;
     private final List<String> items;
+    private final List<ItemGrant> itemGrants;
     private final List<String> commands;
+    private final List<CommandTemplate> commandTemplates;
     private final String description;
+    private final PayoutRow payout;
 
     public RewardDay(int day, BigDecimal coins, int xp,
                      @Nonnull List<String> items,
                      @Nonnull List<String> commands,
-                     @Nonnull String description) {
+                     @Nonnull String description,
+                     @Nonnull PayoutRow payout) {
         this.day = day;
         this.coins = coins;
         this.xp = xp;
         this.items = List.copyOf(items);
+        this.itemGrants = ItemGrant.parseAll(this.items);
         this.commands = List.copyOf(commands);
+        this.commandTemplates = CommandTemplate.compileAll(this.commands);
         this.description = description;
+        this.payout = payout;
     }
 
     public int getDay() { return day; }
     public BigDecimal getCoins() { return coins; }
     public int getXp() { return xp; }
     @Nonnull public List<String> getItems() { return items; }
+    /** Parsed, valid entries of {@link #getItems()}. */
+    @Nonnull public List<ItemGrant> getItemGrants() { return itemGrants; }
     @Nonnull public List<String> getCommands() { return commands; }
+    /** Compiled, non-blank entries of {@link #getCommands()}. */
+    @Nonnull public List<CommandTemplate> getCommandTemplates() { return commandTemplates; }
     @Nonnull public String getDescription() { return description; }
+    /** Compiled coins/XP by VIP level and streak. */
+    @Nonnull public PayoutRow getPayout() { return payout; }
 
     @Override
     public String toString() {
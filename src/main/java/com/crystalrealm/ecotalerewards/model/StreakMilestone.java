@@ -1,5 +1,7 @@
 package com.crystalrealm.ecotalerewards.model;
 
+import com.crystalrealm.ecotalerewards.rewards.PayoutRow;
+
 import javax.annotation.Nonnull;
 import java.math.BigDecimal;
 import java.util.List;
@@ -14,18 +16,23 @@ public final class StreakMilestone {
     private final int bonusXP;
     private final double rewardMultiplier;
     private final List<String> commands;
+    private final List<CommandTemplate> commandTemplates;
     private final String description;
+    private final PayoutRow payout;
 
     public StreakMilestone(int days, BigDecimal bonusCoins, int bonusXP,
                           double rewardMultiplier,
                           @Nonnull List<String> commands,
-                          @Nonnull String description) {
+                          @Nonnull String description,
+                          @Nonnull PayoutRow payout) {
         this.days = days;
         this.bonusCoins = bonusCoins;
         this.bonusXP = bonusXP;
         this.rewardMultiplier = rewardMultiplier;
         this.commands = List.copyOf(commands);
+        this.commandTemplates = CommandTemplate.compileAll(this.commands);
         this.description = description;
+        this.payout = payout;
     }
 
     public int getDays() { return days; }
@@ -33,5 +40,9 @@ public final class StreakMilestone {
     public int getBonusXP() { return bonusXP; }
     public double getRewardMultiplier() { return rewardMultiplier; }
     @Nonnull public List<String> getCommands() { return commands; }
+    /** Compiled, non-blank entries of {@link #getCommands()}. */
+    @Nonnull public List<CommandTemplate> getCommandTemplates() { return commandTemplates; }
     @Nonnull public String getDescription() { return description; }
+    /** Compiled bonus coins/XP by VIP level. */
+    @Nonnull public PayoutRow getPayout() { return payout; }
 }
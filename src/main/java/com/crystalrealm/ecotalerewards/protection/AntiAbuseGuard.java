@@ -94,6 +94,23 @@ public class AntiAbuseGuard {
         return null;
     }
 
+    /**
+     * Drop the player's cooldown entry once it can no longer block a claim.
+     * Entries still inside the relog cooldown are kept so relogging cannot bypass it.
+     */
+    public void onPlayerLeave(@Nonnull UUID playerUuid) {
+        if (hasPassedRelogCooldown(playerUuid)) {
+            lastClaimTime.remove(playerUuid);
+        }
+    }
+
+    /**
+     * Remove entries whose relog cooldown has expired (periodic cleanup).
+     */
+    public void purgeExpired() {
+        lastClaimTime.keySet().removeIf(this::hasPassedRelogCooldown);
+    }
+
     /**
      * Cleanup on shutdown.
      */
@@ -0,0 +1,20 @@
+package com.crystalrealm.ecotalerewards.provider;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Thrown by a provider when the backing plugin itself failed (unavailable,
+ * call threw). Counts toward the bridge's circuit breaker; a plain
+ * {@code false} result is a per-player outcome and does not.
+ */
+public class ProviderFault extends RuntimeException {
+
+    public ProviderFault(@Nonnull String message, @Nullable Throwable cause) {
+        super(message, cause);
+    }
+
+    public ProviderFault(@Nonnull String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,145 @@
+package com.crystalrealm.ecotalerewards.provider;
+
+import com.crystalrealm.ecotalerewards.util.PluginLogger;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Cached availability plus a circuit breaker for a bridge's active provider.
+ *
+ * <p>A scheduled probe refreshes availability, so callers read a volatile
+ * flag instead of calling into the provider. After {@code failureThreshold}
+ * consecutive failed calls the circuit opens and calls fail fast; once the
+ * backoff expires and the probe reports the provider up, a single trial call
+ * is let through. Success closes the circuit, failure reopens it with the
+ * backoff doubled (capped at {@link #MAX_BACKOFF_MS}).</p>
+ */
+public final class ProviderHealth {
+
+    private static final PluginLogger LOGGER = PluginLogger.forEnclosingClass();
+
+    private static final long BASE_BACKOFF_MS = 5_000;
+    private static final long MAX_BACKOFF_MS = 300_000;
+
+    private enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String label;
+    private final BooleanSupplier probe;
+
+    private volatile boolean available;
+    private volatile State state = State.CLOSED;
+    private int failureThreshold = 3;
+    private int consecutiveFailures;
+    private long backoffMs = BASE_BACKOFF_MS;
+    private long retryAtMs;
+    private boolean trialInFlight;
+    private ScheduledFuture<?> probeTask;
+
+    /**
+     * @param label  provider label for logs, e.g. "Economy (Ecotale Economy)"
+     * @param probe  the provider's own availability check
+     */
+    public ProviderHealth(@Nonnull String label, @Nonnull BooleanSupplier probe) {
+        this.label = label;
+        this.probe = probe;
+        this.available = safeProbe();
+    }
+
+    /** Start periodic probing. */
+    public synchronized void start(@Nonnull ScheduledExecutorService executor, int probeSeconds,
+                                   int failureThreshold) {
+        stop();
+        this.failureThreshold = Math.max(1, failureThreshold);
+        probeTask = executor.scheduleWithFixedDelay(this::probe, probeSeconds, probeSeconds, TimeUnit.SECONDS);
+    }
+
+    public synchronized void stop() {
+        if (probeTask != null) {
+            probeTask.cancel(false);
+            probeTask = null;
+        }
+    }
+
+    /** Cached availability — no provider call. False while the circuit is open. */
+    public boolean isAvailable() {
+        return available && state != State.OPEN;
+    }
+
+    /**
+     * Gate for a real call. While half-open only one trial call passes;
+     * report its outcome with {@link #recordSuccess()} / {@link #recordFailure()}.
+     */
+    public boolean tryAcquire() {
+        State s = state;
+        if (s == State.CLOSED) return available;
+        if (s == State.OPEN) return false;
+        synchronized (this) {
+            if (state != State.HALF_OPEN || trialInFlight) return state == State.CLOSED && available;
+            trialInFlight = true;
+            return true;
+        }
+    }
+
+    public void recordSuccess() {
+        if (state == State.CLOSED && consecutiveFailures == 0) return;
+        synchronized (this) {
+            boolean recovered = state != State.CLOSED;
+            consecutiveFailures = 0;
+            backoffMs = BASE_BACKOFF_MS;
+            trialInFlight = false;
+            state = State.CLOSED;
+            if (recovered) LOGGER.info("{} provider recovered — circuit closed.", label);
+        }
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN) {
+            trialInFlight = false;
+            backoffMs = Math.min(MAX_BACKOFF_MS, backoffMs * 2);
+            open();
+        } else if (state == State.CLOSED && consecutiveFailures >= failureThreshold) {
+            open();
+        }
+    }
+
+    // ═════════════════════════════════════════════════════════
+    //  PRIVATE
+    // ═════════════════════════════════════════════════════════
+
+    /** Scheduled: refresh availability; move an expired open circuit to half-open or reopen it. */
+    private void probe() {
+        boolean up = safeProbe();
+        available = up;
+        synchronized (this) {
+            if (state != State.OPEN || System.currentTimeMillis() < retryAtMs) return;
+            if (up) {
+                state = State.HALF_OPEN;
+                LOGGER.info("{} provider probe succeeded — allowing a trial call.", label);
+            } else {
+                backoffMs = Math.min(MAX_BACKOFF_MS, backoffMs * 2);
+                open();
+            }
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        retryAtMs = System.currentTimeMillis() + backoffMs;
+        LOGGER.warn("{} provider circuit open after {} consecutive failure(s) — retry in {}s.",
+                label, consecutiveFailures, backoffMs / 1000);
+    }
+
+    private boolean safeProbe() {
+        try {
+            return probe.getAsBoolean();
+        } catch (Throwable t) {
+            LOGGER.debug("{} provider probe threw: {}", label, t.toString());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,404 @@
+package com.crystalrealm.ecotalerewards.provider;
+
+import com.crystalrealm.ecotalerewards.util.PluginLogger;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Binds the reflective economy / leveling targets once into small functional
+ * interfaces, so deposits and XP grants avoid {@link Method#invoke} and
+ * argument boxing on every call.
+ *
+ * <p>Strategies, best first:</p>
+ * <ul>
+ *   <li>{@link Strategy#LAMBDA} — a LambdaMetafactory class calling the target
+ *       directly; needs an exact signature match and a target class visible
+ *       to this plugin's class loader</li>
+ *   <li>{@link Strategy#METHOD_HANDLE} — an adapted MethodHandle (bound
+ *       receiver, dropped or narrowed arguments, mapped result) called with
+ *       {@code invokeExact}</li>
+ *   <li>{@link Strategy#REFLECTION} — {@link Method#invoke}, if the target
+ *       cannot be unreflected</li>
+ * </ul>
+ */
+public final class ProviderInvokers {
+
+    private static final PluginLogger LOGGER = PluginLogger.forEnclosingClass();
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final MethodType DEPOSIT_TYPE =
+            MethodType.methodType(boolean.class, UUID.class, double.class, String.class);
+    private static final MethodType XP_TYPE =
+            MethodType.methodType(boolean.class, UUID.class, double.class);
+    private static final MethodType CONTEXT_XP_TYPE =
+            MethodType.methodType(boolean.class, Object.class, Object.class, double.class);
+    private static final MethodType STATUS_TYPE = MethodType.methodType(boolean.class);
+
+    private static final MethodHandle STRICT_RESULT;
+    private static final MethodHandle LENIENT_RESULT;
+
+    static {
+        try {
+            MethodType filter = MethodType.methodType(boolean.class, Object.class);
+            STRICT_RESULT = LOOKUP.findStatic(ProviderInvokers.class, "strictResult", filter);
+            LENIENT_RESULT = LOOKUP.findStatic(ProviderInvokers.class, "lenientResult", filter);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private ProviderInvokers() {}
+
+    /** How a target was bound. */
+    public enum Strategy {
+        LAMBDA("lambda"),
+        METHOD_HANDLE("method-handle"),
+        REFLECTION("reflection");
+
+        private final String label;
+
+        Strategy(String label) { this.label = label; }
+
+        @Override
+        public String toString() { return label; }
+    }
+
+    /** How a target's return value maps to success. */
+    public enum ResultMode {
+        /** Success only if the target returned {@code true}. */
+        STRICT,
+        /** Success unless the target returned {@code false}; void counts as success. */
+        LENIENT,
+        /** Return value ignored — success if nothing was thrown. */
+        IGNORE
+    }
+
+    /** {@code deposit(player, amount, reason)}. */
+    @FunctionalInterface
+    public interface DepositCall {
+        boolean deposit(UUID playerUuid, double amount, String reason) throws Exception;
+    }
+
+    /** {@code grantXP(player, amount)}. */
+    @FunctionalInterface
+    public interface XpCall {
+        boolean grant(UUID playerUuid, double amount) throws Exception;
+    }
+
+    /** {@code grantXP(store, ref, amount)} for ECS-based APIs. */
+    @FunctionalInterface
+    public interface ContextXpCall {
+        boolean grant(Object store, Object ref, double amount) throws Exception;
+    }
+
+    /** Availability probe. */
+    @FunctionalInterface
+    public interface StatusCall {
+        boolean get() throws Exception;
+    }
+
+    /** A bound call and the strategy that produced it. */
+    public record Bound<T>(@Nonnull T call, @Nonnull Strategy strategy) {}
+
+    // Void-returning shapes; bound by the metafactory, then wrapped
+    @FunctionalInterface
+    interface VoidDeposit {
+        void deposit(UUID playerUuid, double amount, String reason) throws Exception;
+    }
+
+    @FunctionalInterface
+    interface VoidXp {
+        void grant(UUID playerUuid, double amount) throws Exception;
+    }
+
+    // ═════════════════════════════════════════════════════════
+    //  BINDERS
+    // ═════════════════════════════════════════════════════════
+
+    /**
+     * Bind {@code deposit(UUID, double[, String])}.
+     *
+     * @param receiver API instance, or null for a static method
+     */
+    @Nonnull
+    public static Bound<DepositCall> deposit(@Nonnull Method target, @Nullable Object receiver,
+                                             @Nonnull ResultMode mode) {
+        Method m = publicDeclaration(target);
+        boolean hasReason = m.getParameterCount() == 3;
+
+        if (hasReason && matches(m, DEPOSIT_TYPE)) {
+            DepositCall lambda = null;
+            if (m.getReturnType() == boolean.class) {
+                DepositCall raw = metafactory(DepositCall.class, "deposit", m, receiver);
+                if (raw != null && mode == ResultMode.IGNORE) {
+                    lambda = (u, a, r) -> { raw.deposit(u, a, r); return true; };
+                } else {
+                    lambda = raw;
+                }
+            } else if (m.getReturnType() == void.class) {
+                VoidDeposit raw = metafactory(VoidDeposit.class, "deposit", m, receiver);
+                boolean ok = mode != ResultMode.STRICT;
+                if (raw != null) lambda = (u, a, r) -> { raw.deposit(u, a, r); return ok; };
+            }
+            if (lambda != null) return new Bound<>(lambda, Strategy.LAMBDA);
+        }
+
+        MethodHandle mh = unreflect(m, receiver);
+        if (mh != null) {
+            if (!hasReason) mh = MethodHandles.dropArguments(mh, 2, String.class);
+            MethodHandle exact = finish(mh, mode, DEPOSIT_TYPE);
+            return new Bound<>((u, a, r) -> {
+                try {
+                    return (boolean) exact.invokeExact(u, a, r);
+                } catch (Throwable t) {
+                    throw rethrow(t);
+                }
+            }, Strategy.METHOD_HANDLE);
+        }
+
+        return new Bound<>((u, a, r) -> result(reflect(m, receiver,
+                hasReason ? new Object[]{u, a, r} : new Object[]{u, a}), mode), Strategy.REFLECTION);
+    }
+
+    /**
+     * Bind {@code grantXP(UUID, double|int|long)}; narrower amounts are cast like {@code (int) amount}.
+     *
+     * @param receiver API instance, or null for a static method
+     */
+    @Nonnull
+    public static Bound<XpCall> xp(@Nonnull Method target, @Nullable Object receiver, @Nonnull ResultMode mode) {
+        Method m = publicDeclaration(target);
+        if (matches(m, XP_TYPE)) {
+            XpCall lambda = null;
+            if (m.getReturnType() == boolean.class) {
+                XpCall raw = metafactory(XpCall.class, "grant", m, receiver);
+                if (raw != null && mode == ResultMode.IGNORE) {
+                    lambda = (u, a) -> { raw.grant(u, a); return true; };
+                } else {
+                    lambda = raw;
+                }
+            } else if (m.getReturnType() == void.class) {
+                VoidXp raw = metafactory(VoidXp.class, "grant", m, receiver);
+                boolean ok = mode != ResultMode.STRICT;
+                if (raw != null) lambda = (u, a) -> { raw.grant(u, a); return ok; };
+            }
+            if (lambda != null) return new Bound<>(lambda, Strategy.LAMBDA);
+        }
+
+        MethodHandle mh = unreflect(m, receiver);
+        if (mh != null) {
+            MethodHandle exact = finish(mh, mode, XP_TYPE);
+            return new Bound<>((u, a) -> {
+                try {
+                    return (boolean) exact.invokeExact(u, a);
+                } catch (Throwable t) {
+                    throw rethrow(t);
+                }
+            }, Strategy.METHOD_HANDLE);
+        }
+
+        Class<?> amountType = m.getParameterTypes()[1];
+        return new Bound<>((u, a) -> result(reflect(m, receiver,
+                new Object[]{u, narrow(a, amountType)}), mode), Strategy.REFLECTION);
+    }
+
+    /**
+     * Bind {@code method(store, ref, extra, amount)} with {@code extra} fixed
+     * (e.g. a skill type). The adapted signature never matches exactly, so
+     * this binds a MethodHandle at best.
+     */
+    @Nonnull
+    public static Bound<ContextXpCall> contextXp(@Nonnull Method target, @Nullable Object receiver,
+                                                 @Nonnull Object extra, @Nonnull ResultMode mode) {
+        Method m = publicDeclaration(target);
+        MethodHandle mh = unreflect(m, receiver);
+        if (mh != null) {
+            MethodHandle exact = finish(MethodHandles.insertArguments(mh, 2, extra), mode, CONTEXT_XP_TYPE);
+            return new Bound<>((s, r, a) -> {
+                try {
+                    return (boolean) exact.invokeExact(s, r, a);
+                } catch (Throwable t) {
+                    throw rethrow(t);
+                }
+            }, Strategy.METHOD_HANDLE);
+        }
+
+        Class<?> amountType = m.getParameterTypes()[3];
+        return new Bound<>((s, r, a) -> result(reflect(m, receiver,
+                new Object[]{s, r, extra, narrow(a, amountType)}), mode), Strategy.REFLECTION);
+    }
+
+    /** Bind a no-argument status method; success only on {@code true}. */
+    @Nonnull
+    public static Bound<StatusCall> status(@Nonnull Method target, @Nullable Object receiver) {
+        Method m = publicDeclaration(target);
+        if (matches(m, STATUS_TYPE)) {
+            StatusCall lambda = metafactory(StatusCall.class, "get", m, receiver);
+            if (lambda != null) return new Bound<>(lambda, Strategy.LAMBDA);
+        }
+
+        MethodHandle mh = unreflect(m, receiver);
+        if (mh != null) {
+            MethodHandle exact = finish(mh, ResultMode.STRICT, STATUS_TYPE);
+            return new Bound<>(() -> {
+                try {
+                    return (boolean) exact.invokeExact();
+                } catch (Throwable t) {
+                    throw rethrow(t);
+                }
+            }, Strategy.METHOD_HANDLE);
+        }
+
+        return new Bound<>(() -> result(reflect(m, receiver, new Object[0]), ResultMode.STRICT),
+                Strategy.REFLECTION);
+    }
+
+    // ═════════════════════════════════════════════════════════
+    //  PRIVATE
+    // ═════════════════════════════════════════════════════════
+
+    /**
+     * {@code m} as declared on a public superclass or interface when its own
+     * class is not public (typical for {@code api.getClass().getMethod(..)}).
+     */
+    @Nonnull
+    private static Method publicDeclaration(@Nonnull Method m) {
+        if (Modifier.isPublic(m.getDeclaringClass().getModifiers()) || Modifier.isStatic(m.getModifiers())) {
+            return m;
+        }
+        for (Class<?> c = m.getDeclaringClass(); c != null; c = c.getSuperclass()) {
+            if (Modifier.isPublic(c.getModifiers())) {
+                try {
+                    return c.getMethod(m.getName(), m.getParameterTypes());
+                } catch (NoSuchMethodException ignored) {}
+            }
+            for (Class<?> i : c.getInterfaces()) {
+                if (!Modifier.isPublic(i.getModifiers())) continue;
+                try {
+                    return i.getMethod(m.getName(), m.getParameterTypes());
+                } catch (NoSuchMethodException ignored) {}
+            }
+        }
+        return m;
+    }
+
+    /** Same parameter types as {@code type}; return type checked by the caller. */
+    private static boolean matches(@Nonnull Method m, @Nonnull MethodType type) {
+        return type.parameterList().equals(List.of(m.getParameterTypes()));
+    }
+
+    /**
+     * Generate an implementation of {@code sam} that calls {@code m} directly,
+     * or null if the target is not reachable from this class loader.
+     */
+    @Nullable
+    private static <T> T metafactory(@Nonnull Class<T> sam, @Nonnull String name,
+                                     @Nonnull Method m, @Nullable Object receiver) {
+        Class<?> owner = m.getDeclaringClass();
+        boolean isStatic = Modifier.isStatic(m.getModifiers());
+        if (!isStatic && receiver == null) return null;
+        if (!Modifier.isPublic(owner.getModifiers()) || !isVisible(owner)) return null;
+        try {
+            MethodHandle impl = LOOKUP.unreflect(m);
+            MethodType samType = MethodType.methodType(m.getReturnType(), m.getParameterTypes());
+            MethodType factoryType = isStatic
+                    ? MethodType.methodType(sam)
+                    : MethodType.methodType(sam, owner);
+            CallSite site = LambdaMetafactory.metafactory(LOOKUP, name, factoryType, samType, impl, samType);
+            Object call = isStatic ? site.getTarget().invoke() : site.getTarget().invoke(receiver);
+            return sam.cast(call);
+        } catch (Throwable t) {
+            LOGGER.debug("LambdaMetafactory binding failed for {}: {}", m, t.toString());
+            return null;
+        }
+    }
+
+    @Nullable
+    private static MethodHandle unreflect(@Nonnull Method m, @Nullable Object receiver) {
+        try {
+            MethodHandle mh = LOOKUP.unreflect(m);
+            return Modifier.isStatic(m.getModifiers()) ? mh : mh.bindTo(receiver);
+        } catch (IllegalAccessException | IllegalArgumentException | ClassCastException e) {
+            LOGGER.debug("MethodHandle binding failed for {}: {}", m, e.toString());
+            return null;
+        }
+    }
+
+    /** Map the return value per {@code mode}, then cast arguments to {@code type}. */
+    @Nonnull
+    private static MethodHandle finish(@Nonnull MethodHandle mh, @Nonnull ResultMode mode,
+                                       @Nonnull MethodType type) {
+        Class<?> ret = mh.type().returnType();
+        if (ret == void.class) {
+            mh = MethodHandles.filterReturnValue(mh,
+                    MethodHandles.constant(boolean.class, mode != ResultMode.STRICT));
+        } else if (mode == ResultMode.IGNORE) {
+            mh = MethodHandles.filterReturnValue(mh, MethodHandles.dropArguments(
+                    MethodHandles.constant(boolean.class, true), 0, ret));
+        } else if (ret != boolean.class) {
+            mh = MethodHandles.filterReturnValue(mh.asType(mh.type().changeReturnType(Object.class)),
+                    mode == ResultMode.STRICT ? STRICT_RESULT : LENIENT_RESULT);
+        }
+        return MethodHandles.explicitCastArguments(mh, type);
+    }
+
+    private static boolean isVisible(@Nonnull Class<?> c) {
+        try {
+            return Class.forName(c.getName(), false, ProviderInvokers.class.getClassLoader()) == c;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    @Nullable
+    private static Object reflect(@Nonnull Method m, @Nullable Object receiver, @Nonnull Object[] args)
+            throws Exception {
+        try {
+            return m.invoke(receiver, args);
+        } catch (InvocationTargetException e) {
+            throw rethrow(e.getCause() != null ? e.getCause() : e);
+        }
+    }
+
+    @Nonnull
+    private static Object narrow(double amount, @Nonnull Class<?> type) {
+        if (type == int.class) return (int) amount;
+        if (type == long.class) return (long) amount;
+        if (type == float.class) return (float) amount;
+        return amount;
+    }
+
+    private static boolean result(@Nullable Object value, @Nonnull ResultMode mode) {
+        return switch (mode) {
+            case STRICT -> strictResult(value);
+            case LENIENT -> lenientResult(value);
+            case IGNORE -> true;
+        };
+    }
+
+    private static boolean strictResult(@Nullable Object value) {
+        return value instanceof Boolean b && b;
+    }
+
+    private static boolean lenientResult(@Nullable Object value) {
+        return !(value instanceof Boolean b) || b;
+    }
+
+    @Nonnull
+    private static Exception rethrow(@Nonnull Throwable t) {
+        if (t instanceof Exception e) return e;
+        if (t instanceof Error err) throw err;
+        return new IllegalStateException(t);
+    }
+}
@@ -1,5 +1,7 @@
 package com.crystalrealm.ecotalerewards.provider.economy;
 
+import com.crystalrealm.ecotalerewards.provider.ProviderFault;
+import com.crystalrealm.ecotalerewards.provider.ProviderInvokers;
 import com.crystalrealm.ecotalerewards.util.PluginLogger;
 
 import javax.annotation.Nonnull;
@@ -21,7 +23,7 @@ public class EconomyApiProvider implements EconomyProvider {
 
     private boolean available;
     private Object apiInstance;
-    private Method depositMethod;
+    private ProviderInvokers.Bound<ProviderInvokers.DepositCall> deposit;
 
     public EconomyApiProvider() {
         resolve();
@@ -38,10 +40,12 @@ public class EconomyApiProvider implements EconomyProvider {
                 return;
             }
 
-            depositMethod = apiInstance.getClass().getMethod("deposit", UUID.class, double.class, String.class);
+            deposit = ProviderInvokers.deposit(
+                    apiInstance.getClass().getMethod("deposit", UUID.class, double.class, String.class),
+                    apiInstance, ProviderInvokers.ResultMode.IGNORE);
 
             available = true;
-            LOGGER.info("EconomyAPI resolved successfully.");
+            LOGGER.info("EconomyAPI resolved successfully (binding: {}).", deposit.strategy());
         } catch (ClassNotFoundException e) {
             LOGGER.info("EconomyAPI not found — provider disabled.");
             available = false;
@@ -62,15 +66,19 @@ public class EconomyApiProvider implements EconomyProvider {
         return available && apiInstance != null;
     }
 
+    @Override
+    public String getBindingStrategy() {
+        return deposit != null ? deposit.strategy().toString() : "unresolved";
+    }
+
     @Override
     public boolean deposit(@Nonnull UUID playerUuid, double amount, @Nonnull String reason) {
-        if (!isAvailable() || depositMethod == null) return false;
+        if (!isAvailable() || deposit == null) throw new ProviderFault("EconomyAPI not available");
         try {
-            depositMethod.invoke(apiInstance, playerUuid, amount, reason);
-            return true;
+            return deposit.call().deposit(playerUuid, amount, reason);
         } catch (Exception e) {
             LOGGER.warn("EconomyAPI deposit failed for {} ({}): {}", playerUuid, amount, e.getMessage());
-            return false;
+            throw new ProviderFault("EconomyAPI deposit failed", e);
         }
     }
 }
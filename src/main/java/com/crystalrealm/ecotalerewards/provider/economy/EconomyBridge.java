@@ -1,5 +1,6 @@
 package com.crystalrealm.ecotalerewards.provider.economy;
 
+import com.crystalrealm.ecotalerewards.provider.ProviderHealth;
 import com.crystalrealm.ecotalerewards.util.PluginLogger;
 
 import javax.annotation.Nonnull;
@@ -7,6 +8,7 @@ import javax.annotation.Nullable;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ScheduledExecutorService;
 
 /**
  * Facade that routes economy operations to the active {@link EconomyProvider}.
@@ -16,7 +18,8 @@ public class EconomyBridge {
     private static final PluginLogger LOGGER = PluginLogger.forEnclosingClass();
 
     private final LinkedHashMap<String, EconomyProvider> providers = new LinkedHashMap<>();
-    private EconomyProvider active;
+    private volatile EconomyProvider active;
+    private volatile ProviderHealth health;
 
     public EconomyBridge() {
         registerProvider("ecotale", new EcotaleEconomyProvider());
@@ -32,15 +35,17 @@ public class EconomyBridge {
         if (preferredKey != null) {
             EconomyProvider p = providers.get(preferredKey.toLowerCase());
             if (p != null && p.isAvailable()) {
-                active = p;
-                LOGGER.info("Economy provider activated: {} ({})", preferredKey, p.getName());
+                setActive(p);
+                LOGGER.info("Economy provider activated: {} ({}, binding: {})",
+                        preferredKey, p.getName(), p.getBindingStrategy());
                 return true;
             }
         }
         for (Map.Entry<String, EconomyProvider> e : providers.entrySet()) {
             if (e.getValue().isAvailable()) {
-                active = e.getValue();
-                LOGGER.info("Economy provider fallback: {} ({})", e.getKey(), active.getName());
+                setActive(e.getValue());
+                LOGGER.info("Economy provider fallback: {} ({}, binding: {})",
+                        e.getKey(), active.getName(), active.getBindingStrategy());
                 return true;
             }
         }
@@ -48,8 +53,33 @@ public class EconomyBridge {
         return false;
     }
 
+    /**
+     * Cached availability — refreshed by the health probe, false while the
+     * circuit breaker is open. Does not call into the provider.
+     */
     public boolean isAvailable() {
-        return active != null && active.isAvailable();
+        ProviderHealth h = health;
+        return h != null && h.isAvailable();
+    }
+
+    /**
+     * Start probing the active provider every {@code probeSeconds}; the breaker
+     * opens after {@code failureThreshold} consecutive failed calls.
+     */
+    public void startHealthProbe(@Nonnull ScheduledExecutorService executor, int probeSeconds,
+                                 int failureThreshold) {
+        ProviderHealth h = health;
+        if (h != null) h.start(executor, probeSeconds, failureThreshold);
+    }
+
+    public void stopHealthProbe() {
+        ProviderHealth h = health;
+        if (h != null) h.stop();
+    }
+
+    /** True once a provider was activated, even if it is currently unhealthy. */
+    public boolean hasProvider() {
+        return active != null;
     }
 
     @Nonnull
@@ -58,10 +88,35 @@ public class EconomyBridge {
     }
 
     public boolean deposit(@Nonnull UUID playerUuid, double amount, @Nonnull String reason) {
-        if (active == null || !active.isAvailable()) {
+        EconomyProvider p = active;
+        ProviderHealth h = health;
+        if (p == null || h == null) {
             LOGGER.warn("Cannot deposit — no economy provider active.");
             return false;
         }
-        return active.deposit(playerUuid, amount, reason);
+        if (!h.tryAcquire()) {
+            LOGGER.warn("Cannot deposit — economy provider {} unavailable.", p.getName());
+            return false;
+        }
+        try {
+            // A false result is a per-player outcome — the provider answered
+            boolean ok = p.deposit(playerUuid, amount, reason);
+            h.recordSuccess();
+            return ok;
+        } catch (RuntimeException e) {
+            h.recordFailure();
+            return false;
+        }
+    }
+
+    // ═════════════════════════════════════════════════════════
+    //  PRIVATE
+    // ═════════════════════════════════════════════════════════
+
+    private void setActive(@Nonnull EconomyProvider provider) {
+        ProviderHealth previous = health;
+        if (previous != null) previous.stop();
+        active = provider;
+        health = new ProviderHealth("Economy (" + provider.getName() + ")", provider::isAvailable);
     }
 }
@@ -25,7 +25,14 @@ public interface EconomyProvider {
      * @param playerUuid player UUID
      * @param amount     amount to deposit
      * @param reason     human-readable reason for the transaction
-     * @return true if the deposit succeeded
+     * @return true if the deposit succeeded, false if it was rejected for this player
+     * @throws com.crystalrealm.ecotalerewards.provider.ProviderFault if the economy plugin itself failed
      */
     boolean deposit(UUID playerUuid, double amount, String reason);
+
+    /**
+     * How calls reach the backing plugin, for diagnostics — e.g. "lambda",
+     * "method-handle" or "reflection" (see {@code ProviderInvokers}).
+     */
+    default String getBindingStrategy() { return "direct"; }
 }
@@ -1,5 +1,7 @@
 package com.crystalrealm.ecotalerewards.provider.economy;
 
+import com.crystalrealm.ecotalerewards.provider.ProviderFault;
+import com.crystalrealm.ecotalerewards.provider.ProviderInvokers;
 import com.crystalrealm.ecotalerewards.util.PluginLogger;
 
 import java.lang.reflect.Method;
@@ -14,17 +16,19 @@ public class EcotaleEconomyProvider implements EconomyProvider {
     private static final PluginLogger LOGGER = PluginLogger.forEnclosingClass();
     private static final String CLASS_NAME = "com.ecotale.api.EcotaleAPI";
 
-    private Method depositMethod;
-    private Method isAvailableMethod;
+    private ProviderInvokers.Bound<ProviderInvokers.DepositCall> deposit;
+    private ProviderInvokers.Bound<ProviderInvokers.StatusCall> availability;
     private boolean resolved;
 
     public EcotaleEconomyProvider() {
         try {
             Class<?> clazz = Class.forName(CLASS_NAME);
-            depositMethod = clazz.getMethod("deposit", UUID.class, double.class, String.class);
-            isAvailableMethod = clazz.getMethod("isAvailable");
+            Method depositMethod = clazz.getMethod("deposit", UUID.class, double.class, String.class);
+            Method isAvailableMethod = clazz.getMethod("isAvailable");
+            deposit = ProviderInvokers.deposit(depositMethod, null, ProviderInvokers.ResultMode.STRICT);
+            availability = ProviderInvokers.status(isAvailableMethod, null);
             resolved = true;
-            LOGGER.info("Ecotale Economy API resolved.");
+            LOGGER.info("Ecotale Economy API resolved (binding: {}).", deposit.strategy());
         } catch (ClassNotFoundException e) {
             LOGGER.info("Ecotale Economy not found (optional dependency).");
         } catch (Exception e) {
@@ -37,22 +41,26 @@ public class EcotaleEconomyProvider implements EconomyProvider {
 
     @Override
     public boolean isAvailable() {
-        if (!resolved || isAvailableMethod == null) return false;
+        if (!resolved || availability == null) return false;
         try {
-            Object result = isAvailableMethod.invoke(null);
-            return result instanceof Boolean b && b;
+            return availability.call().get();
         } catch (Exception e) { return false; }
     }
 
+    @Override
+    public String getBindingStrategy() {
+        return deposit != null ? deposit.strategy().toString() : "unresolved";
+    }
+
     @Override
     public boolean deposit(UUID playerUuid, double amount, String reason) {
-        if (!isAvailable() || depositMethod == null) return false;
+        // Availability is gated by the bridge's cached health state
+        if (!resolved || deposit == null) throw new ProviderFault("Ecotale Economy API not resolved");
         try {
-            Object result = depositMethod.invoke(null, playerUuid, amount, reason);
-            return result instanceof Boolean b && b;
+            return deposit.call().deposit(playerUuid, amount, reason);
         } catch (Exception e) {
             LOGGER.warn("Ecotale deposit failed: {}", e.getMessage());
-            return false;
+            throw new ProviderFault("Ecotale deposit failed", e);
         }
     }
 }
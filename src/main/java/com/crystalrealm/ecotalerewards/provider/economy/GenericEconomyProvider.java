@@ -1,5 +1,7 @@
 package com.crystalrealm.ecotalerewards.provider.economy;
 
+import com.crystalrealm.ecotalerewards.provider.ProviderFault;
+import com.crystalrealm.ecotalerewards.provider.ProviderInvokers;
 import com.crystalrealm.ecotalerewards.util.PluginLogger;
 
 import java.lang.reflect.Method;
@@ -17,14 +19,12 @@ public class GenericEconomyProvider implements EconomyProvider {
 
     private final String displayName;
     private Object apiInstance;
-    private Method depositMethod;
-    private boolean depositHasReason;
+    private ProviderInvokers.Bound<ProviderInvokers.DepositCall> deposit;
     private boolean available;
 
     public GenericEconomyProvider(String className, String instanceMethod,
                                  String depositMethodName, boolean depositHasReason) {
         this.displayName = className;
-        this.depositHasReason = depositHasReason;
         try {
             Class<?> clazz = Class.forName(className);
 
@@ -36,24 +36,24 @@ public class GenericEconomyProvider implements EconomyProvider {
             Class<?> target = apiInstance != null ? apiInstance.getClass() : clazz;
 
             // Try with reason first, then without
+            Method depositMethod;
             if (depositHasReason) {
                 try {
                     depositMethod = target.getMethod(depositMethodName, UUID.class, double.class, String.class);
                 } catch (NoSuchMethodException e) {
                     depositMethod = target.getMethod(depositMethodName, UUID.class, double.class);
-                    this.depositHasReason = false;
                 }
             } else {
                 try {
                     depositMethod = target.getMethod(depositMethodName, UUID.class, double.class);
                 } catch (NoSuchMethodException e) {
                     depositMethod = target.getMethod(depositMethodName, UUID.class, double.class, String.class);
-                    this.depositHasReason = true;
                 }
             }
 
+            deposit = ProviderInvokers.deposit(depositMethod, apiInstance, ProviderInvokers.ResultMode.LENIENT);
             available = true;
-            LOGGER.info("GenericEconomyProvider resolved: {}", className);
+            LOGGER.info("GenericEconomyProvider resolved: {} (binding: {})", className, deposit.strategy());
         } catch (ClassNotFoundException e) {
             LOGGER.info("GenericEconomyProvider class not found: {} (disabled)", className);
         } catch (Exception e) {
@@ -67,20 +67,19 @@ public class GenericEconomyProvider implements EconomyProvider {
     @Override
     public boolean isAvailable() { return available; }
 
+    @Override
+    public String getBindingStrategy() {
+        return deposit != null ? deposit.strategy().toString() : "unresolved";
+    }
+
     @Override
     public boolean deposit(UUID playerUuid, double amount, String reason) {
-        if (!available || depositMethod == null) return false;
+        if (!available || deposit == null) throw new ProviderFault("GenericEconomyProvider not available");
         try {
-            Object result;
-            if (depositHasReason) {
-                result = depositMethod.invoke(apiInstance, playerUuid, amount, reason);
-            } else {
-                result = depositMethod.invoke(apiInstance, playerUuid, amount);
-            }
-            return !(result instanceof Boolean b) || b;
+            return deposit.call().deposit(playerUuid, amount, reason);
         } catch (Exception e) {
             LOGGER.warn("GenericEconomyProvider.deposit failed: {}", e.getMessage());
-            return false;
+            throw new ProviderFault("GenericEconomyProvider.deposit failed", e);
         }
     }
 }
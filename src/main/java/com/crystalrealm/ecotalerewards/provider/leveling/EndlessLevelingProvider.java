@@ -1,5 +1,7 @@
 package com.crystalrealm.ecotalerewards.provider.leveling;
 
+import com.crystalrealm.ecotalerewards.provider.ProviderFault;
+import com.crystalrealm.ecotalerewards.provider.ProviderInvokers;
 import com.crystalrealm.ecotalerewards.util.PluginLogger;
 
 import java.lang.reflect.Method;
@@ -17,7 +19,7 @@ public class EndlessLevelingProvider implements LevelProvider {
 
     private boolean available;
     private Object apiInstance;
-    private Method grantXpMethod;
+    private ProviderInvokers.Bound<ProviderInvokers.XpCall> grantXp;
 
     public EndlessLevelingProvider() {
         resolve();
@@ -33,9 +35,11 @@ public class EndlessLevelingProvider implements LevelProvider {
                 available = false;
                 return;
             }
-            grantXpMethod = apiInstance.getClass().getMethod("grantXp", UUID.class, double.class);
+            grantXp = ProviderInvokers.xp(
+                    apiInstance.getClass().getMethod("grantXp", UUID.class, double.class),
+                    apiInstance, ProviderInvokers.ResultMode.IGNORE);
             available = true;
-            LOGGER.info("EndlessLevelingAPI resolved successfully.");
+            LOGGER.info("EndlessLevelingAPI resolved successfully (binding: {}).", grantXp.strategy());
         } catch (ClassNotFoundException e) {
             LOGGER.info("EndlessLeveling not found — provider disabled.");
             available = false;
@@ -55,15 +59,19 @@ public class EndlessLevelingProvider implements LevelProvider {
         return available && apiInstance != null;
     }
 
+    @Override
+    public String getBindingStrategy() {
+        return grantXp != null ? grantXp.strategy().toString() : "unresolved";
+    }
+
     @Override
     public boolean grantXP(UUID playerUuid, double amount, String reason) {
-        if (!isAvailable() || grantXpMethod == null) return false;
+        if (!isAvailable() || grantXp == null) throw new ProviderFault("EndlessLeveling not available");
         try {
-            grantXpMethod.invoke(apiInstance, playerUuid, amount);
-            return true;
+            return grantXp.call().grant(playerUuid, amount);
         } catch (Exception e) {
             LOGGER.warn("EndlessLeveling grantXp failed for {} ({}): {}", playerUuid, amount, e.getMessage());
-            return false;
+            throw new ProviderFault("EndlessLeveling grantXp failed", e);
         }
     }
 }
@@ -1,5 +1,7 @@
 package com.crystalrealm.ecotalerewards.provider.leveling;
 
+import com.crystalrealm.ecotalerewards.provider.ProviderFault;
+import com.crystalrealm.ecotalerewards.provider.ProviderInvokers;
 import com.crystalrealm.ecotalerewards.util.PluginLogger;
 
 import java.lang.reflect.Method;
@@ -14,7 +16,7 @@ public class GenericLevelProvider implements LevelProvider {
 
     private final String displayName;
     private Object apiInstance;
-    private Method grantXPMethod;
+    private ProviderInvokers.Bound<ProviderInvokers.XpCall> grantXP;
     private boolean available;
 
     public GenericLevelProvider(String className, String instanceMethod, String grantXPName) {
@@ -30,14 +32,16 @@ public class GenericLevelProvider implements LevelProvider {
             Class<?> target = apiInstance != null ? apiInstance.getClass() : clazz;
 
             // Try (UUID, double) first, then (UUID, int)
+            Method grantXPMethod;
             try {
                 grantXPMethod = target.getMethod(grantXPName, UUID.class, double.class);
             } catch (NoSuchMethodException e) {
                 grantXPMethod = target.getMethod(grantXPName, UUID.class, int.class);
             }
 
+            grantXP = ProviderInvokers.xp(grantXPMethod, apiInstance, ProviderInvokers.ResultMode.IGNORE);
             available = true;
-            LOGGER.info("GenericLevelProvider resolved: {}", className);
+            LOGGER.info("GenericLevelProvider resolved: {} (binding: {})", className, grantXP.strategy());
         } catch (ClassNotFoundException e) {
             LOGGER.info("GenericLevelProvider class not found: {} (disabled)", className);
         } catch (Exception e) {
@@ -51,20 +55,19 @@ public class GenericLevelProvider implements LevelProvider {
     @Override
     public boolean isAvailable() { return available; }
 
+    @Override
+    public String getBindingStrategy() {
+        return grantXP != null ? grantXP.strategy().toString() : "unresolved";
+    }
+
     @Override
     public boolean grantXP(UUID playerUuid, double amount, String reason) {
-        if (!available || grantXPMethod == null) return false;
+        if (!available || grantXP == null) throw new ProviderFault("GenericLevelProvider not available");
         try {
-            Class<?> paramType = grantXPMethod.getParameterTypes()[1];
-            if (paramType == int.class) {
-                grantXPMethod.invoke(apiInstance, playerUuid, (int) amount);
-            } else {
-                grantXPMethod.invoke(apiInstance, playerUuid, amount);
-            }
-            return true;
+            return grantXP.call().grant(playerUuid, amount);
         } catch (Exception e) {
             LOGGER.debug("GenericLevelProvider.grantXP failed: {}", e.getMessage());
-            return false;
+            throw new ProviderFault("GenericLevelProvider.grantXP failed", e);
         }
     }
 }
@@ -1,5 +1,6 @@
 package com.crystalrealm.ecotalerewards.provider.leveling;
 
+import com.crystalrealm.ecotalerewards.provider.ProviderHealth;
 import com.crystalrealm.ecotalerewards.util.PluginLogger;
 
 import javax.annotation.Nonnull;
@@ -7,6 +8,7 @@ import javax.annotation.Nullable;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ScheduledExecutorService;
 
 /**
  * Facade that routes XP operations to the active {@link LevelProvider}.
@@ -16,7 +18,8 @@ public class LevelBridge {
     private static final PluginLogger LOGGER = PluginLogger.forEnclosingClass();
 
     private final LinkedHashMap<String, LevelProvider> providers = new LinkedHashMap<>();
-    private LevelProvider active;
+    private volatile LevelProvider active;
+    private volatile ProviderHealth health;
 
     public LevelBridge() {
         registerProvider("rpgleveling", new RPGLevelingProvider());
@@ -32,15 +35,17 @@ public class LevelBridge {
         if (preferredKey != null) {
             LevelProvider p = providers.get(preferredKey.toLowerCase());
             if (p != null && p.isAvailable()) {
-                active = p;
-                LOGGER.info("Level provider activated: {} ({})", preferredKey, p.getName());
+                setActive(p);
+                LOGGER.info("Level provider activated: {} ({}, binding: {})",
+                        preferredKey, p.getName(), p.getBindingStrategy());
                 return true;
             }
         }
         for (Map.Entry<String, LevelProvider> e : providers.entrySet()) {
             if (e.getValue().isAvailable()) {
-                active = e.getValue();
-                LOGGER.info("Level provider fallback: {} ({})", e.getKey(), active.getName());
+                setActive(e.getValue());
+                LOGGER.info("Level provider fallback: {} ({}, binding: {})",
+                        e.getKey(), active.getName(), active.getBindingStrategy());
                 return true;
             }
         }
@@ -48,8 +53,33 @@ public class LevelBridge {
         return false;
     }
 
+    /**
+     * Cached availability — refreshed by the health probe, false while the
+     * circuit breaker is open. Does not call into the provider.
+     */
     public boolean isAvailable() {
-        return active != null && active.isAvailable();
+        ProviderHealth h = health;
+        return h != null && h.isAvailable();
+    }
+
+    /**
+     * Start probing the active provider every {@code probeSeconds}; the breaker
+     * opens after {@code failureThreshold} consecutive failed calls.
+     */
+    public void startHealthProbe(@Nonnull ScheduledExecutorService executor, int probeSeconds,
+                                 int failureThreshold) {
+        ProviderHealth h = health;
+        if (h != null) h.start(executor, probeSeconds, failureThreshold);
+    }
+
+    public void stopHealthProbe() {
+        ProviderHealth h = health;
+        if (h != null) h.stop();
+    }
+
+    /** True once a provider was activated, even if it is currently unhealthy. */
+    public boolean hasProvider() {
+        return active != null;
     }
 
     @Nonnull
@@ -58,8 +88,18 @@ public class LevelBridge {
     }
 
     public boolean grantXP(@Nonnull UUID playerUuid, double amount, @Nonnull String reason) {
-        if (active == null || !active.isAvailable()) return false;
-        return active.grantXP(playerUuid, amount, reason);
+        LevelProvider p = active;
+        ProviderHealth h = health;
+        if (p == null || h == null || !h.tryAcquire()) return false;
+        try {
+            // A false result is a per-player outcome — the provider answered
+            boolean ok = p.grantXP(playerUuid, amount, reason);
+            h.recordSuccess();
+            return ok;
+        } catch (RuntimeException e) {
+            h.recordFailure();
+            return false;
+        }
     }
 
     /** Notify all providers about a new player (caches ECS Store/Ref). */
@@ -75,4 +115,15 @@ public class LevelBridge {
             try { p.onPlayerLeave(uuid); } catch (Exception ignored) {}
         }
     }
+
+    // ═════════════════════════════════════════════════════════
+    //  PRIVATE
+    // ═════════════════════════════════════════════════════════
+
+    private void setActive(@Nonnull LevelProvider provider) {
+        ProviderHealth previous = health;
+        if (previous != null) previous.stop();
+        active = provider;
+        health = new ProviderHealth("Level (" + provider.getName() + ")", provider::isAvailable);
+    }
 }
@@ -27,10 +27,17 @@ public interface LevelProvider {
      * @param playerUuid player UUID
      * @param amount     XP amount
      * @param reason     reason for logging
-     * @return true if successful
+     * @return true if successful, false if it was rejected for this player
+     * @throws com.crystalrealm.ecotalerewards.provider.ProviderFault if the leveling plugin itself failed
      */
     boolean grantXP(UUID playerUuid, double amount, String reason);
 
+    /**
+     * How calls reach the backing plugin, for diagnostics — e.g. "lambda",
+     * "method-handle" or "reflection" (see {@code ProviderInvokers}).
+     */
+    default String getBindingStrategy() { return "direct"; }
+
     /**
      * Called when a player joins. Providers that need ECS context (Store/Ref)
      * can cache it here.
@@ -1,5 +1,7 @@
 package com.crystalrealm.ecotalerewards.provider.leveling;
 
+import com.crystalrealm.ecotalerewards.provider.ProviderFault;
+import com.crystalrealm.ecotalerewards.provider.ProviderInvokers;
 import com.crystalrealm.ecotalerewards.util.PluginLogger;
 
 import java.lang.reflect.Method;
@@ -21,7 +23,7 @@ public class MMOSkillTreeProvider implements LevelProvider {
     private final ConcurrentHashMap<UUID, Object[]> playerContext = new ConcurrentHashMap<>();
 
     private boolean available;
-    private Method addXpMethod;
+    private ProviderInvokers.Bound<ProviderInvokers.ContextXpCall> addXp;
     private Class<?> storeClass;
     private Class<?> refClass;
     private Class<?> skillTypeClass;
@@ -40,10 +42,15 @@ public class MMOSkillTreeProvider implements LevelProvider {
             skillTypeClass = Class.forName(SKILL_TYPE_CLASS);
             storeClass = Class.forName("com.hypixel.hytale.component.Store");
             refClass = Class.forName("com.hypixel.hytale.component.Ref");
-            addXpMethod = apiClass.getMethod("addXp", storeClass, refClass, skillTypeClass, long.class);
+            Method addXpMethod = apiClass.getMethod("addXp", storeClass, refClass, skillTypeClass, long.class);
             resolveDefaultSkillType();
+            if (defaultSkillType != null) {
+                addXp = ProviderInvokers.contextXp(addXpMethod, null, defaultSkillType,
+                        ProviderInvokers.ResultMode.STRICT);
+            }
             available = true;
-            LOGGER.info("MMOSkillTreeAPI resolved successfully.");
+            LOGGER.info("MMOSkillTreeAPI resolved successfully (binding: {}).",
+                    addXp != null ? addXp.strategy() : "N/A");
         } catch (ClassNotFoundException e) {
             LOGGER.info("MMOSkillTree not found — provider disabled.");
             available = false;
@@ -92,20 +99,25 @@ public class MMOSkillTreeProvider implements LevelProvider {
         return available;
     }
 
+    @Override
+    public String getBindingStrategy() {
+        return addXp != null ? addXp.strategy().toString() : "unresolved";
+    }
+
     @Override
     public boolean grantXP(UUID playerUuid, double amount, String reason) {
-        if (!isAvailable() || addXpMethod == null || defaultSkillType == null) return false;
+        if (!isAvailable() || addXp == null) throw new ProviderFault("MMOSkillTree not available");
         Object[] ctx = playerContext.get(playerUuid);
         if (ctx == null) {
+            // Per-player: the player is offline or not joined yet — not a provider fault
             LOGGER.warn("MMOSkillTree: no cached context for {} — cannot grant XP", playerUuid);
             return false;
         }
         try {
-            Object result = addXpMethod.invoke(null, ctx[0], ctx[1], defaultSkillType, (long) amount);
-            return result instanceof Boolean b && b;
+            return addXp.call().grant(ctx[0], ctx[1], amount);
         } catch (Exception e) {
             LOGGER.warn("MMOSkillTree addXp failed for {} ({}): {}", playerUuid, amount, e.getMessage());
-            return false;
+            throw new ProviderFault("MMOSkillTree addXp failed", e);
         }
     }
 }
@@ -1,5 +1,7 @@
 package com.crystalrealm.ecotalerewards.provider.leveling;
 
+import com.crystalrealm.ecotalerewards.provider.ProviderFault;
+import com.crystalrealm.ecotalerewards.provider.ProviderInvokers;
 import com.crystalrealm.ecotalerewards.util.PluginLogger;
 
 import java.lang.reflect.Method;
@@ -15,7 +17,7 @@ public class RPGLevelingProvider implements LevelProvider {
     private static final String CLASS_NAME = "org.zuxaw.plugin.api.RPGLevelingAPI";
 
     private Object api;
-    private Method addXPMethod;
+    private ProviderInvokers.Bound<ProviderInvokers.XpCall> addXP;
     private boolean available;
 
     public RPGLevelingProvider() {
@@ -33,15 +35,20 @@ public class RPGLevelingProvider implements LevelProvider {
 
             if (api != null) {
                 // Try addXP(UUID, double) first, then addExperience
+                Method addXPMethod = null;
                 for (String name : new String[]{"addXP", "addExperience", "grantXP"}) {
                     try {
                         addXPMethod = api.getClass().getMethod(name, UUID.class, double.class);
                         break;
                     } catch (NoSuchMethodException ignored) {}
                 }
-                available = (addXPMethod != null);
-                LOGGER.info("RPG Leveling API resolved (grantXP via {}).",
-                        addXPMethod != null ? addXPMethod.getName() : "N/A");
+                if (addXPMethod != null) {
+                    addXP = ProviderInvokers.xp(addXPMethod, api, ProviderInvokers.ResultMode.IGNORE);
+                }
+                available = (addXP != null);
+                LOGGER.info("RPG Leveling API resolved (grantXP via {}, binding: {}).",
+                        addXPMethod != null ? addXPMethod.getName() : "N/A",
+                        addXP != null ? addXP.strategy() : "N/A");
             }
         } catch (ClassNotFoundException e) {
             LOGGER.info("RPG Leveling not found (optional dependency).");
@@ -56,15 +63,19 @@ public class RPGLevelingProvider implements LevelProvider {
     @Override
     public boolean isAvailable() { return available && api != null; }
 
+    @Override
+    public String getBindingStrategy() {
+        return addXP != null ? addXP.strategy().toString() : "unresolved";
+    }
+
     @Override
     public boolean grantXP(UUID playerUuid, double amount, String reason) {
-        if (!isAvailable() || addXPMethod == null) return false;
+        if (!isAvailable() || addXP == null) throw new ProviderFault("RPG Leveling not available");
         try {
-            addXPMethod.invoke(api, playerUuid, amount);
-            return true;
+            return addXP.call().grant(playerUuid, amount);
         } catch (Exception e) {
             LOGGER.warn("grantXP failed for {}: {}", playerUuid, e.getMessage());
-            return false;
+            throw new ProviderFault("RPG Leveling grantXP failed", e);
         }
     }
 }
@@ -3,6 +3,9 @@ package com.crystalrealm.ecotalerewards.returns;
 import com.crystalrealm.ecotalerewards.config.RewardsConfig;
 import com.crystalrealm.ecotalerewards.model.PlayerRewardData;
 import com.crystalrealm.ecotalerewards.model.ReturnRewardTier;
+import com.crystalrealm.ecotalerewards.rewards.PayoutRow;
+import com.crystalrealm.ecotalerewards.rewards.PayoutScale;
+import com.crystalrealm.ecotalerewards.storage.ClaimJournal;
 import com.crystalrealm.ecotalerewards.util.PluginLogger;
 
 import javax.annotation.Nonnull;
@@ -22,6 +25,7 @@ public class ReturnRewardService {
 
     private final RewardsConfig config;
     private final List<ReturnRewardTier> tiers = new ArrayList<>();
+    private ClaimJournal journal = ClaimJournal.NONE;
 
     public ReturnRewardService(@Nonnull RewardsConfig config) {
         this.config = config;
@@ -32,21 +36,39 @@ public class ReturnRewardService {
         tiers.clear();
         if (!config.getReturnRewards().isEnabled()) return;
 
+        PayoutScale scale = PayoutScale.compile(config);
         for (RewardsConfig.ReturnTierEntry entry : config.getReturnRewards().getTiers()) {
-            tiers.add(new ReturnRewardTier(
+            BigDecimal coins = BigDecimal.valueOf(entry.getCoins());
+            ReturnRewardTier tier = new ReturnRewardTier(
                     entry.getMinAbsenceDays(),
                     entry.getMaxAbsenceDays(),
-                    BigDecimal.valueOf(entry.getCoins()),
+                    coins,
                     entry.getXP(),
                     entry.getItems() != null ? entry.getItems() : List.of(),
                     entry.getCommands() != null ? entry.getCommands() : List.of(),
-                    entry.getDescription() != null ? entry.getDescription() : ""
-            ));
+                    entry.getDescription() != null ? entry.getDescription() : "",
+                    PayoutRow.vipOnly(scale, coins, entry.getXP(),
+                            "ReturnReward " + entry.getMinAbsenceDays() + "+ days",
+                            "return" + entry.getMinAbsenceDays())
+            );
+            int invalid = tier.getItems().size() - tier.getItemGrants().size();
+            if (invalid > 0) {
+                LOGGER.warn("Return tier {}+: {} invalid item entr(ies) ignored: {}",
+                        tier.getMinAbsenceDays(), invalid, tier.getItems());
+            }
+            tiers.add(tier);
         }
         tiers.sort(Comparator.comparingInt(ReturnRewardTier::getMinAbsenceDays));
         LOGGER.info("Loaded {} return reward tiers.", tiers.size());
     }
 
+    /**
+     * Journal that records state transitions (see {@link ClaimJournal}).
+     */
+    public void setJournal(@Nonnull ClaimJournal journal) {
+        this.journal = journal;
+    }
+
     public void reload() {
         loadTiers();
     }
@@ -84,6 +106,7 @@ public class ReturnRewardService {
     public void markReturnClaimed(@Nonnull PlayerRewardData data) {
         data.setPendingReturnReward(false);
         data.setAbsenceDays(0);
+        journal.recordReturnClaimed(data);
     }
 
     /**
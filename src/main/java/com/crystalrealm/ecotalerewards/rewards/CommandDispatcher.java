@@ -0,0 +1,247 @@
+package com.crystalrealm.ecotalerewards.rewards;
+
+import com.crystalrealm.ecotalerewards.util.PluginLogger;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Queue for reward console commands. Claims only submit; once per server
+ * tick (50 ms) the scheduler takes at most {@code maxPerTick} commands and
+ * hands them, grouped by world, to that world's thread via
+ * {@link Executor#execute} — the thread the claim's commands used to run
+ * on. The world task stops early once the tick's time budget is spent and
+ * puts the rest back at the head of the queue. A world only gets a new
+ * batch after its previous one has run, so a busy world is never flooded;
+ * its commands wait in the queue while other worlds keep draining.
+ * Commands without a world (offline claims) run on the scheduler thread.
+ *
+ * <p>Keeps queue depth and per-command latency counters, readable via
+ * {@link #getMetrics()}.</p>
+ */
+public final class CommandDispatcher {
+
+    private static final PluginLogger LOGGER = PluginLogger.forEnclosingClass();
+
+    private static final long TICK_MILLIS = 50;
+    private static final int DEPTH_WARN = 256;
+
+    /** Runs one command on the console. */
+    @FunctionalInterface
+    public interface Sink {
+        void execute(@Nonnull String command) throws Exception;
+    }
+
+    /** Counters since start. Latencies in microseconds. */
+    public record Metrics(int queueDepth, int peakQueueDepth, long executed, long failed,
+                          long avgLatencyMicros, long maxLatencyMicros, long avgWaitMicros) {}
+
+    private record Pending(String command, @Nullable Executor thread, long submittedNanos) {}
+
+    private final Sink sink;
+    private final ConcurrentLinkedDeque<Pending> queue = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    /** Worlds with a handed-out batch that has not run yet. */
+    private final Set<Executor> busy = ConcurrentHashMap.newKeySet();
+    /** Orders head re-insertions: the tick's skip pass vs. a world returning its leftovers. */
+    private final Object requeueLock = new Object();
+    private final AtomicInteger peakDepth = new AtomicInteger();
+    private final AtomicLong executed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+
+    private volatile int maxPerTick = 20;
+    private volatile long budgetNanos = TimeUnit.MILLISECONDS.toNanos(5);
+    private volatile ScheduledFuture<?> drainTask;
+
+    public CommandDispatcher(@Nonnull Sink sink) {
+        this.sink = sink;
+    }
+
+    public synchronized void start(@Nonnull ScheduledExecutorService executor, int maxPerTick, int budgetMillis) {
+        stop();
+        this.maxPerTick = Math.max(1, maxPerTick);
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, budgetMillis));
+        drainTask = executor.scheduleAtFixedRate(this::drainTick, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop ticking and run whatever is still queued on the calling thread,
+     * so no reward command is lost at shutdown.
+     */
+    public synchronized void stop() {
+        if (drainTask == null) return;
+        drainTask.cancel(false);
+        drainTask = null;
+        List<Pending> rest = new ArrayList<>();
+        Pending next;
+        while ((next = poll()) != null) rest.add(next);
+        int remaining = runBatch(rest, Long.MAX_VALUE);
+        if (remaining > 0) {
+            LOGGER.info("Flushed {} queued reward command(s).", remaining);
+        }
+        logMetrics();
+    }
+
+    /** Log the counters (auto-save and shutdown). */
+    public void logMetrics() {
+        Metrics m = getMetrics();
+        if (m.executed() == 0 && m.queueDepth() == 0) return;
+        LOGGER.info("[CMD] queue={} peak={} run={} failed={} latency avg={}us max={}us wait avg={}us",
+                m.queueDepth(), m.peakQueueDepth(), m.executed(), m.failed(),
+                m.avgLatencyMicros(), m.maxLatencyMicros(), m.avgWaitMicros());
+    }
+
+    public boolean isRunning() {
+        return drainTask != null;
+    }
+
+    /**
+     * Queue a command.
+     *
+     * @param thread executor of the claiming player's world, or null to run
+     *               it on the scheduler thread
+     */
+    public void submit(@Nonnull String command, @Nullable Executor thread) {
+        queue.offer(new Pending(command, thread, System.nanoTime()));
+        int d = depth.incrementAndGet();
+        int peak = peakDepth.get();
+        while (d > peak && !peakDepth.compareAndSet(peak, d)) {
+            peak = peakDepth.get();
+        }
+        if (d == DEPTH_WARN) {
+            LOGGER.warn("Reward command queue reached {} pending command(s).", d);
+        }
+    }
+
+    @Nonnull
+    public Metrics getMetrics() {
+        long n = executed.get();
+        return new Metrics(depth.get(), peakDepth.get(), n, failed.get(),
+                n > 0 ? totalLatencyNanos.get() / n / 1000 : 0,
+                maxLatencyNanos.get() / 1000,
+                n > 0 ? totalWaitNanos.get() / n / 1000 : 0);
+    }
+
+    // ═════════════════════════════════════════════════════════
+    //  PRIVATE
+    // ═════════════════════════════════════════════════════════
+
+    private void drainTick() {
+        try {
+            Map<Executor, List<Pending>> batches = new LinkedHashMap<>();
+            List<Pending> local = new ArrayList<>();
+            synchronized (requeueLock) {
+                // Scan the queue once; commands of a world still running its last batch stay queued
+                List<Pending> skipped = new ArrayList<>();
+                int taken = 0;
+                for (int scan = depth.get(); scan > 0 && taken < maxPerTick; scan--) {
+                    Pending next = poll();
+                    if (next == null) break;
+                    Executor thread = next.thread();
+                    if (thread != null && busy.contains(thread)) {
+                        skipped.add(next);
+                    } else {
+                        if (thread == null) local.add(next);
+                        else batches.computeIfAbsent(thread, t -> new ArrayList<>()).add(next);
+                        taken++;
+                    }
+                }
+                requeueFront(skipped, 0);
+            }
+            long budget = budgetNanos;
+            batches.forEach((thread, batch) -> handOff(thread, batch, budget));
+            runBatch(local, budget);
+        } catch (Throwable t) {
+            LOGGER.error("Reward command drain failed: {}", t.getMessage());
+        }
+    }
+
+    private void handOff(@Nonnull Executor thread, @Nonnull List<Pending> batch, long budget) {
+        busy.add(thread);
+        try {
+            thread.execute(() -> {
+                try {
+                    runBatch(batch, budget);
+                } finally {
+                    busy.remove(thread);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // World is gone — run on the scheduler rather than drop rewards
+            busy.remove(thread);
+            runBatch(batch, budget);
+        }
+    }
+
+    @Nullable
+    private Pending poll() {
+        Pending next = queue.poll();
+        if (next != null) depth.decrementAndGet();
+        return next;
+    }
+
+    /**
+     * Run a batch in order until the budget is spent; the rest goes back to
+     * the head of the queue.
+     *
+     * @return number of commands run
+     */
+    private int runBatch(@Nonnull List<Pending> batch, long budget) {
+        long start = System.nanoTime();
+        int count = 0;
+        for (; count < batch.size(); count++) {
+            if (count > 0 && System.nanoTime() - start >= budget) {
+                requeueFront(batch, count);
+                break;
+            }
+            run(batch.get(count));
+        }
+        return count;
+    }
+
+    /** Put {@code batch[from..]} back at the head of the queue, in order. */
+    private void requeueFront(@Nonnull List<Pending> batch, int from) {
+        synchronized (requeueLock) {
+            for (int i = batch.size() - 1; i >= from; i--) {
+                queue.offerFirst(batch.get(i));
+                depth.incrementAndGet();
+            }
+        }
+    }
+
+    private void run(@Nonnull Pending next) {
+        long begin = System.nanoTime();
+        totalWaitNanos.addAndGet(begin - next.submittedNanos());
+        try {
+            sink.execute(next.command());
+            LOGGER.info("[CMD] Executed: {}", next.command());
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            LOGGER.warn("Command execution failed '{}': {}", next.command(), e.getMessage());
+        }
+        long latency = System.nanoTime() - begin;
+        executed.incrementAndGet();
+        totalLatencyNanos.addAndGet(latency);
+        long max = maxLatencyNanos.get();
+        while (latency > max && !maxLatencyNanos.compareAndSet(max, latency)) {
+            max = maxLatencyNanos.get();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.crystalrealm.ecotalerewards.rewards;
+
+import javax.annotation.Nonnull;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Precompiled payout of one configured reward: coins in minor units
+ * (hundredths) and XP for every VIP level and streak bucket of a
+ * {@link PayoutScale}, plus the deposit reason and the source label used in
+ * outbox keys.
+ * Claims only index into the arrays.
+ *
+ * <p>Amounts are rounded exactly as before: coins HALF_UP to two places,
+ * XP with {@link Math#round(double)}.</p>
+ */
+public final class PayoutRow {
+
+    private final PayoutScale scale;
+    private final boolean streakAxis;
+    private final BigDecimal baseCoins;
+    private final int baseXp;
+    private final String reason;
+    private final String source;
+    private final long[] coinsMinor;
+    private final int[] xp;
+
+    private PayoutRow(PayoutScale scale, boolean streakAxis, BigDecimal baseCoins, int baseXp,
+                      String reason, String source) {
+        this.scale = scale;
+        this.streakAxis = streakAxis;
+        this.baseCoins = baseCoins;
+        this.baseXp = baseXp;
+        this.reason = reason;
+        this.source = source;
+        int buckets = streakAxis ? scale.streakBuckets() : 1;
+        this.coinsMinor = new long[scale.vipLevels() * buckets];
+        this.xp = new int[coinsMinor.length];
+        for (int v = 0; v < scale.vipLevels(); v++) {
+            for (int b = 0; b < buckets; b++) {
+                int i = v * buckets + b;
+                BigDecimal mult = multiplier(v, streakAxis ? scale.streakMultiplier(b) : 1.0);
+                coinsMinor[i] = coinsMinor(mult);
+                xp[i] = xp(mult);
+            }
+        }
+    }
+
+    /** Row scaled by VIP level and streak (calendar days). */
+    @Nonnull
+    public static PayoutRow withStreak(@Nonnull PayoutScale scale, @Nonnull BigDecimal coins, int xp,
+                                       @Nonnull String reason, @Nonnull String source) {
+        return new PayoutRow(scale, true, coins, xp, reason, source);
+    }
+
+    /** Row scaled by VIP level only (milestones, return tiers). */
+    @Nonnull
+    public static PayoutRow vipOnly(@Nonnull PayoutScale scale, @Nonnull BigDecimal coins, int xp,
+                                    @Nonnull String reason, @Nonnull String source) {
+        return new PayoutRow(scale, false, coins, xp, reason, source);
+    }
+
+    /** Coins in hundredths for a VIP level and streak length. */
+    public long coinsMinor(int vipLevel, int streakDays) {
+        int i = index(vipLevel, streakDays);
+        return i >= 0 ? coinsMinor[i] : coinsMinor(multiplier(vipLevel, scale.streakMultiplier(streakDays)));
+    }
+
+    public int xp(int vipLevel, int streakDays) {
+        int i = index(vipLevel, streakDays);
+        return i >= 0 ? xp[i] : xp(multiplier(vipLevel, scale.streakMultiplier(streakDays)));
+    }
+
+    @Nonnull
+    public String getReason() {
+        return reason;
+    }
+
+    /** Short source label, e.g. {@code day5}, {@code streak7}, {@code return3}. */
+    @Nonnull
+    public String getSource() {
+        return source;
+    }
+
+    @Nonnull
+    public static BigDecimal toCoins(long minor) {
+        return BigDecimal.valueOf(minor, 2);
+    }
+
+    // ═════════════════════════════════════════════════════════
+    //  PRIVATE
+    // ═════════════════════════════════════════════════════════
+
+    private int index(int vipLevel, int streakDays) {
+        if (!streakAxis) return vipLevel;
+        int bucket = scale.streakBucket(streakDays);
+        return bucket >= 0 ? vipLevel * scale.streakBuckets() + bucket : -1;
+    }
+
+    @Nonnull
+    private BigDecimal multiplier(int vipLevel, double streakMultiplier) {
+        return BigDecimal.valueOf(scale.vipMultiplier(vipLevel))
+                .multiply(BigDecimal.valueOf(streakMultiplier));
+    }
+
+    private long coinsMinor(@Nonnull BigDecimal mult) {
+        return baseCoins.multiply(mult).setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue();
+    }
+
+    private int xp(@Nonnull BigDecimal mult) {
+        return (int) Math.round(baseXp * mult.doubleValue());
+    }
+}
@@ -0,0 +1,101 @@
+package com.crystalrealm.ecotalerewards.rewards;
+
+import com.crystalrealm.ecotalerewards.config.RewardsConfig;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+
+/**
+ * Multiplier axes of the payout tables, compiled from config: VIP levels
+ * (0 = no VIP, {@code i + 1} = {@code VipTiers[i]}) and streak buckets.
+ *
+ * <p>Bucket {@code s} holds the multiplier of streak {@code s}; once the
+ * multiplier reaches {@code MaxMultiplier} every longer streak shares the
+ * last bucket. Curves that do not cap within {@link #MAX_STREAK_BUCKETS},
+ * including falling ones (negative {@code MultiplierPerDay}), fall back to
+ * computing the multiplier for longer streaks.</p>
+ */
+public final class PayoutScale {
+
+    static final int MAX_STREAK_BUCKETS = 512;
+
+    private final double[] vip;
+    private final double[] streak;
+    private final boolean capped;
+    private final RewardsConfig.StreakSection streakConfig;
+
+    private PayoutScale(double[] vip, double[] streak, boolean capped,
+                        RewardsConfig.StreakSection streakConfig) {
+        this.vip = vip;
+        this.streak = streak;
+        this.capped = capped;
+        this.streakConfig = streakConfig;
+    }
+
+    @Nonnull
+    public static PayoutScale compile(@Nonnull RewardsConfig config) {
+        List<RewardsConfig.VipTier> tiers = config.getVipTiers();
+        int vipCount = tiers != null ? tiers.size() : 0;
+        double[] vip = new double[vipCount + 1];
+        vip[0] = 1.0;
+        for (int i = 0; i < vipCount; i++) {
+            vip[i + 1] = tiers.get(i).getMultiplier();
+        }
+
+        RewardsConfig.StreakSection s = config.getStreak();
+        int buckets;
+        boolean capped = true;
+        if (!s.isEnabled()) {
+            buckets = 1;
+        } else if (s.getMultiplierPerDay() == 0) {
+            buckets = 2;
+        } else {
+            // A falling curve (negative per-day) never settles: fill the table and compute past it
+            buckets = MAX_STREAK_BUCKETS;
+            capped = false;
+            for (int n = 1; n < MAX_STREAK_BUCKETS && s.getMultiplierPerDay() > 0; n++) {
+                if (compute(s, n) >= s.getMaxMultiplier()) {
+                    buckets = n + 1;
+                    capped = true;
+                    break;
+                }
+            }
+        }
+        double[] streak = new double[buckets];
+        for (int n = 0; n < buckets; n++) {
+            streak[n] = compute(s, n);
+        }
+        return new PayoutScale(vip, streak, capped, s);
+    }
+
+    public int vipLevels() {
+        return vip.length;
+    }
+
+    public int streakBuckets() {
+        return streak.length;
+    }
+
+    public double vipMultiplier(int vipLevel) {
+        return vip[vipLevel];
+    }
+
+    /** Streak bucket of a streak length, or -1 when it lies past an uncapped table. */
+    public int streakBucket(int streakDays) {
+        if (streakDays <= 0) return 0;
+        if (streakDays < streak.length) return streakDays;
+        return capped ? streak.length - 1 : -1;
+    }
+
+    /** Streak multiplier: base + streak * perDay, capped at max; 1.0 when disabled. */
+    public double streakMultiplier(int streakDays) {
+        int bucket = streakBucket(streakDays);
+        return bucket >= 0 ? streak[bucket] : compute(streakConfig, streakDays);
+    }
+
+    private static double compute(@Nonnull RewardsConfig.StreakSection s, int streakDays) {
+        if (!s.isEnabled() || streakDays <= 0) return 1.0;
+        double mult = s.getBaseStreakMultiplier() + (streakDays * s.getMultiplierPerDay());
+        return Math.min(mult, s.getMaxMultiplier());
+    }
+}
@@ -0,0 +1,92 @@
+package com.crystalrealm.ecotalerewards.rewards;
+
+import com.crystalrealm.ecotalerewards.util.PluginLogger;
+
+import com.hypixel.hytale.component.ComponentType;
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.server.core.entity.entities.Player;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.UUID;
+
+/**
+ * Per-claim issuance context — the player plus the ECS handles needed for
+ * inventory and name lookups. Created for one claim and passed through
+ * {@link RewardService}, so concurrent claims never share entity state.
+ *
+ * <p>Not thread-safe; use from the thread issuing the claim.</p>
+ */
+public final class RewardContext {
+
+    private static final PluginLogger LOGGER = PluginLogger.forEnclosingClass();
+
+    private final UUID playerUuid;
+    @Nullable private final Ref<EntityStore> ref;
+    @Nullable private final Store<EntityStore> store;
+
+    private Player player;
+    private boolean playerResolved;
+
+    private RewardContext(@Nonnull UUID playerUuid,
+                          @Nullable Ref<EntityStore> ref,
+                          @Nullable Store<EntityStore> store) {
+        this.playerUuid = playerUuid;
+        this.ref = ref;
+        this.store = store;
+    }
+
+    /** Context with entity access (GUI claims, commands from a player). */
+    @Nonnull
+    public static RewardContext of(@Nonnull UUID playerUuid,
+                                   @Nullable Ref<EntityStore> ref,
+                                   @Nullable Store<EntityStore> store) {
+        return new RewardContext(playerUuid, ref, store);
+    }
+
+    /** Context without entity access — item rewards are skipped. */
+    @Nonnull
+    public static RewardContext offline(@Nonnull UUID playerUuid) {
+        return new RewardContext(playerUuid, null, null);
+    }
+
+    @Nonnull
+    public UUID getPlayerUuid() {
+        return playerUuid;
+    }
+
+    /**
+     * The Player entity, looked up once per context:
+     * {@code store.getComponent(ref, Player.getComponentType())}.
+     */
+    @Nullable
+    public Player getPlayer() {
+        if (playerResolved) return player;
+        playerResolved = true;
+        if (ref == null || store == null) {
+            LOGGER.warn("[ECS] No entity context for {}", playerUuid);
+            return null;
+        }
+        try {
+            ComponentType<EntityStore, Player> playerType = Player.getComponentType();
+            player = (Player) store.getComponent(ref, playerType);
+            if (player == null) {
+                LOGGER.warn("[ECS] Player component is null for {}", playerUuid);
+            }
+        } catch (Exception e) {
+            LOGGER.warn("[ECS] Failed to get Player entity: {}", e.getMessage(), e);
+        }
+        return player;
+    }
+
+    /** World of the player (its executor runs on the world thread), or null without entity access. */
+    @Nullable
+    public World getWorld() {
+        if (ref == null || store == null) return null;
+        Player p = getPlayer();
+        return p != null ? p.getWorld() : null;
+    }
+}
@@ -2,17 +2,18 @@ package com.crystalrealm.ecotalerewards.rewards;
 
 import com.crystalrealm.ecotalerewards.config.RewardsConfig;
 import com.crystalrealm.ecotalerewards.model.PlayerRewardData;
+import com.crystalrealm.ecotalerewards.model.CommandTemplate;
+import com.crystalrealm.ecotalerewards.model.ItemGrant;
 import com.crystalrealm.ecotalerewards.model.ReturnRewardTier;
 import com.crystalrealm.ecotalerewards.model.RewardDay;
 import com.crystalrealm.ecotalerewards.model.StreakMilestone;
 import com.crystalrealm.ecotalerewards.provider.economy.EconomyBridge;
 import com.crystalrealm.ecotalerewards.provider.leveling.LevelBridge;
+import com.crystalrealm.ecotalerewards.storage.RewardOutbox;
+import com.crystalrealm.ecotalerewards.util.EpochDays;
 import com.crystalrealm.ecotalerewards.util.PluginLogger;
 import com.crystalrealm.ecotalerewards.util.PermissionHelper;
 
-import com.hypixel.hytale.component.ComponentType;
-import com.hypixel.hytale.component.Ref;
-import com.hypixel.hytale.component.Store;
 import com.hypixel.hytale.server.core.command.system.CommandSender;
 import com.hypixel.hytale.server.core.entity.entities.Player;
 import com.hypixel.hytale.server.core.inventory.Inventory;
@@ -20,21 +21,24 @@ import com.hypixel.hytale.server.core.inventory.ItemStack;
 import com.hypixel.hytale.server.core.inventory.container.ItemContainer;
 import com.hypixel.hytale.server.core.inventory.transaction.ItemStackTransaction;
 import com.hypixel.hytale.server.core.plugin.JavaPlugin;
-import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import com.hypixel.hytale.server.core.universe.world.World;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ScheduledExecutorService;
 
 /**
  * Central reward distribution service.
  * Handles coin deposits via EconomyBridge, XP via LevelBridge,
  * item drops via give command, and command execution via CommandManager.
+ *
+ * <p>Legs that fail after a claim is committed (XP, items, milestone coins)
+ * go to the {@link RewardOutbox} and are retried in the background or on
+ * the player's next login.</p>
  */
 public class RewardService {
 
@@ -44,6 +48,7 @@ public class RewardService {
     private final JavaPlugin plugin;
     private EconomyBridge economyBridge;
     private LevelBridge levelBridge;
+    private RewardOutbox outbox;
 
     // Cached command infrastructure (lazy-init, pure reflection)
     private Object commandManagerObj;
@@ -51,134 +56,139 @@ public class RewardService {
     private Method handleCommandMethod;
     private boolean commandSystemReady = false;
     private boolean commandSystemFailed = false;
-
-    // ECS context — set by GUI before reward claims
-    private Ref<EntityStore> currentRef;
-    private Store<EntityStore> currentStore;
+    private volatile boolean capacityCheckSupported = true;
+    private final CommandDispatcher commandDispatcher = new CommandDispatcher(this::runConsoleCommand);
 
     public RewardService(@Nonnull RewardsConfig config, @Nonnull JavaPlugin plugin) {
         this.config = config;
         this.plugin = plugin;
     }
 
-    /**
-     * Register the ECS context (Ref + Store) for the current player.
-     * Must be called from the GUI before issuing rewards — this is how we get
-     * access to the Player entity for inventory operations.
-     */
-    public void registerPlayerContext(@Nonnull Ref<EntityStore> ref, @Nonnull Store<EntityStore> store) {
-        this.currentRef = ref;
-        this.currentStore = store;
-        LOGGER.info("[RewardService] Player context registered");
-    }
-
     /**
      * Issue a daily calendar reward to the player.
      *
-     * @param vipMultiplier VIP tier multiplier (1.0 = no VIP)
-     * @param streakMultiplier streak-based multiplier
+     * Coins are paid first. A failed deposit is queued in the outbox like
+     * the other legs; only if it cannot be queued is nothing issued, so the
+     * caller can roll the claim back. Without an economy provider (it is
+     * optional) the coin leg is skipped.
+     *
+     * @param vipLevel VIP level from {@link #getVipLevel} (0 = no VIP)
+     * @param streak   the player's streak after this claim
      * @return true if successfully issued
      */
-    public boolean issueDayReward(@Nonnull UUID playerUuid,
+    public boolean issueDayReward(@Nonnull RewardContext ctx,
                                   @Nonnull RewardDay day,
-                                  double vipMultiplier,
-                                  double streakMultiplier) {
-        BigDecimal totalMult = BigDecimal.valueOf(vipMultiplier)
-                .multiply(BigDecimal.valueOf(streakMultiplier));
-
-        BigDecimal coins = day.getCoins()
-                .multiply(totalMult)
-                .setScale(2, RoundingMode.HALF_UP);
-
-        int xp = (int) Math.round(day.getXp() * totalMult.doubleValue());
-
-        boolean coinsOk = depositCoins(playerUuid, coins, "DailyReward Day " + day.getDay());
-        boolean xpOk = grantXP(playerUuid, xp);
-        giveItems(playerUuid, day.getItems());
-        executeCommands(playerUuid, day.getCommands());
+                                  int vipLevel,
+                                  int streak) {
+        PayoutRow payout = day.getPayout();
+        long coins = payout.coinsMinor(vipLevel, streak);
+        int xp = payout.xp(vipLevel, streak);
+        UUID playerUuid = ctx.getPlayerUuid();
+
+        if (!depositOrDeferCoins(playerUuid, payout, coins)) return false;
+        grantOrDeferXP(playerUuid, payout.getSource(), xp, "DailyReward");
+        giveItems(ctx, payout.getSource(), day.getItemGrants());
+        executeCommands(ctx, day.getCommandTemplates());
 
         if (config.getAntiAbuse().isLogAllRewards()) {
             LOGGER.info("[REWARD LOG] Player={} Day={} Coins={} XP={} VIP={} Streak={}",
-                    playerUuid, day.getDay(), coins, xp, vipMultiplier, streakMultiplier);
+                    playerUuid, day.getDay(), PayoutRow.toCoins(coins), xp, vipLevel, streak);
         }
 
-        return coinsOk;
+        return true;
     }
 
     /**
      * Issue a streak milestone bonus.
      */
-    public void issueMilestoneReward(@Nonnull UUID playerUuid,
+    public void issueMilestoneReward(@Nonnull RewardContext ctx,
                                      @Nonnull StreakMilestone milestone,
-                                     double vipMultiplier) {
-        BigDecimal coins = milestone.getBonusCoins()
-                .multiply(BigDecimal.valueOf(vipMultiplier))
-                .setScale(2, RoundingMode.HALF_UP);
-        int xp = (int) Math.round(milestone.getBonusXP() * vipMultiplier);
-
-        depositCoins(playerUuid, coins, "StreakMilestone " + milestone.getDays() + " days");
-        grantXP(playerUuid, xp);
-        executeCommands(playerUuid, milestone.getCommands());
+                                     int vipLevel) {
+        UUID playerUuid = ctx.getPlayerUuid();
+        PayoutRow payout = milestone.getPayout();
+        long coins = payout.coinsMinor(vipLevel, 0);
+        int xp = payout.xp(vipLevel, 0);
+
+        if (!depositOrDeferCoins(playerUuid, payout, coins)) {
+            LOGGER.warn("Milestone coins {} lost for {} — no outbox.", PayoutRow.toCoins(coins), playerUuid);
+        }
+        grantOrDeferXP(playerUuid, payout.getSource(), xp, "StreakMilestone");
+        executeCommands(ctx, milestone.getCommandTemplates());
 
         if (config.getAntiAbuse().isLogAllRewards()) {
             LOGGER.info("[REWARD LOG] Player={} StreakMilestone={}d Coins={} XP={}",
-                    playerUuid, milestone.getDays(), coins, xp);
+                    playerUuid, milestone.getDays(), PayoutRow.toCoins(coins), xp);
         }
     }
 
     /**
-     * Issue a return reward.
+     * Issue a return reward. Like {@link #issueDayReward}, nothing is issued
+     * if the coins can be neither paid nor queued.
+     *
+     * @return true if successfully issued
      */
-    public void issueReturnReward(@Nonnull UUID playerUuid,
-                                  @Nonnull ReturnRewardTier tier,
-                                  double vipMultiplier) {
-        BigDecimal coins = tier.getCoins()
-                .multiply(BigDecimal.valueOf(vipMultiplier))
-                .setScale(2, RoundingMode.HALF_UP);
-        int xp = (int) Math.round(tier.getXp() * vipMultiplier);
-
-        depositCoins(playerUuid, coins, "ReturnReward " + tier.getMinAbsenceDays() + "+ days");
-        grantXP(playerUuid, xp);
-        executeCommands(playerUuid, tier.getCommands());
+    public boolean issueReturnReward(@Nonnull RewardContext ctx,
+                                     @Nonnull ReturnRewardTier tier,
+                                     int vipLevel) {
+        UUID playerUuid = ctx.getPlayerUuid();
+        PayoutRow payout = tier.getPayout();
+        long coins = payout.coinsMinor(vipLevel, 0);
+        int xp = payout.xp(vipLevel, 0);
+
+        if (!depositOrDeferCoins(playerUuid, payout, coins)) return false;
+        grantOrDeferXP(playerUuid, payout.getSource(), xp, "ReturnReward");
+        giveItems(ctx, payout.getSource(), tier.getItemGrants());
+        executeCommands(ctx, tier.getCommandTemplates());
 
         if (config.getAntiAbuse().isLogAllRewards()) {
             LOGGER.info("[REWARD LOG] Player={} ReturnReward tier={}+ Coins={} XP={}",
-                    playerUuid, tier.getMinAbsenceDays(), coins, xp);
+                    playerUuid, tier.getMinAbsenceDays(), PayoutRow.toCoins(coins), xp);
         }
+        return true;
     }
 
     /**
-     * Get VIP multiplier for a player based on permissions.
+     * VIP level of a player: {@code i + 1} for the first matching entry of
+     * {@code VipTiers}, 0 for none. Indexes the compiled payout rows.
      * When commandSender is null (e.g. GUI claims), falls back to PermissionHelper.
      */
-    public double getVipMultiplier(@Nonnull UUID playerUuid,
-                                   @Nullable Object commandSender) {
+    public int getVipLevel(@Nonnull UUID playerUuid, @Nullable Object commandSender) {
         List<RewardsConfig.VipTier> vipTiers = config.getVipTiers();
-        if (vipTiers == null || vipTiers.isEmpty()) return 1.0;
+        if (vipTiers == null || vipTiers.isEmpty()) return 0;
 
         try {
             if (commandSender instanceof CommandSender cs) {
-                for (RewardsConfig.VipTier tier : vipTiers) {
-                    if (hasPermWithWildcard(cs, tier.getPermission())) return tier.getMultiplier();
+                for (int i = 0; i < vipTiers.size(); i++) {
+                    if (hasPermWithWildcard(cs, vipTiers.get(i).getPermission())) return i + 1;
                 }
             } else if (commandSender != null) {
                 Method hasPerm = commandSender.getClass().getMethod("hasPermission", String.class);
-                for (RewardsConfig.VipTier tier : vipTiers) {
-                    boolean has = (boolean) hasPerm.invoke(commandSender, tier.getPermission());
-                    if (has) return tier.getMultiplier();
+                for (int i = 0; i < vipTiers.size(); i++) {
+                    boolean has = (boolean) hasPerm.invoke(commandSender, vipTiers.get(i).getPermission());
+                    if (has) return i + 1;
                 }
             } else {
                 // No sender available (GUI context) — use PermissionHelper (LuckPerms)
                 PermissionHelper ph = PermissionHelper.getInstance();
-                for (RewardsConfig.VipTier tier : vipTiers) {
-                    if (ph.hasPermission(playerUuid, tier.getPermission())) return tier.getMultiplier();
+                for (int i = 0; i < vipTiers.size(); i++) {
+                    if (ph.hasPermission(playerUuid, vipTiers.get(i).getPermission())) return i + 1;
                 }
             }
         } catch (Exception e) {
             LOGGER.warn("VIP permission check failed: {}", e.getMessage());
         }
 
-        return 1.0;
+        return 0;
+    }
+
+    /**
+     * Get VIP multiplier for a player based on permissions.
+     * When commandSender is null (e.g. GUI claims), falls back to PermissionHelper.
+     */
+    public double getVipMultiplier(@Nonnull UUID playerUuid,
+                                   @Nullable Object commandSender) {
+        int level = getVipLevel(playerUuid, commandSender);
+        return level > 0 ? config.getVipTiers().get(level - 1).getMultiplier() : 1.0;
     }
 
     /**
@@ -186,30 +196,8 @@ public class RewardService {
      */
     @Nullable
     public String getVipTierName(@Nonnull UUID playerUuid, @Nullable Object commandSender) {
-        List<RewardsConfig.VipTier> vipTiers = config.getVipTiers();
-        if (vipTiers == null || vipTiers.isEmpty()) return null;
-
-        try {
-            if (commandSender instanceof CommandSender cs) {
-                for (RewardsConfig.VipTier tier : vipTiers) {
-                    if (hasPermWithWildcard(cs, tier.getPermission())) return tier.getDisplayName();
-                }
-            } else if (commandSender != null) {
-                Method hasPerm = commandSender.getClass().getMethod("hasPermission", String.class);
-                for (RewardsConfig.VipTier tier : vipTiers) {
-                    boolean has = (boolean) hasPerm.invoke(commandSender, tier.getPermission());
-                    if (has) return tier.getDisplayName();
-                }
-            } else {
-                PermissionHelper ph = PermissionHelper.getInstance();
-                for (RewardsConfig.VipTier tier : vipTiers) {
-                    if (ph.hasPermission(playerUuid, tier.getPermission())) return tier.getDisplayName();
-                }
-            }
-        } catch (Exception e) {
-            LOGGER.warn("VIP tier name check failed: {}", e.getMessage());
-        }
-        return null;
+        int level = getVipLevel(playerUuid, commandSender);
+        return level > 0 ? config.getVipTiers().get(level - 1).getDisplayName() : null;
     }
 
     /**
@@ -217,15 +205,8 @@ public class RewardService {
      */
     private static boolean hasPermWithWildcard(CommandSender sender, String perm) {
         if (sender.hasPermission(perm)) return true;
-        String[] parts = perm.split("\\.");
-        for (int i = parts.length - 1; i >= 1; i--) {
-            StringBuilder sb = new StringBuilder();
-            for (int j = 0; j < i; j++) {
-                if (j > 0) sb.append('.');
-                sb.append(parts[j]);
-            }
-            sb.append(".*");
-            if (sender.hasPermission(sb.toString())) return true;
+        for (String wildcard : PermissionHelper.wildcardAncestors(perm)) {
+            if (sender.hasPermission(wildcard)) return true;
         }
         if (sender.hasPermission("*")) return true;
         return PermissionHelper.getInstance().hasPermission(sender.getUuid(), perm);
@@ -241,53 +222,171 @@ public class RewardService {
         this.levelBridge = levelBridge;
     }
 
+    /**
+     * Start draining reward commands on the server scheduler, at most
+     * {@code maxPerTick} commands and {@code budgetMillis} per tick.
+     */
+    public void startCommandDispatcher(@Nonnull ScheduledExecutorService executor, int maxPerTick, int budgetMillis) {
+        commandDispatcher.start(executor, maxPerTick, budgetMillis);
+    }
+
+    /** Stop the dispatcher, running any commands still queued. */
+    public void stopCommandDispatcher() {
+        commandDispatcher.stop();
+    }
+
+    @Nonnull
+    public CommandDispatcher getCommandDispatcher() {
+        return commandDispatcher;
+    }
+
+    /** Injects the outbox for failed reward legs; without one they are only logged. */
+    public void setOutbox(@Nonnull RewardOutbox outbox) {
+        this.outbox = outbox;
+    }
+
+    // ═════════════════════════════════════════════════════════
+    //  OUTBOX DELIVERY
+    // ═════════════════════════════════════════════════════════
+
+    /**
+     * Retry due coin and XP entries (scheduled). Item entries need the
+     * player's inventory and wait for {@link #deliverPending}.
+     */
+    public void retryPending() {
+        if (outbox == null || outbox.size() == 0) return;
+        for (RewardOutbox.Entry entry : outbox.due(System.currentTimeMillis())) {
+            if (entry.kind() == RewardOutbox.Kind.ITEM) continue;
+            deliver(RewardContext.offline(entry.playerUuid()), entry);
+        }
+    }
+
+    /**
+     * Deliver everything pending for a player who just logged in.
+     * Call on the player's world thread.
+     */
+    public void deliverPending(@Nonnull RewardContext ctx) {
+        if (outbox == null || outbox.size() == 0) return;
+        for (RewardOutbox.Entry entry : outbox.forPlayer(ctx.getPlayerUuid())) {
+            deliver(ctx, entry);
+        }
+    }
+
+    private void deliver(@Nonnull RewardContext ctx, @Nonnull RewardOutbox.Entry entry) {
+        if (!outbox.take(entry)) return; // delivered or taken by another thread
+        boolean ok;
+        try {
+            ok = switch (entry.kind()) {
+                case COINS -> economyBridge != null && economyBridge.isAvailable()
+                        && economyBridge.deposit(entry.playerUuid(), entry.amount(), entry.payload());
+                case XP -> grantXP(entry.playerUuid(), (int) entry.amount(), entry.payload());
+                case ITEM -> giveItem(ctx, entry.payload());
+            };
+        } catch (RuntimeException e) {
+            LOGGER.warn("[OUTBOX] Delivery of {} failed: {}", entry.key(), e.getMessage());
+            ok = false;
+        }
+        if (ok) {
+            LOGGER.info("[OUTBOX] Delivered {} to {}", entry.key(), entry.playerUuid());
+        } else {
+            outbox.release(entry);
+        }
+    }
+
+    /**
+     * Queue a failed leg. The idempotency key names the player, the reward
+     * source, the claim date and the leg: {@code uuid/day5@20410/xp}.
+     */
+    private void defer(@Nonnull UUID playerUuid, @Nonnull String source, @Nonnull String leg,
+                       @Nonnull RewardOutbox.Kind kind, @Nonnull String payload, double amount) {
+        String key = playerUuid + "/" + source + "@" + EpochDays.today() + "/" + leg;
+        if (outbox == null) {
+            LOGGER.warn("Reward leg {} lost for {} — no outbox.", key, playerUuid);
+            return;
+        }
+        outbox.enqueue(playerUuid, key, kind, payload, amount);
+    }
+
     // ═════════════════════════════════════════════════════════
     //  ECONOMY (via EconomyBridge)
     // ═════════════════════════════════════════════════════════
 
-    private boolean depositCoins(@Nonnull UUID playerUuid, @Nonnull BigDecimal amount, @Nonnull String reason) {
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) return true;
+    /** False when no economy plugin is installed — coin legs are then skipped, not failed. */
+    private boolean hasEconomyProvider() {
+        return economyBridge != null && economyBridge.hasProvider();
+    }
+
+    /** Deposit {@code minor} hundredths of a coin. */
+    private boolean depositCoins(@Nonnull UUID playerUuid, long minor, @Nonnull String reason) {
+        if (minor <= 0) return true;
         if (economyBridge == null || !economyBridge.isAvailable()) {
             LOGGER.warn("Economy provider not available — coin reward skipped.");
             return false;
         }
-        boolean result = economyBridge.deposit(playerUuid, amount.doubleValue(), reason);
+        boolean result = economyBridge.deposit(playerUuid, minor / 100.0, reason);
         if (!result) {
-            LOGGER.warn("Deposit failed for {}: {} ({})", playerUuid, amount, reason);
+            LOGGER.warn("Deposit failed for {}: {} ({})", playerUuid, PayoutRow.toCoins(minor), reason);
         }
         return result;
     }
 
-    private boolean grantXP(@Nonnull UUID playerUuid, int xp) {
+    /**
+     * Pay coins, or queue them in the outbox when the provider is installed
+     * but the deposit failed (unavailable, circuit open, rejected).
+     *
+     * @return false only if the coins could be neither paid nor queued
+     */
+    private boolean depositOrDeferCoins(@Nonnull UUID playerUuid, @Nonnull PayoutRow payout, long coins) {
+        if (depositCoins(playerUuid, coins, payout.getReason()) || !hasEconomyProvider()) return true;
+        if (outbox == null) return false;
+        defer(playerUuid, payout.getSource(), "coins", RewardOutbox.Kind.COINS, payout.getReason(), coins / 100.0);
+        return true;
+    }
+
+    /** Grant XP, or queue it when the level provider exists but the grant failed. */
+    private void grantOrDeferXP(@Nonnull UUID playerUuid, @Nonnull String source, int xp, @Nonnull String reason) {
+        if (grantXP(playerUuid, xp, reason)) return;
+        if (levelBridge != null && levelBridge.hasProvider()) {
+            defer(playerUuid, source, "xp", RewardOutbox.Kind.XP, reason, xp);
+        }
+    }
+
+    private boolean grantXP(@Nonnull UUID playerUuid, int xp, @Nonnull String reason) {
         if (xp <= 0) return true;
         if (levelBridge == null || !levelBridge.isAvailable()) return false;
-        boolean success = levelBridge.grantXP(playerUuid, (double) xp, "DailyReward");
+        boolean success = levelBridge.grantXP(playerUuid, (double) xp, reason);
         if (success) {
             LOGGER.info("[XP] Granted {} XP to {}", xp, playerUuid);
         }
         return success;
     }
 
-    private void executeCommands(@Nonnull UUID playerUuid, @Nonnull List<String> commands) {
+    /**
+     * Render the commands for this player and hand them to the dispatcher;
+     * without a running dispatcher they run inline.
+     */
+    private void executeCommands(@Nonnull RewardContext ctx, @Nonnull List<CommandTemplate> commands) {
         if (commands.isEmpty()) return;
+        UUID playerUuid = ctx.getPlayerUuid();
 
         if (!ensureCommandSystem()) {
             LOGGER.warn("Command system not available — {} command(s) skipped for {}", commands.size(), playerUuid);
             return;
         }
 
-        String playerName = resolvePlayerName(playerUuid);
-        for (String cmd : commands) {
-            String resolved = cmd.replace("{player}", playerName);
-            // Strip leading / if present
-            resolved = resolved.trim();
-            if (resolved.startsWith("/")) {
-                resolved = resolved.substring(1).trim();
+        String playerName = null;
+        World world = commandDispatcher.isRunning() ? ctx.getWorld() : null;
+        for (CommandTemplate template : commands) {
+            if (playerName == null && template.usesPlayer()) {
+                playerName = resolvePlayerName(ctx);
+            }
+            String resolved = template.render(playerName != null ? playerName : "");
+            if (commandDispatcher.isRunning()) {
+                commandDispatcher.submit(resolved, world);
+                continue;
             }
-            if (resolved.isBlank()) continue;
-
             try {
-                handleCommandMethod.invoke(commandManagerObj, consoleSenderObj, resolved);
+                runConsoleCommand(resolved);
                 LOGGER.info("[CMD] Executed: {}", resolved);
             } catch (Exception e) {
                 LOGGER.warn("Command execution failed '{}': {}", resolved, e.getMessage());
@@ -295,63 +394,128 @@ public class RewardService {
         }
     }
 
+    private void runConsoleCommand(@Nonnull String command) throws Exception {
+        handleCommandMethod.invoke(commandManagerObj, consoleSenderObj, command);
+    }
+
     /**
-     * Give items to a player directly through Inventory API.
-     * Item format: "item_name:count" or "namespace:item_name:count".
+     * Give items to a player directly through Inventory API, batched against
+     * the hotbar-first container: every stack is capacity-checked first, then
+     * the ones that fit are added. Grants that do not fit, fail to add (the
+     * container API only probes one stack at a time, so stacks that each fit
+     * may not fit together), or cannot be given because the player is
+     * unavailable, are queued in the outbox.
      */
-    private void giveItems(@Nonnull UUID playerUuid, @Nonnull List<String> items) {
-        if (items.isEmpty()) return;
+    private void giveItems(@Nonnull RewardContext ctx, @Nonnull String source, @Nonnull List<ItemGrant> grants) {
+        if (grants.isEmpty()) return;
+        UUID playerUuid = ctx.getPlayerUuid();
+        ItemContainer container = resolveItemContainer(ctx, grants.size());
+        if (container == null) {
+            for (int i = 0; i < grants.size(); i++) {
+                defer(playerUuid, source, "item" + i, RewardOutbox.Kind.ITEM, grants.get(i).spec(), 0);
+            }
+            return;
+        }
+
+        // Pass 1: build and probe every stack before touching the inventory
+        ItemStack[] stacks = new ItemStack[grants.size()];
+        for (int i = 0; i < grants.size(); i++) {
+            stacks[i] = fittingStack(container, grants.get(i), playerUuid);
+        }
+
+        // Pass 2: add the stacks that fit
+        for (int i = 0; i < grants.size(); i++) {
+            ItemGrant grant = grants.get(i);
+            if (stacks[i] == null || !addStack(container, stacks[i], grant, playerUuid)) {
+                defer(playerUuid, source, "item" + i, RewardOutbox.Kind.ITEM, grant.spec(), 0);
+            }
+        }
+    }
+
+    /** Give one outbox item entry; false if it cannot be given yet. */
+    private boolean giveItem(@Nonnull RewardContext ctx, @Nonnull String spec) {
+        ItemGrant grant = ItemGrant.parse(spec);
+        if (grant == null) {
+            LOGGER.warn("[ITEM] Dropping invalid pending item {} for {}", spec, ctx.getPlayerUuid());
+            return true;
+        }
+        ItemContainer container = resolveItemContainer(ctx, 1);
+        return container != null && insertItem(container, grant, ctx.getPlayerUuid());
+    }
+
+    @Nullable
+    private ItemContainer resolveItemContainer(@Nonnull RewardContext ctx, int pending) {
+        UUID playerUuid = ctx.getPlayerUuid();
 
         // Get the Player entity from ECS store
-        Player player = getPlayerEntity();
+        Player player = ctx.getPlayer();
         if (player == null) {
-            LOGGER.warn("[ITEM] Player entity not available — {} item(s) skipped for {}", items.size(), playerUuid);
-            return;
+            LOGGER.warn("[ITEM] Player entity not available — {} item(s) deferred for {}", pending, playerUuid);
+            return null;
         }
 
         Inventory inventory = player.getInventory();
         if (inventory == null) {
-            LOGGER.warn("[ITEM] Player inventory is null — {} item(s) skipped for {}", items.size(), playerUuid);
-            return;
+            LOGGER.warn("[ITEM] Player inventory is null — {} item(s) deferred for {}", pending, playerUuid);
+            return null;
         }
 
         ItemContainer container = inventory.getCombinedHotbarFirst();
         if (container == null) {
-            LOGGER.warn("[ITEM] CombinedHotbarFirst is null — {} item(s) skipped for {}", items.size(), playerUuid);
-            return;
+            LOGGER.warn("[ITEM] CombinedHotbarFirst is null — {} item(s) deferred for {}", pending, playerUuid);
         }
+        return container;
+    }
 
-        for (String itemEntry : items) {
-            String[] parts = itemEntry.split(":");
-            String itemId;
-            int count = 1;
-
-            if (parts.length >= 2) {
-                // Last part might be count
-                String lastPart = parts[parts.length - 1];
-                try {
-                    count = Integer.parseInt(lastPart);
-                    // Everything before the last part is the item ID
-                    itemId = itemEntry.substring(0, itemEntry.lastIndexOf(":" + lastPart));
-                } catch (NumberFormatException e) {
-                    // No count suffix — entire string is item ID
-                    itemId = itemEntry;
-                }
-            } else {
-                itemId = parts[0];
-            }
+    /** Insert one grant if it fits; false on overflow or error. */
+    private boolean insertItem(@Nonnull ItemContainer container, @Nonnull ItemGrant grant, @Nonnull UUID playerUuid) {
+        ItemStack stack = fittingStack(container, grant, playerUuid);
+        return stack != null && addStack(container, stack, grant, playerUuid);
+    }
 
-            try {
-                ItemStack stack = new ItemStack(itemId, count);
-                ItemStackTransaction tx = container.addItemStack(stack);
-                if (tx != null && tx.succeeded()) {
-                    LOGGER.info("[ITEM] Gave {} x{} to {}", itemId, count, playerUuid);
-                } else {
-                    LOGGER.warn("[ITEM] Failed to add {} x{} to inventory of {}", itemId, count, playerUuid);
-                }
-            } catch (Exception e) {
-                LOGGER.warn("[ITEM] Error giving {} x{} to {}: {}", itemId, count, playerUuid, e.getMessage(), e);
+    /** Stack for a grant if the container has room for it, else null. */
+    @Nullable
+    private ItemStack fittingStack(@Nonnull ItemContainer container, @Nonnull ItemGrant grant, @Nonnull UUID playerUuid) {
+        try {
+            ItemStack stack = new ItemStack(grant.itemId(), grant.count());
+            if (hasCapacity(container, stack)) return stack;
+            LOGGER.info("[ITEM] No room for {} x{} — deferred for {}", grant.itemId(), grant.count(), playerUuid);
+        } catch (Exception e) {
+            LOGGER.warn("[ITEM] Error preparing {} x{} for {}: {}",
+                    grant.itemId(), grant.count(), playerUuid, e.getMessage(), e);
+        }
+        return null;
+    }
+
+    /** Add a pre-checked stack; false on failure. */
+    private boolean addStack(@Nonnull ItemContainer container, @Nonnull ItemStack stack,
+                             @Nonnull ItemGrant grant, @Nonnull UUID playerUuid) {
+        try {
+            ItemStackTransaction tx = container.addItemStack(stack);
+            if (tx != null && tx.succeeded()) {
+                LOGGER.info("[ITEM] Gave {} x{} to {}", grant.itemId(), grant.count(), playerUuid);
+                return true;
             }
+            LOGGER.warn("[ITEM] Failed to add {} x{} to inventory of {}", grant.itemId(), grant.count(), playerUuid);
+        } catch (Exception e) {
+            LOGGER.warn("[ITEM] Error giving {} x{} to {}: {}",
+                    grant.itemId(), grant.count(), playerUuid, e.getMessage(), e);
+        }
+        return false;
+    }
+
+    /**
+     * Capacity pre-check. Servers without {@code canAddItemStack} skip it
+     * and rely on the add transaction alone.
+     */
+    private boolean hasCapacity(@Nonnull ItemContainer container, @Nonnull ItemStack stack) {
+        if (!capacityCheckSupported) return true;
+        try {
+            return container.canAddItemStack(stack);
+        } catch (NoSuchMethodError | UnsupportedOperationException e) {
+            capacityCheckSupported = false;
+            LOGGER.debug("[ITEM] canAddItemStack unavailable — capacity pre-check disabled.");
+            return true;
         }
     }
 
@@ -360,8 +524,8 @@ public class RewardService {
      * Tries PlayerRef.getUsername() first, then Player.getDisplayName(), fallback to UUID.
      */
     @Nonnull
-    private String resolvePlayerName(@Nonnull UUID playerUuid) {
-        Player player = getPlayerEntity();
+    private String resolvePlayerName(@Nonnull RewardContext ctx) {
+        Player player = ctx.getPlayer();
         if (player != null) {
             // Try PlayerRef.getUsername() for the raw username
             try {
@@ -381,38 +545,15 @@ public class RewardService {
                 }
             } catch (Exception ignored) {}
         }
-        return playerUuid.toString();
-    }
-
-    /**
-     * Get the Player entity from the ECS store using the registered Ref + Store context.
-     * This is the same pattern BetterBattlePass uses:
-     *   Player player = (Player) store.getComponent(ref, Player.getComponentType());
-     */
-    @Nullable
-    private Player getPlayerEntity() {
-        if (currentRef == null || currentStore == null) {
-            LOGGER.warn("[ECS] No player context registered — call registerPlayerContext first");
-            return null;
-        }
-        try {
-            ComponentType<EntityStore, Player> playerType = Player.getComponentType();
-            Player player = (Player) currentStore.getComponent(currentRef, playerType);
-            if (player == null) {
-                LOGGER.warn("[ECS] Player component is null for current ref");
-            }
-            return player;
-        } catch (Exception e) {
-            LOGGER.warn("[ECS] Failed to get Player entity: {}", e.getMessage(), e);
-            return null;
-        }
+        return ctx.getPlayerUuid().toString();
     }
 
     /**
      * Lazily initializes the command system.
      * Uses ConsoleSender.INSTANCE as the sender for handleCommand (discovered from BBP).
+     * Synchronized: claims in different worlds may issue commands concurrently.
      */
-    private boolean ensureCommandSystem() {
+    private synchronized boolean ensureCommandSystem() {
         if (commandSystemReady) return true;
         if (commandSystemFailed) return false;
 
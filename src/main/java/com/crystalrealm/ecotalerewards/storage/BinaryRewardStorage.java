@@ -0,0 +1,320 @@
+package com.crystalrealm.ecotalerewards.storage;
+
+import com.crystalrealm.ecotalerewards.model.PlayerRewardData;
+import com.crystalrealm.ecotalerewards.util.PluginLogger;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Binary storage for player reward data.
+ * Fixed-size records are packed into memory-mapped segment files:
+ * binary/segment-{NNNN}.dat
+ *
+ * <p>An in-memory UUID → slot index is rebuilt on startup by scanning the
+ * segments, so loads and saves are positioned reads and writes with no file
+ * open/close per player. Records are 128-byte aligned and never straddle a
+ * page; each carries a CRC32 so a torn write is detected instead of loaded.
+ * See {@link RewardRecordCodec} for the record layout.</p>
+ *
+ * <p>When the segments are empty and a {@code players/} directory from
+ * {@link JsonRewardStorage} exists, its files are imported once (and left in place).</p>
+ */
+public class BinaryRewardStorage extends CachedRewardStorage {
+
+    private static final PluginLogger LOGGER = PluginLogger.forEnclosingClass();
+
+    // ── Segment layout ──────────────────────────────────────
+    private static final int MAGIC = 0x45545253; // "ETRS"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 128;
+    private static final int RECORD_SIZE = RewardRecordCodec.RECORD_SIZE;
+    private static final int SLOTS_PER_SEGMENT = 4096;
+    private static final long SEGMENT_SIZE = HEADER_SIZE + (long) RECORD_SIZE * SLOTS_PER_SEGMENT;
+
+    private final Path segmentDir;
+    private final Path legacyPlayersDir;
+
+    private final List<MappedByteBuffer> segments = new CopyOnWriteArrayList<>();
+    private final Map<UUID, Integer> index = new ConcurrentHashMap<>();
+    private final Set<Integer> unsyncedSegments = ConcurrentHashMap.newKeySet();
+
+    /** Guards {@link #freeSlots} and {@link #nextSlot}. */
+    private final Object allocLock = new Object();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private int nextSlot;
+
+    /**
+     * False until every existing segment mapped cleanly. A segment that
+     * fails to open leaves the storage read-only, so no slot of an unmapped
+     * segment can be handed out over a live record.
+     */
+    private volatile boolean writable;
+
+    public BinaryRewardStorage(@Nonnull Path dataDirectory, boolean writeBehind, int flushIntervalSeconds) {
+        super(writeBehind, flushIntervalSeconds);
+        this.segmentDir = dataDirectory.resolve("binary");
+        this.legacyPlayersDir = dataDirectory.resolve("players");
+    }
+
+    // ═════════════════════════════════════════════════════════
+    //  BACKEND
+    // ═════════════════════════════════════════════════════════
+
+    @Override
+    protected void openBackend() throws IOException {
+        Files.createDirectories(segmentDir);
+
+        try {
+            for (int n = 0; Files.exists(segmentFile(n)); n++) {
+                segments.add(mapSegment(n, false));
+                scanSegment(n);
+            }
+        } catch (IOException e) {
+            LOGGER.error("Binary storage is read-only: segment {} could not be opened. Fix or move it aside and restart.",
+                    segmentFile(segments.size()).getFileName());
+            throw e;
+        } finally {
+            synchronized (allocLock) {
+                nextSlot = segments.size() * SLOTS_PER_SEGMENT;
+            }
+        }
+        writable = true;
+
+        if (index.isEmpty()) importJsonPlayers();
+
+        LOGGER.info("BinaryRewardStorage initialized at {} ({} players, {} segment(s)).",
+                segmentDir, index.size(), segments.size());
+    }
+
+    @Override
+    @Nullable
+    protected PlayerRewardData readRecord(@Nonnull UUID playerUuid) {
+        Integer slot = index.get(playerUuid);
+        if (slot == null) return null;
+
+        byte[] record = readSlot(slot);
+        if (!RewardRecordCodec.isValid(record) || !playerUuid.equals(RewardRecordCodec.uuidOf(record))) {
+            // The slot stays mapped to the player and is overwritten on the next save
+            quarantineRecord(slot, record);
+            return null;
+        }
+        return RewardRecordCodec.decode(playerUuid, record);
+    }
+
+    @Override
+    protected boolean writeRecord(@Nonnull PlayerRewardData data) {
+        if (!writable) {
+            LOGGER.error("Not saving {} — binary storage is read-only.", data.getPlayerUuid());
+            return false;
+        }
+        try {
+            Integer slot = index.get(data.getPlayerUuid());
+            if (slot == null) {
+                slot = allocateSlot();
+                Integer raced = index.putIfAbsent(data.getPlayerUuid(), slot);
+                if (raced != null) {
+                    releaseSlot(slot);
+                    slot = raced;
+                }
+            }
+            writeSlot(slot, RewardRecordCodec.encode(data));
+            return true;
+        } catch (Exception e) {
+            LOGGER.error("Failed to save player data for {}: {}", data.getPlayerUuid(), e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    protected void deleteRecord(@Nonnull UUID playerUuid) {
+        if (!writable) return;
+        Integer slot = index.remove(playerUuid);
+        if (slot == null) return;
+        writeSlot(slot, new byte[RECORD_SIZE]);
+        releaseSlot(slot);
+    }
+
+    @Override
+    public int getTrackedPlayerCount() {
+        return index.size();
+    }
+
+    @Override
+    @Nonnull
+    public Collection<UUID> getTrackedPlayerUuids() {
+        return Collections.unmodifiableSet(index.keySet());
+    }
+
+    @Override
+    protected void afterFlush(int written) {
+        syncSegments();
+    }
+
+    @Override
+    protected void closeBackend() {
+        syncSegments();
+        segments.clear();
+        index.clear();
+    }
+
+    // ═════════════════════════════════════════════════════════
+    //  SEGMENTS
+    // ═════════════════════════════════════════════════════════
+
+    private Path segmentFile(int number) {
+        return segmentDir.resolve(String.format("segment-%04d.dat", number));
+    }
+
+    /**
+     * Map a segment file. A new segment gets its header written and must not
+     * exist yet; an existing one must carry a matching header.
+     */
+    @Nonnull
+    private MappedByteBuffer mapSegment(int number, boolean create) throws IOException {
+        Path file = segmentFile(number);
+        try (FileChannel ch = create
+                ? FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer segment = ch.map(FileChannel.MapMode.READ_WRITE, 0, SEGMENT_SIZE);
+            if (create) {
+                segment.putInt(0, MAGIC);
+                segment.putInt(4, FORMAT_VERSION);
+                segment.putInt(8, RECORD_SIZE);
+                segment.putInt(12, SLOTS_PER_SEGMENT);
+                segment.force();
+            } else if (segment.getInt(0) != MAGIC || segment.getInt(4) != FORMAT_VERSION
+                    || segment.getInt(8) != RECORD_SIZE || segment.getInt(12) != SLOTS_PER_SEGMENT) {
+                throw new IOException("Unrecognized segment header in " + file.getFileName());
+            }
+            return segment;
+        }
+    }
+
+    /** Rebuild the index and free list from one segment. */
+    private void scanSegment(int number) {
+        int base = number * SLOTS_PER_SEGMENT;
+        for (int i = 0; i < SLOTS_PER_SEGMENT; i++) {
+            int slot = base + i;
+            byte[] record = readSlot(slot);
+            if (record[RewardRecordCodec.OFF_STATE] != RewardRecordCodec.STATE_USED) {
+                freeSlots.add(slot);
+                continue;
+            }
+            if (!RewardRecordCodec.isValid(record)) {
+                quarantineRecord(slot, record);
+                freeSlots.add(slot);
+                continue;
+            }
+            UUID uuid = RewardRecordCodec.uuidOf(record);
+            Integer existing = index.putIfAbsent(uuid, slot);
+            if (existing != null) {
+                LOGGER.warn("Duplicate record for {} in slot {} (keeping slot {}).", uuid, slot, existing);
+                writeSlot(slot, new byte[RECORD_SIZE]);
+                freeSlots.add(slot);
+            }
+        }
+    }
+
+    private int allocateSlot() throws IOException {
+        synchronized (allocLock) {
+            Integer free = freeSlots.pollFirst();
+            if (free != null) return free;
+
+            if (nextSlot % SLOTS_PER_SEGMENT == 0) {
+                int number = nextSlot / SLOTS_PER_SEGMENT;
+                if (number != segments.size()) {
+                    throw new IOException("Segment list out of step: expected " + segments.size() + ", next is " + number);
+                }
+                segments.add(mapSegment(number, true));
+                LOGGER.info("Created storage segment {}.", segmentFile(number).getFileName());
+            }
+            return nextSlot++;
+        }
+    }
+
+    private void releaseSlot(int slot) {
+        synchronized (allocLock) {
+            freeSlots.addFirst(slot);
+        }
+    }
+
+    @Nonnull
+    private byte[] readSlot(int slot) {
+        MappedByteBuffer segment = segments.get(slot / SLOTS_PER_SEGMENT);
+        byte[] record = new byte[RECORD_SIZE];
+        synchronized (segment) {
+            segment.get(slotOffset(slot), record);
+        }
+        return record;
+    }
+
+    private void writeSlot(int slot, @Nonnull byte[] record) {
+        int number = slot / SLOTS_PER_SEGMENT;
+        MappedByteBuffer segment = segments.get(number);
+        synchronized (segment) {
+            segment.put(slotOffset(slot), record);
+        }
+        unsyncedSegments.add(number);
+    }
+
+    private static int slotOffset(int slot) {
+        return HEADER_SIZE + (slot % SLOTS_PER_SEGMENT) * RECORD_SIZE;
+    }
+
+    /** Flush written pages of touched segments to disk. */
+    private void syncSegments() {
+        Iterator<Integer> it = unsyncedSegments.iterator();
+        while (it.hasNext()) {
+            int number = it.next();
+            it.remove();
+            if (number < segments.size()) {
+                MappedByteBuffer segment = segments.get(number);
+                synchronized (segment) {
+                    segment.force();
+                }
+            }
+        }
+    }
+
+    // ═════════════════════════════════════════════════════════
+    //  RECOVERY
+    // ═════════════════════════════════════════════════════════
+
+    /** Keep a copy of an unreadable record for manual recovery. */
+    private void quarantineRecord(int slot, @Nonnull byte[] record) {
+        Path target = segmentDir.resolve("slot-" + slot + ".corrupt-" + System.currentTimeMillis());
+        try {
+            Files.write(target, record);
+            LOGGER.error("Unreadable record in slot {} copied to {} — player starts fresh.", slot, target.getFileName());
+        } catch (IOException e) {
+            LOGGER.error("Failed to quarantine corrupt record in slot {}: {}", slot, e.getMessage());
+        }
+    }
+
+    // ═════════════════════════════════════════════════════════
+    //  JSON IMPORT
+    // ═════════════════════════════════════════════════════════
+
+    /** One-time import of players/{uuid}.json files into empty segments. */
+    private void importJsonPlayers() {
+        try {
+            int imported = JsonRewardStorage.importPlayers(legacyPlayersDir, this::writeRecord);
+            if (imported > 0) {
+                syncSegments();
+                LOGGER.info("Imported {} player(s) from {} into binary storage.", imported, legacyPlayersDir);
+            }
+        } catch (IOException e) {
+            LOGGER.error("Failed to import JSON player data: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,383 @@
+package com.crystalrealm.ecotalerewards.storage;
+
+import com.crystalrealm.ecotalerewards.model.PlayerRewardData;
+import com.crystalrealm.ecotalerewards.util.PluginLogger;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Base class for storages that keep online players in memory and persist
+ * them through a backend-specific record format.
+ *
+ * <p>Only records flagged dirty by {@link PlayerRewardData#markDirty()} are written.
+ * In write-behind mode a background writer drains the dirty queue every few
+ * seconds; repeated changes to the same player between flushes coalesce into
+ * a single write.</p>
+ *
+ * <p>All writes run on a dedicated single-threaded I/O executor, so
+ * {@link #savePlayer} and {@link #saveAll} never block the calling (world)
+ * thread.</p>
+ *
+ * <p>The cache is meant to hold online players only — they are evicted on
+ * disconnect. As a safety net, a periodic sweep also evicts offline records
+ * idle longer than the configured limit, and the least recently used ones
+ * when the cache grows past its maximum size.</p>
+ */
+public abstract class CachedRewardStorage implements RewardStorage {
+
+    private static final PluginLogger LOGGER = PluginLogger.forEnclosingClass();
+
+    protected final Map<UUID, PlayerRewardData> cache = new ConcurrentHashMap<>();
+
+    // ── Write-behind / I/O ──────────────────────────────────
+    private final boolean writeBehind;
+    private final int flushIntervalSeconds;
+    private final Queue<UUID> dirtyQueue = new ConcurrentLinkedQueue<>();
+    private ScheduledExecutorService ioExecutor;
+    private volatile long lastFlushMillis = -1;
+
+    // ── Cache bounds ────────────────────────────────────────
+    private int cacheMaxPlayers = 2000;
+    private long cacheIdleMillis = TimeUnit.MINUTES.toMillis(30);
+
+    protected CachedRewardStorage(boolean writeBehind, int flushIntervalSeconds) {
+        this.writeBehind = writeBehind;
+        this.flushIntervalSeconds = Math.max(1, flushIntervalSeconds);
+    }
+
+    /**
+     * Configure the cache safety net. Must be called before {@link #initialize()}.
+     */
+    public void setCachePolicy(int maxPlayers, int idleMinutes) {
+        this.cacheMaxPlayers = Math.max(1, maxPlayers);
+        this.cacheIdleMillis = TimeUnit.MINUTES.toMillis(Math.max(1, idleMinutes));
+    }
+
+    // ═════════════════════════════════════════════════════════
+    //  BACKEND
+    // ═════════════════════════════════════════════════════════
+
+    /** Prepare the backend (directories, files, indexes). Runs on the caller of {@link #initialize()}. */
+    protected abstract void openBackend() throws IOException;
+
+    /**
+     * Read a stored record, or return null if the player has none
+     * (or it was unreadable and has been set aside).
+     */
+    @Nullable
+    protected abstract PlayerRewardData readRecord(@Nonnull UUID playerUuid);
+
+    /** Persist a record. Called on the I/O executor (or inline once it has stopped). */
+    protected abstract boolean writeRecord(@Nonnull PlayerRewardData data);
+
+    /** Remove a player's stored record. */
+    protected abstract void deleteRecord(@Nonnull UUID playerUuid);
+
+    /** Called after each flush pass or single save that wrote at least one record. */
+    protected void afterFlush(int written) {}
+
+    /** Release backend resources. Runs after the final flush. */
+    protected void closeBackend() {}
+
+    // ═════════════════════════════════════════════════════════
+    //  LIFECYCLE
+    // ═════════════════════════════════════════════════════════
+
+    @Override
+    public void initialize() {
+        try {
+            openBackend();
+        } catch (IOException e) {
+            LOGGER.error("Failed to open {}: {}", getClass().getSimpleName(), e.getMessage());
+        }
+
+        ioExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "EcoTaleRewards-StorageIO");
+            t.setDaemon(true);
+            return t;
+        });
+
+        if (writeBehind) {
+            ioExecutor.scheduleWithFixedDelay(() -> {
+                try {
+                    int written = flushDirty();
+                    if (written > 0) {
+                        LOGGER.debug("Write-behind flushed {} record(s) in {} ms", written, lastFlushMillis);
+                    }
+                } catch (Exception e) {
+                    LOGGER.error("Write-behind flush failed: {}", e.getMessage());
+                }
+            }, flushIntervalSeconds, flushIntervalSeconds, TimeUnit.SECONDS);
+            LOGGER.info("Write-behind enabled (flush every {}s).", flushIntervalSeconds);
+        }
+
+        ioExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                sweepCache();
+            } catch (Exception e) {
+                LOGGER.error("Cache sweep failed: {}", e.getMessage());
+            }
+        }, 1, 1, TimeUnit.MINUTES);
+    }
+
+    @Override
+    public void shutdown() {
+        if (ioExecutor != null) {
+            ioExecutor.shutdown();
+            try {
+                if (!ioExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
+                    LOGGER.warn("Storage I/O executor did not finish pending writes in time.");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // Executor is gone — final flush runs on the caller
+        int count = flushDirty();
+        LOGGER.info("Saved {} changed player reward record(s) in {} ms.", count, lastFlushMillis);
+        cache.clear();
+        closeBackend();
+        LOGGER.info("{} shut down.", getClass().getSimpleName());
+    }
+
+    // ═════════════════════════════════════════════════════════
+    //  RewardStorage
+    // ═════════════════════════════════════════════════════════
+
+    @Override
+    @Nonnull
+    public PlayerRewardData loadOrCreate(@Nonnull UUID playerUuid) {
+        PlayerRewardData cached = cache.get(playerUuid);
+        if (cached != null) {
+            cached.touch();
+            return cached;
+        }
+
+        PlayerRewardData data = readRecord(playerUuid);
+        if (data == null) data = new PlayerRewardData(playerUuid);
+
+        // Values applied while loading are already persisted
+        data.markClean();
+        data.setDirtyListener(this::onDirty);
+
+        PlayerRewardData existing = cache.putIfAbsent(playerUuid, data);
+        return existing != null ? existing : data;
+    }
+
+    /**
+     * Runs the load on the I/O executor, so it is ordered after any pending
+     * write of the same player (e.g. an eviction from a previous session).
+     */
+    @Override
+    @Nonnull
+    public CompletableFuture<PlayerRewardData> loadAsync(@Nonnull UUID playerUuid) {
+        PlayerRewardData cached = getCached(playerUuid);
+        if (cached != null) return CompletableFuture.completedFuture(cached);
+
+        CompletableFuture<PlayerRewardData> future = new CompletableFuture<>();
+        submitIo(() -> {
+            try {
+                future.complete(loadOrCreate(playerUuid));
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    @Override
+    @Nullable
+    public PlayerRewardData getCached(@Nonnull UUID playerUuid) {
+        PlayerRewardData data = cache.get(playerUuid);
+        if (data != null) data.touch();
+        return data;
+    }
+
+    @Override
+    public void savePlayer(@Nonnull UUID playerUuid) {
+        // Write-behind: the record is already queued by its dirty listener
+        if (writeBehind) return;
+
+        PlayerRewardData data = cache.get(playerUuid);
+        if (data == null || !data.isDirty()) return;
+        submitIo(() -> {
+            if (!data.markClean()) return;
+            if (writeRecord(data)) {
+                afterFlush(1);
+            } else {
+                data.markDirty();
+            }
+        });
+    }
+
+    @Override
+    public void saveAll() {
+        submitIo(() -> {
+            int count = flushDirty();
+            LOGGER.info("Saved {} changed player reward record(s) in {} ms.", count, lastFlushMillis);
+        });
+    }
+
+    @Override
+    public void evict(@Nonnull UUID playerUuid) {
+        PlayerRewardData data = cache.get(playerUuid);
+        if (data == null) return;
+        submitIo(() -> evictNow(data));
+    }
+
+    @Override
+    @Nonnull
+    public Collection<UUID> getCachedPlayerUuids() {
+        return Collections.unmodifiableSet(cache.keySet());
+    }
+
+    @Override
+    public void deletePlayer(@Nonnull UUID playerUuid) {
+        PlayerRewardData removed = cache.remove(playerUuid);
+        if (removed != null) removed.setDirtyListener(null);
+        deleteRecord(playerUuid);
+    }
+
+    @Override
+    public int getPendingWriteCount() {
+        return dirtyQueue.size();
+    }
+
+    @Override
+    public long getLastFlushMillis() {
+        return lastFlushMillis;
+    }
+
+    // ═════════════════════════════════════════════════════════
+    //  WRITE-BEHIND
+    // ═════════════════════════════════════════════════════════
+
+    /**
+     * Run a storage task on the I/O executor, or inline if it is not running
+     * (before {@link #initialize()} or after {@link #shutdown()}).
+     */
+    @Override
+    public void submitIo(@Nonnull Runnable task) {
+        ScheduledExecutorService exec = ioExecutor;
+        if (exec != null && !exec.isShutdown()) {
+            try {
+                exec.execute(() -> {
+                    try {
+                        task.run();
+                    } catch (Exception e) {
+                        LOGGER.error("Storage I/O task failed: {}", e.getMessage());
+                    }
+                });
+                return;
+            } catch (RejectedExecutionException ignored) {
+                // shutting down — fall through
+            }
+        }
+        task.run();
+    }
+
+    private void onDirty(@Nonnull PlayerRewardData data) {
+        dirtyQueue.offer(data.getPlayerUuid());
+    }
+
+    /**
+     * Write every queued dirty record once. Failed writes are re-flagged
+     * after the pass so they are retried on the next flush.
+     *
+     * @return number of records written
+     */
+    private int flushDirty() {
+        long start = System.nanoTime();
+        int written = 0;
+        List<PlayerRewardData> failed = null;
+
+        UUID uuid;
+        while ((uuid = dirtyQueue.poll()) != null) {
+            PlayerRewardData data = cache.get(uuid);
+            if (data == null || !data.markClean()) continue;
+            if (writeRecord(data)) {
+                written++;
+            } else {
+                if (failed == null) failed = new ArrayList<>();
+                failed.add(data);
+            }
+        }
+
+        if (failed != null) {
+            for (PlayerRewardData data : failed) data.markDirty();
+        }
+        if (written > 0) afterFlush(written);
+        lastFlushMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        return written;
+    }
+
+    // ═════════════════════════════════════════════════════════
+    //  CACHE BOUNDS
+    // ═════════════════════════════════════════════════════════
+
+    /**
+     * Evict offline records that have been idle too long, then trim the least
+     * recently used offline records while the cache is over its size limit.
+     * Runs on the I/O executor, so evicted dirty records are written inline.
+     */
+    private void sweepCache() {
+        long now = System.currentTimeMillis();
+        int evicted = 0;
+        List<PlayerRewardData> offline = new ArrayList<>();
+
+        for (PlayerRewardData data : cache.values()) {
+            if (data.hasActiveSession()) continue;
+            if (now - data.getLastAccessTime() >= cacheIdleMillis) {
+                if (evictNow(data)) evicted++;
+            } else {
+                offline.add(data);
+            }
+        }
+
+        int excess = cache.size() - cacheMaxPlayers;
+        if (excess > 0 && !offline.isEmpty()) {
+            offline.sort(Comparator.comparingLong(PlayerRewardData::getLastAccessTime));
+            for (int i = 0; i < offline.size() && excess > 0; i++) {
+                if (evictNow(offline.get(i))) {
+                    evicted++;
+                    excess--;
+                }
+            }
+        }
+
+        if (evicted > 0) {
+            LOGGER.debug("Cache sweep evicted {} record(s), {} remain.", evicted, cache.size());
+        }
+    }
+
+    /**
+     * Session check, final write and removal run atomically on the cache
+     * entry, and the record is written before it leaves the cache, so a
+     * concurrent load never reads a stale file. A login that opened its
+     * session after the check finds its record gone and reloads it.
+     */
+    private boolean evictNow(@Nonnull PlayerRewardData data) {
+        boolean[] evicted = new boolean[1];
+        cache.computeIfPresent(data.getPlayerUuid(), (uuid, current) -> {
+            // The player may have reconnected since the eviction was scheduled
+            if (current != data || data.hasActiveSession()) return current;
+            if (data.markClean() && !writeRecord(data)) {
+                LOGGER.warn("Evicted {} with unsaved changes.", uuid);
+            }
+            data.setDirtyListener(null);
+            evicted[0] = true;
+            return null;
+        });
+        return evicted[0];
+    }
+}
@@ -0,0 +1,45 @@
+package com.crystalrealm.ecotalerewards.storage;
+
+import com.crystalrealm.ecotalerewards.model.PlayerRewardData;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Hook for journaling calendar state transitions as they happen.
+ * Each call records the post-transition values, so replaying an entry twice is harmless.
+ * Implementations: {@link JournaledRewardStorage}; {@link #NONE} for other storages.
+ */
+public interface ClaimJournal {
+
+    /** No-op journal used when the storage does not keep a log. */
+    ClaimJournal NONE = new ClaimJournal() {
+        @Override public void recordClaim(@Nonnull PlayerRewardData data, int day) {}
+        @Override public void recordLogin(@Nonnull PlayerRewardData data) {}
+        @Override public void recordStreak(@Nonnull PlayerRewardData data) {}
+        @Override public void recordReturnClaimed(@Nonnull PlayerRewardData data) {}
+        @Override public void recordRollback(@Nonnull PlayerRewardData data) {}
+        @Override public boolean awaitDurable() { return true; }
+    };
+
+    /** A calendar day was claimed. */
+    void recordClaim(@Nonnull PlayerRewardData data, int day);
+
+    /** Login processed — current day and last login date updated, calendar possibly reset. */
+    void recordLogin(@Nonnull PlayerRewardData data);
+
+    /** Streak changed (e.g. broken after an absence). */
+    void recordStreak(@Nonnull PlayerRewardData data);
+
+    /** The pending return reward was claimed. */
+    void recordReturnClaimed(@Nonnull PlayerRewardData data);
+
+    /** A claim was rolled back after a failed payout — records the whole restored record. */
+    void recordRollback(@Nonnull PlayerRewardData data);
+
+    /**
+     * Block until every transition recorded so far is on disk.
+     *
+     * @return false if that did not happen in time (write failure or shutdown)
+     */
+    boolean awaitDurable();
+}
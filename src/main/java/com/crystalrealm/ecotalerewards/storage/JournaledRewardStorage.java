@@ -0,0 +1,562 @@
+package com.crystalrealm.ecotalerewards.storage;
+
+import com.crystalrealm.ecotalerewards.model.PlayerRewardData;
+import com.crystalrealm.ecotalerewards.util.PluginLogger;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Journaled storage for player reward data:
+ * journal/snapshot.dat + journal/journal-{generation}.log
+ *
+ * <p>Every change is appended to a sequential log instead of rewriting a
+ * player document. Calendar transitions ({@link ClaimJournal}) append small
+ * delta entries the moment they happen; write-behind flushes append the full
+ * {@link RewardRecordCodec} record. A dedicated writer thread drains all
+ * queued entries, writes them in one go and fsyncs once per batch (group commit).
+ * A claim waits in {@link #awaitDurable()} for the batch holding its
+ * reservation before it pays out, so a crash never loses a paid claim.</p>
+ *
+ * <p>The writer periodically rotates to a new log generation and folds the
+ * current state into {@code snapshot.dat}, then deletes the sealed logs.
+ * On {@link #initialize()} the snapshot is loaded and newer logs are replayed;
+ * a torn entry at the tail of a log ends its replay, so after a failed write
+ * the log is rotated before anything else is appended to it. Entries carry
+ * absolute values, so replaying one already covered by the snapshot is harmless.</p>
+ */
+public class JournaledRewardStorage extends CachedRewardStorage implements ClaimJournal {
+
+    private static final PluginLogger LOGGER = PluginLogger.forEnclosingClass();
+
+    // ── File format ─────────────────────────────────────────
+    private static final int SNAPSHOT_MAGIC = 0x4554534E; // "ETSN"
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final int SNAPSHOT_HEADER = 20;       // magic, version, generation, count
+    private static final long COMPACT_BYTES = 16L * 1024 * 1024;
+    private static final long SYNC_TIMEOUT_MILLIS = 5000;
+
+    // ── Entry types ─────────────────────────────────────────
+    private static final byte OP_FULL = 1;
+    private static final byte OP_CLAIM = 2;
+    private static final byte OP_LOGIN = 3;
+    private static final byte OP_STREAK = 4;
+    private static final byte OP_RETURN_CLAIMED = 5;
+    private static final byte OP_DELETE = 6;
+
+    /** Entry framing: payload length, op, uuid — then payload and CRC32 of op..payload. */
+    private static final int ENTRY_HEADER = 4 + 1 + 16;
+
+    private final Path journalDir;
+    private final Path legacyPlayersDir;
+    private final long compactIntervalMillis;
+
+    /** Latest record per player: snapshot plus every appended entry. Values are never mutated in place. */
+    private final Map<UUID, byte[]> state = new ConcurrentHashMap<>();
+
+    /** A framed entry and its position in the append order. */
+    private record Entry(long seq, ByteBuffer frame) {}
+
+    private final Object appendLock = new Object();
+    private final BlockingQueue<Entry> pending = new LinkedBlockingQueue<>();
+    /** Sequence of the last appended entry; bumped after it is applied to the state. */
+    private volatile long appendedSeq;
+    /** Sequence up to which entries are on disk (log fsync or snapshot). Guarded by itself. */
+    private final Object durableLock = new Object();
+    private long durableSeq;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    // ── Writer-thread state ─────────────────────────────────
+    private FileChannel journal;
+    private long generation;
+    private long journalBytes;
+    private long lastCompactMillis;
+    private boolean compactRequested;
+
+    public JournaledRewardStorage(@Nonnull Path dataDirectory, boolean writeBehind,
+                                  int flushIntervalSeconds, int compactMinutes) {
+        super(writeBehind, flushIntervalSeconds);
+        this.journalDir = dataDirectory.resolve("journal");
+        this.legacyPlayersDir = dataDirectory.resolve("players");
+        this.compactIntervalMillis = TimeUnit.MINUTES.toMillis(Math.max(1, compactMinutes));
+    }
+
+    // ═════════════════════════════════════════════════════════
+    //  BACKEND
+    // ═════════════════════════════════════════════════════════
+
+    @Override
+    protected void openBackend() throws IOException {
+        Files.createDirectories(journalDir);
+
+        long snapshotGeneration = loadSnapshot();
+        long lastGeneration = snapshotGeneration;
+        int replayed = 0;
+
+        for (long gen : listJournalGenerations()) {
+            if (gen <= snapshotGeneration) {
+                // Left behind by a crash between snapshot rename and log cleanup
+                Files.deleteIfExists(journalFile(gen));
+                continue;
+            }
+            replayed += replay(gen);
+            lastGeneration = gen;
+        }
+
+        boolean fresh = state.isEmpty() && snapshotGeneration < 0 && lastGeneration < 0;
+        if (fresh) {
+            JsonRewardStorage.importPlayers(legacyPlayersDir,
+                    data -> state.put(data.getPlayerUuid(), RewardRecordCodec.encode(data)));
+        }
+
+        // Fold whatever was replayed into a fresh snapshot before accepting new entries
+        generation = Math.max(lastGeneration, 0) + 1;
+        if (lastGeneration > snapshotGeneration || (fresh && !state.isEmpty())) {
+            writeSnapshot(generation - 1);
+            deleteJournalsUpTo(generation - 1);
+        }
+        journal = openJournal(generation);
+        lastCompactMillis = System.currentTimeMillis();
+
+        running = true;
+        writerThread = new Thread(this::writerLoop, "EcoTaleRewards-Journal");
+        writerThread.setDaemon(true);
+        writerThread.start();
+
+        LOGGER.info("JournaledRewardStorage initialized at {} ({} players, {} entries replayed).",
+                journalDir, state.size(), replayed);
+    }
+
+    @Override
+    @Nullable
+    protected PlayerRewardData readRecord(@Nonnull UUID playerUuid) {
+        byte[] record = state.get(playerUuid);
+        return record != null ? RewardRecordCodec.decode(playerUuid, record) : null;
+    }
+
+    @Override
+    protected boolean writeRecord(@Nonnull PlayerRewardData data) {
+        // Encode under the append lock so a delta recorded meanwhile is ordered after this record
+        synchronized (appendLock) {
+            append(OP_FULL, data.getPlayerUuid(), RewardRecordCodec.encode(data));
+        }
+        return true;
+    }
+
+    @Override
+    protected void deleteRecord(@Nonnull UUID playerUuid) {
+        append(OP_DELETE, playerUuid, new byte[0]);
+    }
+
+    @Override
+    public int getTrackedPlayerCount() {
+        return state.size();
+    }
+
+    @Override
+    @Nonnull
+    public Collection<UUID> getTrackedPlayerUuids() {
+        return Collections.unmodifiableSet(state.keySet());
+    }
+
+    @Override
+    public int getPendingWriteCount() {
+        return super.getPendingWriteCount() + pending.size();
+    }
+
+    @Override
+    protected void closeBackend() {
+        running = false;
+        if (writerThread != null) {
+            try {
+                writerThread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (writerThread.isAlive()) {
+                LOGGER.warn("Journal writer did not stop in time — state is kept in the snapshot.");
+            }
+        }
+        if (journal == null) return;
+        // Writer has stopped — a final snapshot makes the next startup replay-free
+        try {
+            compact();
+            journal.close();
+        } catch (IOException e) {
+            LOGGER.error("Final journal compaction failed: {}", e.getMessage());
+        }
+        state.clear();
+    }
+
+    // ═════════════════════════════════════════════════════════
+    //  ClaimJournal
+    // ═════════════════════════════════════════════════════════
+
+    @Override
+    public void recordClaim(@Nonnull PlayerRewardData data, int day) {
+        ByteBuffer p = ByteBuffer.allocate(12);
+        p.putInt(day);
+        p.putInt(data.getLastClaimEpochDay());
+        p.putInt(data.getTotalClaimed());
+        append(OP_CLAIM, data.getPlayerUuid(), p.array());
+    }
+
+    @Override
+    public void recordLogin(@Nonnull PlayerRewardData data) {
+        ByteBuffer p = ByteBuffer.allocate(9);
+        p.putInt(data.getCurrentDay());
+        p.putInt(data.getLastLoginEpochDay());
+        // After a login the claimed set is either unchanged or was cleared by a reset
+        p.put((byte) (data.hasClaimedDays() ? 0 : 1));
+        append(OP_LOGIN, data.getPlayerUuid(), p.array());
+    }
+
+    @Override
+    public void recordStreak(@Nonnull PlayerRewardData data) {
+        ByteBuffer p = ByteBuffer.allocate(8);
+        p.putInt(data.getStreak());
+        p.putInt(data.getLongestStreak());
+        append(OP_STREAK, data.getPlayerUuid(), p.array());
+    }
+
+    @Override
+    public void recordReturnClaimed(@Nonnull PlayerRewardData data) {
+        append(OP_RETURN_CLAIMED, data.getPlayerUuid(), new byte[0]);
+    }
+
+    @Override
+    public void recordRollback(@Nonnull PlayerRewardData data) {
+        append(OP_FULL, data.getPlayerUuid(), RewardRecordCodec.encode(data));
+    }
+
+    @Override
+    public boolean awaitDurable() {
+        long target = appendedSeq;
+        long deadline = System.currentTimeMillis() + SYNC_TIMEOUT_MILLIS;
+        synchronized (durableLock) {
+            while (durableSeq < target) {
+                long wait = deadline - System.currentTimeMillis();
+                if (wait <= 0 || !running) return false;
+                try {
+                    durableLock.wait(wait);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    // ═════════════════════════════════════════════════════════
+    //  APPEND / APPLY
+    // ═════════════════════════════════════════════════════════
+
+    /**
+     * Apply an entry to the in-memory state and queue it for the writer.
+     * Both happen under one lock so the log order matches the state order.
+     */
+    private void append(byte op, @Nonnull UUID uuid, @Nonnull byte[] payload) {
+        synchronized (appendLock) {
+            apply(op, uuid, payload);
+            long seq = appendedSeq + 1;
+            appendedSeq = seq;
+            pending.offer(new Entry(seq, frame(op, uuid, payload)));
+        }
+    }
+
+    /**
+     * @return false if the op is unknown (treated as corruption during replay)
+     */
+    private boolean apply(byte op, @Nonnull UUID uuid, @Nonnull byte[] payload) {
+        switch (op) {
+            case OP_FULL -> state.put(uuid, payload);
+            case OP_DELETE -> state.remove(uuid);
+            case OP_CLAIM, OP_LOGIN, OP_STREAK, OP_RETURN_CLAIMED -> state.compute(uuid, (id, old) -> {
+                byte[] record = old != null ? old.clone() : RewardRecordCodec.blank(id);
+                applyDelta(op, ByteBuffer.wrap(record), ByteBuffer.wrap(payload));
+                RewardRecordCodec.seal(record);
+                return record;
+            });
+            default -> { return false; }
+        }
+        return true;
+    }
+
+    private static void applyDelta(byte op, @Nonnull ByteBuffer record, @Nonnull ByteBuffer p) {
+        switch (op) {
+            case OP_CLAIM -> {
+                RewardRecordCodec.setClaimedBit(record, p.getInt());
+                record.putInt(RewardRecordCodec.OFF_LAST_CLAIM, p.getInt());
+                record.putInt(RewardRecordCodec.OFF_TOTAL_CLAIMED, p.getInt());
+            }
+            case OP_LOGIN -> {
+                record.putInt(RewardRecordCodec.OFF_CURRENT_DAY, p.getInt());
+                record.putInt(RewardRecordCodec.OFF_LAST_LOGIN, p.getInt());
+                if (p.get() != 0) RewardRecordCodec.clearClaimedBits(record);
+            }
+            case OP_STREAK -> {
+                record.putInt(RewardRecordCodec.OFF_STREAK, p.getInt());
+                record.putInt(RewardRecordCodec.OFF_LONGEST_STREAK, p.getInt());
+            }
+            case OP_RETURN_CLAIMED -> {
+                byte flags = record.get(RewardRecordCodec.OFF_FLAGS);
+                record.put(RewardRecordCodec.OFF_FLAGS, (byte) (flags & ~RewardRecordCodec.FLAG_PENDING_RETURN));
+                record.putInt(RewardRecordCodec.OFF_ABSENCE_DAYS, 0);
+            }
+            default -> { }
+        }
+    }
+
+    @Nonnull
+    private static ByteBuffer frame(byte op, @Nonnull UUID uuid, @Nonnull byte[] payload) {
+        ByteBuffer entry = ByteBuffer.allocate(ENTRY_HEADER + payload.length + 4);
+        entry.putInt(payload.length);
+        entry.put(op);
+        entry.putLong(uuid.getMostSignificantBits());
+        entry.putLong(uuid.getLeastSignificantBits());
+        entry.put(payload);
+        CRC32 crc = new CRC32();
+        crc.update(entry.array(), 4, entry.position() - 4);
+        entry.putInt((int) crc.getValue());
+        entry.flip();
+        return entry;
+    }
+
+    // ═════════════════════════════════════════════════════════
+    //  WRITER / COMPACTOR
+    // ═════════════════════════════════════════════════════════
+
+    private void writerLoop() {
+        List<Entry> batch = new ArrayList<>();
+        // After a failed write with the disk still broken, stop at shutdown and leave it to closeBackend()
+        while (running || (!pending.isEmpty() && !compactRequested)) {
+            try {
+                if (compactRequested) {
+                    // A failed write may have left a torn entry at the log tail that would
+                    // hide everything appended after it from replay — rotate first
+                    compact();
+                }
+                Entry first = pending.poll(1, TimeUnit.SECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    pending.drainTo(batch);
+                    commit(batch);
+                }
+                if (journalBytes >= COMPACT_BYTES
+                        || (journalBytes > 0 && System.currentTimeMillis() - lastCompactMillis >= compactIntervalMillis)) {
+                    compact();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // The entries are already in memory — the next snapshot persists them
+                LOGGER.error("Journal write failed ({} entries): {}", batch.size(), e.getMessage());
+                compactRequested = true;
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /** Write a batch with one gathering write and a single fsync. */
+    private void commit(@Nonnull List<Entry> batch) throws IOException {
+        ByteBuffer[] buffers = new ByteBuffer[batch.size()];
+        for (int i = 0; i < buffers.length; i++) buffers[i] = batch.get(i).frame();
+        long written = 0;
+        while (buffers[buffers.length - 1].hasRemaining()) {
+            written += journal.write(buffers);
+        }
+        journal.force(false);
+        journalBytes += written;
+        markDurable(batch.get(batch.size() - 1).seq());
+    }
+
+    private void markDurable(long seq) {
+        synchronized (durableLock) {
+            if (seq > durableSeq) durableSeq = seq;
+            durableLock.notifyAll();
+        }
+    }
+
+    /**
+     * Seal the current log, start the next generation, write a snapshot of
+     * the state and drop the sealed logs.
+     */
+    private void compact() throws IOException {
+        long sealed = generation;
+        // Every entry up to here is already applied to the state the snapshot copies
+        long covered = appendedSeq;
+        journal.close();
+        generation++;
+        journal = openJournal(generation);
+        journalBytes = 0;
+
+        writeSnapshot(sealed);
+        markDurable(covered);
+        deleteJournalsUpTo(sealed);
+        lastCompactMillis = System.currentTimeMillis();
+        compactRequested = false;
+        LOGGER.debug("Journal compacted into snapshot ({} players, generation {}).", state.size(), sealed);
+    }
+
+    // ═════════════════════════════════════════════════════════
+    //  FILES
+    // ═════════════════════════════════════════════════════════
+
+    private Path journalFile(long gen) {
+        return journalDir.resolve(String.format("journal-%010d.log", gen));
+    }
+
+    @Nonnull
+    private FileChannel openJournal(long gen) throws IOException {
+        return FileChannel.open(journalFile(gen), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    @Nonnull
+    private List<Long> listJournalGenerations() throws IOException {
+        List<Long> gens = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(journalDir, "journal-*.log")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    gens.add(Long.parseLong(name.substring("journal-".length(), name.length() - ".log".length())));
+                } catch (NumberFormatException ignored) {
+                    LOGGER.warn("Ignoring unexpected journal file {}", name);
+                }
+            }
+        }
+        Collections.sort(gens);
+        return gens;
+    }
+
+    private void deleteJournalsUpTo(long gen) throws IOException {
+        for (long g : listJournalGenerations()) {
+            if (g <= gen) Files.deleteIfExists(journalFile(g));
+        }
+    }
+
+    /**
+     * Replay one log into the state.
+     *
+     * @return number of entries applied
+     */
+    private int replay(long gen) throws IOException {
+        Path file = journalFile(gen);
+        ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(file));
+        int applied = 0;
+
+        while (buf.remaining() >= ENTRY_HEADER + 4) {
+            int start = buf.position();
+            int length = buf.getInt();
+            if (length < 0 || length > buf.remaining() - 1 - 16 - 4) {
+                buf.position(start);
+                break;
+            }
+            byte op = buf.get();
+            UUID uuid = new UUID(buf.getLong(), buf.getLong());
+            byte[] payload = new byte[length];
+            buf.get(payload);
+
+            CRC32 crc = new CRC32();
+            crc.update(buf.array(), start + 4, 1 + 16 + length);
+            if (buf.getInt() != (int) crc.getValue() || !apply(op, uuid, payload)) {
+                buf.position(start);
+                break;
+            }
+            applied++;
+        }
+
+        if (buf.hasRemaining()) {
+            LOGGER.warn("Journal {} has {} unreadable trailing byte(s) — replay stopped there.",
+                    file.getFileName(), buf.remaining());
+        }
+        return applied;
+    }
+
+    /**
+     * Load snapshot.dat into the state.
+     *
+     * @return the last log generation it covers, or -1 if there is none
+     */
+    private long loadSnapshot() throws IOException {
+        Path file = journalDir.resolve("snapshot.dat");
+        if (!Files.exists(file)) return -1;
+
+        ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (buf.remaining() < SNAPSHOT_HEADER || buf.getInt() != SNAPSHOT_MAGIC || buf.getInt() != SNAPSHOT_VERSION) {
+            // Keep it for manual recovery and rebuild from whatever logs remain
+            Path target = file.resolveSibling("snapshot.dat.corrupt-" + System.currentTimeMillis());
+            Files.move(file, target, StandardCopyOption.REPLACE_EXISTING);
+            LOGGER.error("Unreadable snapshot moved to {} — replaying remaining journal files only.", target.getFileName());
+            return -1;
+        }
+        long gen = buf.getLong();
+        int count = buf.getInt();
+
+        int skipped = 0;
+        byte[] record = new byte[RewardRecordCodec.RECORD_SIZE];
+        for (int i = 0; i < count && buf.remaining() >= record.length; i++) {
+            buf.get(record);
+            if (RewardRecordCodec.isValid(record)) {
+                state.put(RewardRecordCodec.uuidOf(record), record.clone());
+            } else {
+                skipped++;
+            }
+        }
+        if (skipped > 0) LOGGER.warn("Skipped {} unreadable record(s) in snapshot.", skipped);
+        return gen;
+    }
+
+    /** Write the state to snapshot.tmp, fsync and atomically rename it over snapshot.dat. */
+    private void writeSnapshot(long coveredGeneration) throws IOException {
+        List<byte[]> records = new ArrayList<>(state.values());
+        ByteBuffer header = ByteBuffer.allocate(SNAPSHOT_HEADER);
+        header.putInt(SNAPSHOT_MAGIC);
+        header.putInt(SNAPSHOT_VERSION);
+        header.putLong(coveredGeneration);
+        header.putInt(records.size());
+        header.flip();
+
+        Path file = journalDir.resolve("snapshot.dat");
+        Path tmp = journalDir.resolve("snapshot.tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (header.hasRemaining()) ch.write(header);
+            for (byte[] record : records) {
+                ByteBuffer buf = ByteBuffer.wrap(record);
+                while (buf.hasRemaining()) ch.write(buf);
+            }
+            ch.force(true);
+        }
+        try {
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
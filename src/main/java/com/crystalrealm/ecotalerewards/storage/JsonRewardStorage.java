@@ -1,132 +1,303 @@
 package com.crystalrealm.ecotalerewards.storage;
 
-import com.google.gson.*;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 import com.crystalrealm.ecotalerewards.model.PlayerRewardData;
 import com.crystalrealm.ecotalerewards.util.PluginLogger;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
-import java.time.LocalDate;
-import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * JSON-file based storage for player reward data.
- * Each player gets their own file: players/{uuid}.json
+ * Each player gets their own file, sharded by the first four hex digits of
+ * the UUID: players/{ab}/{cd}/{uuid}.json
+ *
+ * <p>Files from the old flat layout (players/{uuid}.json) are moved into
+ * their shard on first access. An optional background migrator moves the
+ * rest with bounded parallelism.</p>
+ *
+ * <p>Records are (de)serialized by the streaming {@link PlayerRewardDataAdapter}.
+ * Files are written to a temp file, fsynced and atomically renamed,
+ * so a crash mid-write leaves the previous version intact. Caching,
+ * write-behind and eviction are handled by {@link CachedRewardStorage}.</p>
+ *
+ * <p>A {@link PlayerIndex} (players.idx) tracks which players have a file,
+ * so counting and enumerating players never lists the directory.</p>
  */
-public class JsonRewardStorage implements RewardStorage {
+public class JsonRewardStorage extends CachedRewardStorage {
 
     private static final PluginLogger LOGGER = PluginLogger.forEnclosingClass();
-    private static final Gson GSON = new GsonBuilder()
-            .setPrettyPrinting()
-            .disableHtmlEscaping()
-            .create();
 
-    private final Path dataDirectory;
     private final Path playersDir;
-    private final Map<UUID, PlayerRewardData> cache = new ConcurrentHashMap<>();
+    private final PlayerIndex playerIndex;
+    private volatile boolean prettyPrint;
+
+    // ── Flat → sharded migration ────────────────────────────
+    private int migrationThreads;
+    private volatile boolean legacyLayoutPresent;
+    private volatile boolean closing;
+    private Thread migrationDriver;
 
     public JsonRewardStorage(@Nonnull Path dataDirectory) {
-        this.dataDirectory = dataDirectory;
+        this(dataDirectory, false, 0);
+    }
+
+    public JsonRewardStorage(@Nonnull Path dataDirectory, boolean writeBehind, int flushIntervalSeconds) {
+        super(writeBehind, flushIntervalSeconds);
         this.playersDir = dataDirectory.resolve("players");
+        this.playerIndex = new PlayerIndex(dataDirectory.resolve("players.idx"));
     }
 
-    @Override
-    public void initialize() {
-        try {
-            Files.createDirectories(playersDir);
-            LOGGER.info("JsonRewardStorage initialized at {}", playersDir);
-        } catch (IOException e) {
-            LOGGER.error("Failed to create storage directory: {}", e.getMessage());
-        }
+    /**
+     * Indent written files for hand editing. Compact output (the default) is
+     * smaller and faster to write; both forms are read the same way.
+     */
+    public void setPrettyPrint(boolean prettyPrint) {
+        this.prettyPrint = prettyPrint;
     }
 
-    @Override
-    @Nonnull
-    public PlayerRewardData loadOrCreate(@Nonnull UUID playerUuid) {
-        PlayerRewardData cached = cache.get(playerUuid);
-        if (cached != null) return cached;
+    /**
+     * Number of threads for the background flat-layout migrator (0 = migrate
+     * lazily on access only). Must be called before {@link #initialize()}.
+     */
+    public void setMigrationThreads(int threads) {
+        this.migrationThreads = Math.max(0, threads);
+    }
 
-        Path file = playerFile(playerUuid);
-        PlayerRewardData data;
+    // ═════════════════════════════════════════════════════════
+    //  BACKEND
+    // ═════════════════════════════════════════════════════════
 
-        if (Files.exists(file)) {
-            data = loadFromFile(file, playerUuid);
-            if (data == null) data = new PlayerRewardData(playerUuid);
-        } else {
-            data = new PlayerRewardData(playerUuid);
-        }
+    @Override
+    protected void openBackend() throws IOException {
+        Files.createDirectories(playersDir);
+        playerIndex.open(playersDir);
+        legacyLayoutPresent = hasLegacyFiles();
+        LOGGER.info("JsonRewardStorage initialized at {} ({} players)", playersDir, playerIndex.size());
 
-        cache.put(playerUuid, data);
-        return data;
+        if (legacyLayoutPresent && migrationThreads > 0) startBulkMigration();
     }
 
     @Override
     @Nullable
-    public PlayerRewardData getCached(@Nonnull UUID playerUuid) {
-        return cache.get(playerUuid);
+    protected PlayerRewardData readRecord(@Nonnull UUID playerUuid) {
+        Path file = playerFile(playerUuid);
+        if (!Files.exists(file)) {
+            if (!legacyLayoutPresent) return null;
+            migrateLegacy(playerUuid);
+            if (!Files.exists(file)) {
+                // Migration failed — read in place; the next save writes the shard
+                file = legacyFile(playerUuid);
+                if (!Files.exists(file)) return null;
+            }
+        }
+
+        PlayerRewardData data = readPlayerFile(file, playerUuid);
+        if (data == null) {
+            // Keep the unreadable file for manual recovery instead of overwriting it
+            quarantineCorruptFile(file);
+        }
+        return data;
     }
 
     @Override
-    public void savePlayer(@Nonnull UUID playerUuid) {
-        PlayerRewardData data = cache.get(playerUuid);
-        if (data == null) return;
-        saveToFile(data);
+    protected boolean writeRecord(@Nonnull PlayerRewardData data) {
+        if (!saveToFile(data)) return false;
+        playerIndex.add(data.getPlayerUuid());
+        return true;
     }
 
     @Override
-    public void saveAll() {
-        int count = 0;
-        for (Map.Entry<UUID, PlayerRewardData> entry : cache.entrySet()) {
-            saveToFile(entry.getValue());
-            count++;
+    protected void deleteRecord(@Nonnull UUID playerUuid) {
+        try {
+            Files.deleteIfExists(playerFile(playerUuid));
+            Files.deleteIfExists(legacyFile(playerUuid));
+        } catch (IOException e) {
+            LOGGER.warn("Failed to delete player file: {}", e.getMessage());
         }
-        LOGGER.info("Saved {} player reward records.", count);
+        if (playerIndex.remove(playerUuid)) submitIo(playerIndex::persistIfDirty);
     }
 
     @Override
-    public void evict(@Nonnull UUID playerUuid) {
-        savePlayer(playerUuid);
-        cache.remove(playerUuid);
+    public int getTrackedPlayerCount() {
+        return playerIndex.size();
     }
 
     @Override
     @Nonnull
-    public Collection<UUID> getCachedPlayerUuids() {
-        return Collections.unmodifiableSet(cache.keySet());
+    public Collection<UUID> getTrackedPlayerUuids() {
+        return playerIndex.view();
     }
 
     @Override
-    public int getTrackedPlayerCount() {
-        try {
-            return (int) Files.list(playersDir)
-                    .filter(p -> p.toString().endsWith(".json"))
-                    .count();
-        } catch (IOException e) {
-            return cache.size();
-        }
+    protected void afterFlush(int written) {
+        playerIndex.persistIfDirty();
     }
 
     @Override
-    public void deletePlayer(@Nonnull UUID playerUuid) {
-        cache.remove(playerUuid);
-        Path file = playerFile(playerUuid);
+    protected void closeBackend() {
+        closing = true;
+        if (migrationDriver != null) {
+            try {
+                migrationDriver.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        playerIndex.close();
+    }
+
+    // ═════════════════════════════════════════════════════════
+    //  SHARDED LAYOUT
+    // ═════════════════════════════════════════════════════════
+
+    /** players/{ab}/{cd}/{uuid}.json */
+    @Nonnull
+    static Path shardedFile(@Nonnull Path playersDir, @Nonnull UUID uuid) {
+        String name = uuid.toString();
+        return playersDir.resolve(name.substring(0, 2)).resolve(name.substring(2, 4)).resolve(name + ".json");
+    }
+
+    private Path legacyFile(UUID uuid) {
+        return playersDir.resolve(uuid + ".json");
+    }
+
+    private boolean hasLegacyFiles() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(playersDir, "*.json")) {
+            return files.iterator().hasNext();
+        }
+    }
+
+    /**
+     * Move a flat-layout file into its shard. An existing shard file is never
+     * replaced — it was written after the flat one, so the flat copy is dropped.
+     *
+     * @return true if a file was moved
+     */
+    private boolean migrateLegacy(@Nonnull UUID uuid) {
+        Path legacy = legacyFile(uuid);
+        Path target = playerFile(uuid);
         try {
-            Files.deleteIfExists(file);
+            Files.createDirectories(target.getParent());
+            Files.move(legacy, target);
+            return true;
+        } catch (NoSuchFileException e) {
+            return false; // nothing to migrate, or moved concurrently
+        } catch (FileAlreadyExistsException e) {
+            try {
+                Files.deleteIfExists(legacy);
+            } catch (IOException ignored) {}
+            return false;
         } catch (IOException e) {
-            LOGGER.warn("Failed to delete player file: {}", e.getMessage());
+            LOGGER.warn("Failed to move {} into its shard: {}", legacy.getFileName(), e.getMessage());
+            return false;
         }
     }
 
-    @Override
-    public void shutdown() {
-        saveAll();
-        cache.clear();
-        LOGGER.info("JsonRewardStorage shut down.");
+    /**
+     * Move every flat-layout file into its shard in the background.
+     * At most {@code migrationThreads} moves run at a time.
+     */
+    private void startBulkMigration() {
+        migrationDriver = new Thread(() -> {
+            long start = System.currentTimeMillis();
+            AtomicInteger moved = new AtomicInteger();
+            ExecutorService pool = Executors.newFixedThreadPool(migrationThreads, r -> {
+                Thread t = new Thread(r, "EcoTaleRewards-ShardMigrator");
+                t.setDaemon(true);
+                return t;
+            });
+            Semaphore inFlight = new Semaphore(migrationThreads * 4);
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(playersDir, "*.json")) {
+                for (Path file : files) {
+                    if (closing) break;
+                    UUID uuid = uuidOf(file);
+                    if (uuid == null) continue;
+                    inFlight.acquire();
+                    pool.execute(() -> {
+                        try {
+                            if (migrateLegacy(uuid)) moved.incrementAndGet();
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+                }
+            } catch (IOException e) {
+                LOGGER.error("Shard migration failed: {}", e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                pool.shutdown();
+                try {
+                    pool.awaitTermination(1, TimeUnit.MINUTES);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            try {
+                legacyLayoutPresent = hasLegacyFiles();
+            } catch (IOException ignored) {}
+            LOGGER.info("Shard migration moved {} file(s) in {} ms{}.", moved.get(),
+                    System.currentTimeMillis() - start, legacyLayoutPresent ? " (some remain)" : "");
+        }, "EcoTaleRewards-ShardMigration");
+        migrationDriver.setDaemon(true);
+        migrationDriver.start();
+        LOGGER.info("Moving flat player files into shards in the background ({} thread(s)).", migrationThreads);
+    }
+
+    /**
+     * Visit every player file in either layout. A flat file is skipped when
+     * its shard file also exists (the shard copy is newer).
+     */
+    static void forEachPlayerFile(@Nonnull Path playersDir, @Nonnull BiConsumer<UUID, Path> visitor) throws IOException {
+        if (!Files.isDirectory(playersDir)) return;
+        try (Stream<Path> files = Files.walk(playersDir, 3)) {
+            Iterator<Path> it = files.iterator();
+            while (it.hasNext()) {
+                Path file = it.next();
+                UUID uuid = uuidOf(file);
+                if (uuid == null) continue;
+                boolean flat = file.getParent().equals(playersDir);
+                if (flat && Files.exists(shardedFile(playersDir, uuid))) continue;
+                visitor.accept(uuid, file);
+            }
+        }
+    }
+
+    @Nullable
+    private static UUID uuidOf(@Nonnull Path file) {
+        String name = file.getFileName().toString();
+        if (!name.endsWith(".json")) return null;
+        try {
+            return UUID.fromString(name.substring(0, name.length() - ".json".length()));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
     }
 
     // ═════════════════════════════════════════════════════════
@@ -134,91 +305,83 @@ public class JsonRewardStorage implements RewardStorage {
     // ═════════════════════════════════════════════════════════
 
     private Path playerFile(UUID uuid) {
-        return playersDir.resolve(uuid.toString() + ".json");
+        return shardedFile(playersDir, uuid);
     }
 
-    @Nullable
-    private PlayerRewardData loadFromFile(Path file, UUID uuid) {
-        try (Reader reader = new InputStreamReader(
-                Files.newInputStream(file), StandardCharsets.UTF_8)) {
-            JsonObject json = GSON.fromJson(reader, JsonObject.class);
-            if (json == null) return null;
-
-            PlayerRewardData data = new PlayerRewardData(uuid);
-            data.setCurrentDay(getInt(json, "currentDay", 1));
-            data.setStreak(getInt(json, "streak", 0));
-            data.setLongestStreak(getInt(json, "longestStreak", 0));
-            data.setTotalClaimed(getInt(json, "totalClaimed", 0));
-            data.setPendingReturnReward(getBool(json, "pendingReturnReward", false));
-            data.setAbsenceDays(getInt(json, "absenceDays", 0));
-
-            String lastLogin = getString(json, "lastLoginDate", null);
-            if (lastLogin != null) data.setLastLoginDate(LocalDate.parse(lastLogin));
-
-            String lastClaim = getString(json, "lastClaimDate", null);
-            if (lastClaim != null) data.setLastClaimDate(LocalDate.parse(lastClaim));
-
-            if (json.has("claimedDays") && json.get("claimedDays").isJsonArray()) {
-                for (JsonElement el : json.getAsJsonArray("claimedDays")) {
-                    data.addClaimedDay(el.getAsInt());
-                }
-                // undo totalClaimed increments from addClaimedDay
-                data.setTotalClaimed(getInt(json, "totalClaimed", 0));
+    /**
+     * Read every readable player file in a players directory (either layout).
+     * Used by the other backends to import existing JSON data.
+     *
+     * @return number of players handed to the sink
+     */
+    static int importPlayers(@Nonnull Path playersDir, @Nonnull Consumer<PlayerRewardData> sink) throws IOException {
+        int[] imported = {0};
+        forEachPlayerFile(playersDir, (uuid, file) -> {
+            PlayerRewardData data = readPlayerFile(file, uuid);
+            if (data != null) {
+                sink.accept(data);
+                imported[0]++;
             }
+        });
+        return imported[0];
+    }
 
-            return data;
+    @Nullable
+    private static PlayerRewardData readPlayerFile(@Nonnull Path file, @Nonnull UUID uuid) {
+        try (JsonReader reader = new JsonReader(new BufferedReader(new InputStreamReader(
+                Files.newInputStream(file), StandardCharsets.UTF_8)))) {
+            return PlayerRewardDataAdapter.INSTANCE.read(reader, uuid);
         } catch (Exception e) {
             LOGGER.error("Failed to load player data from {}: {}", file, e.getMessage());
             return null;
         }
     }
 
-    private void saveToFile(PlayerRewardData data) {
+    private boolean saveToFile(PlayerRewardData data) {
         Path file = playerFile(data.getPlayerUuid());
         try {
             Files.createDirectories(file.getParent());
 
-            JsonObject json = new JsonObject();
-            json.addProperty("playerUuid", data.getPlayerUuid().toString());
-            json.addProperty("currentDay", data.getCurrentDay());
-            json.addProperty("streak", data.getStreak());
-            json.addProperty("longestStreak", data.getLongestStreak());
-            json.addProperty("totalClaimed", data.getTotalClaimed());
-            json.addProperty("pendingReturnReward", data.isPendingReturnReward());
-            json.addProperty("absenceDays", data.getAbsenceDays());
-
-            if (data.getLastLoginDate() != null)
-                json.addProperty("lastLoginDate", data.getLastLoginDate().toString());
-            if (data.getLastClaimDate() != null)
-                json.addProperty("lastClaimDate", data.getLastClaimDate().toString());
-
-            JsonArray claimedArr = new JsonArray();
-            for (int day : data.getClaimedDays()) {
-                claimedArr.add(day);
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+            try (JsonWriter writer = new JsonWriter(new OutputStreamWriter(bytes, StandardCharsets.UTF_8))) {
+                if (prettyPrint) writer.setIndent("  ");
+                PlayerRewardDataAdapter.INSTANCE.write(writer, data);
             }
-            json.add("claimedDays", claimedArr);
 
-            try (Writer writer = new OutputStreamWriter(
-                    Files.newOutputStream(file), StandardCharsets.UTF_8)) {
-                GSON.toJson(json, writer);
-            }
+            writeAtomically(file, bytes.toByteArray());
+            return true;
         } catch (IOException e) {
             LOGGER.error("Failed to save player data for {}: {}", data.getPlayerUuid(), e.getMessage());
+            return false;
         }
     }
 
-    // ── JSON helpers ────────────────────────────────────────────
-
-    private static int getInt(JsonObject json, String key, int def) {
-        return json.has(key) ? json.get(key).getAsInt() : def;
-    }
-
-    private static boolean getBool(JsonObject json, String key, boolean def) {
-        return json.has(key) ? json.get(key).getAsBoolean() : def;
+    /**
+     * Write to {@code file.tmp}, fsync, then atomically rename over the target.
+     * Readers see either the old or the new file, never a partial one.
+     */
+    static void writeAtomically(@Nonnull Path file, @Nonnull byte[] bytes) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buf = ByteBuffer.wrap(bytes);
+            while (buf.hasRemaining()) ch.write(buf);
+            ch.force(true);
+        }
+        try {
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
     }
 
-    @Nullable
-    private static String getString(JsonObject json, String key, @Nullable String def) {
-        return json.has(key) && !json.get(key).isJsonNull() ? json.get(key).getAsString() : def;
+    private static void quarantineCorruptFile(@Nonnull Path file) {
+        Path target = file.resolveSibling(file.getFileName() + ".corrupt-" + System.currentTimeMillis());
+        try {
+            Files.move(file, target, StandardCopyOption.REPLACE_EXISTING);
+            LOGGER.error("Unreadable player file moved to {} — player starts fresh.", target.getFileName());
+        } catch (IOException e) {
+            LOGGER.error("Failed to quarantine corrupt file {}: {}", file, e.getMessage());
+        }
     }
 }
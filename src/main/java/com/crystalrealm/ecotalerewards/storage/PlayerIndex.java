@@ -0,0 +1,148 @@
+package com.crystalrealm.ecotalerewards.storage;
+
+import com.crystalrealm.ecotalerewards.util.PluginLogger;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persistent set of players that have a stored record, kept next to the
+ * data in {@code players.idx}. Updated incrementally on create and delete so
+ * counts and enumeration never scan the players directory.
+ *
+ * <p>The file carries a clean-shutdown flag. It is written unclean while the
+ * server runs and clean on shutdown; an unclean, missing or unreadable index
+ * is rebuilt from the directory once on startup.</p>
+ */
+final class PlayerIndex {
+
+    private static final PluginLogger LOGGER = PluginLogger.forEnclosingClass();
+
+    private static final int MAGIC = 0x45545049; // "ETPI"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 13;   // magic, version, clean flag, count
+
+    private final Path file;
+    private final Set<UUID> players = ConcurrentHashMap.newKeySet();
+    private volatile boolean dirty;
+
+    PlayerIndex(@Nonnull Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Load the index, or rebuild it from the player files when the file is
+     * missing, unreadable or was not closed cleanly.
+     * The index is then marked unclean until {@link #close()}.
+     */
+    void open(@Nonnull Path playersDir) throws IOException {
+        if (!load()) {
+            rebuild(playersDir);
+        }
+        write(false);
+    }
+
+    boolean add(@Nonnull UUID uuid) {
+        if (!players.add(uuid)) return false;
+        dirty = true;
+        return true;
+    }
+
+    boolean remove(@Nonnull UUID uuid) {
+        if (!players.remove(uuid)) return false;
+        dirty = true;
+        return true;
+    }
+
+    int size() {
+        return players.size();
+    }
+
+    @Nonnull
+    Set<UUID> view() {
+        return Collections.unmodifiableSet(players);
+    }
+
+    /** Write the index if it changed since the last write. */
+    void persistIfDirty() {
+        if (!dirty) return;
+        try {
+            write(false);
+        } catch (IOException e) {
+            LOGGER.error("Failed to write player index: {}", e.getMessage());
+        }
+    }
+
+    /** Final write with the clean-shutdown flag set. */
+    void close() {
+        try {
+            write(true);
+        } catch (IOException e) {
+            LOGGER.error("Failed to write player index: {}", e.getMessage());
+        }
+    }
+
+    // ═════════════════════════════════════════════════════════
+    //  PRIVATE
+    // ═════════════════════════════════════════════════════════
+
+    private boolean load() {
+        if (!Files.exists(file)) return false;
+        try {
+            ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(file));
+            if (buf.remaining() < HEADER_SIZE || buf.getInt() != MAGIC || buf.getInt() != FORMAT_VERSION) {
+                LOGGER.warn("Unrecognized player index — rebuilding.");
+                return false;
+            }
+            if (buf.get() == 0) {
+                LOGGER.warn("Player index was not closed cleanly — rebuilding.");
+                return false;
+            }
+            int count = buf.getInt();
+            if (buf.remaining() != count * 16L) {
+                LOGGER.warn("Player index is truncated — rebuilding.");
+                return false;
+            }
+            for (int i = 0; i < count; i++) {
+                players.add(new UUID(buf.getLong(), buf.getLong()));
+            }
+            return true;
+        } catch (IOException e) {
+            LOGGER.warn("Failed to read player index ({}) — rebuilding.", e.getMessage());
+            return false;
+        }
+    }
+
+    private void rebuild(@Nonnull Path playersDir) throws IOException {
+        players.clear();
+        JsonRewardStorage.forEachPlayerFile(playersDir, (uuid, file) -> players.add(uuid));
+        LOGGER.info("Rebuilt player index: {} player(s).", players.size());
+    }
+
+    private synchronized void write(boolean clean) throws IOException {
+        dirty = false;
+        UUID[] snapshot = players.toArray(new UUID[0]);
+        ByteBuffer buf = ByteBuffer.allocate(HEADER_SIZE + snapshot.length * 16);
+        buf.putInt(MAGIC);
+        buf.putInt(FORMAT_VERSION);
+        buf.put((byte) (clean ? 1 : 0));
+        buf.putInt(snapshot.length);
+        for (UUID uuid : snapshot) {
+            buf.putLong(uuid.getMostSignificantBits());
+            buf.putLong(uuid.getLeastSignificantBits());
+        }
+        try {
+            JsonRewardStorage.writeAtomically(file, buf.array());
+        } catch (IOException e) {
+            dirty = true;
+            throw e;
+        }
+    }
+}
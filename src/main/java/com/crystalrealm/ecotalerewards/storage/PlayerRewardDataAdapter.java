@@ -0,0 +1,160 @@
+package com.crystalrealm.ecotalerewards.storage;
+
+import com.crystalrealm.ecotalerewards.model.PlayerRewardData;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Streaming Gson codec for {@link PlayerRewardData} — reads and writes the
+ * players/{uuid}.json format directly, without building a JsonObject tree.
+ *
+ * <p>Field names match the files written by earlier versions; unknown
+ * fields are skipped and missing ones fall back to defaults.</p>
+ */
+public final class PlayerRewardDataAdapter extends TypeAdapter<PlayerRewardData> {
+
+    public static final PlayerRewardDataAdapter INSTANCE = new PlayerRewardDataAdapter();
+
+    private PlayerRewardDataAdapter() {}
+
+    @Override
+    public void write(@Nonnull JsonWriter out, @Nullable PlayerRewardData data) throws IOException {
+        if (data == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("playerUuid").value(data.getPlayerUuid().toString());
+        out.name("currentDay").value(data.getCurrentDay());
+        out.name("streak").value(data.getStreak());
+        out.name("longestStreak").value(data.getLongestStreak());
+        out.name("totalClaimed").value(data.getTotalClaimed());
+        out.name("pendingReturnReward").value(data.isPendingReturnReward());
+        out.name("absenceDays").value(data.getAbsenceDays());
+
+        LocalDate lastLogin = data.getLastLoginDate();
+        if (lastLogin != null) out.name("lastLoginDate").value(lastLogin.toString());
+        LocalDate lastClaim = data.getLastClaimDate();
+        if (lastClaim != null) out.name("lastClaimDate").value(lastClaim.toString());
+
+        out.name("claimedDays").beginArray();
+        for (int day = data.nextClaimedDay(1); day > 0; day = data.nextClaimedDay(day + 1)) {
+            out.value(day);
+        }
+        out.endArray();
+        out.endObject();
+    }
+
+    @Override
+    @Nullable
+    public PlayerRewardData read(@Nonnull JsonReader in) throws IOException {
+        return read(in, null);
+    }
+
+    /**
+     * Read a record, using {@code expectedUuid} (the file name) when the
+     * document does not carry a playerUuid field.
+     */
+    @Nullable
+    public PlayerRewardData read(@Nonnull JsonReader in, @Nullable UUID expectedUuid) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        UUID uuid = expectedUuid;
+        int currentDay = 1;
+        int streak = 0;
+        int longestStreak = 0;
+        int totalClaimed = 0;
+        boolean pendingReturn = false;
+        int absenceDays = 0;
+        LocalDate lastLogin = null;
+        LocalDate lastClaim = null;
+        long[] claimedBits = new long[1];
+
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "playerUuid" -> {
+                    String raw = in.nextString();
+                    if (uuid == null) uuid = UUID.fromString(raw);
+                }
+                case "currentDay" -> currentDay = in.nextInt();
+                case "streak" -> streak = in.nextInt();
+                case "longestStreak" -> longestStreak = in.nextInt();
+                case "totalClaimed" -> totalClaimed = in.nextInt();
+                case "pendingReturnReward" -> pendingReturn = in.nextBoolean();
+                case "absenceDays" -> absenceDays = in.nextInt();
+                case "lastLoginDate" -> lastLogin = parseDate(in.nextString());
+                case "lastClaimDate" -> lastClaim = parseDate(in.nextString());
+                case "claimedDays" -> {
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        int day = in.nextInt();
+                        if (day < 1) continue;
+                        int word = (day - 1) >>> 6;
+                        if (word >= claimedBits.length) claimedBits = Arrays.copyOf(claimedBits, word + 1);
+                        claimedBits[word] |= 1L << ((day - 1) & 63);
+                    }
+                    in.endArray();
+                }
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+
+        if (uuid == null) throw new IOException("Player record has no playerUuid");
+
+        PlayerRewardData data = new PlayerRewardData(uuid);
+        data.setCurrentDay(currentDay);
+        data.setStreak(streak);
+        data.setLongestStreak(longestStreak);
+        data.setPendingReturnReward(pendingReturn);
+        data.setAbsenceDays(absenceDays);
+        data.setLastLoginDate(lastLogin);
+        data.setLastClaimDate(lastClaim);
+        data.restoreClaimedDayBits(claimedBits);
+        data.setTotalClaimed(totalClaimed);
+        return data;
+    }
+
+    /**
+     * Parse an ISO {@code yyyy-MM-dd} date without going through the
+     * DateTimeFormatter machinery; anything else falls back to {@link LocalDate#parse}.
+     */
+    @Nonnull
+    static LocalDate parseDate(@Nonnull String s) {
+        if (s.length() == 10 && s.charAt(4) == '-' && s.charAt(7) == '-') {
+            int year = digits(s, 0, 4);
+            int month = digits(s, 5, 7);
+            int day = digits(s, 8, 10);
+            if (year >= 0 && month >= 0 && day >= 0) return LocalDate.of(year, month, day);
+        }
+        return LocalDate.parse(s);
+    }
+
+    private static int digits(@Nonnull String s, int from, int to) {
+        int v = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            v = v * 10 + (c - '0');
+        }
+        return v;
+    }
+}
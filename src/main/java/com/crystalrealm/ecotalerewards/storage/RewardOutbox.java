@@ -0,0 +1,214 @@
+package com.crystalrealm.ecotalerewards.storage;
+
+import com.crystalrealm.ecotalerewards.util.PluginLogger;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Durable outbox for reward legs that could not be delivered when a claim
+ * was committed (XP provider down, player entity gone, inventory full).
+ * Entries are kept in {@code outbox.dat} and retried until delivered.
+ *
+ * <p>Each entry carries an idempotency key naming the claim leg it pays
+ * out. A key is enqueued at most once, and a deliverer must
+ * {@link #take} an entry before paying it, so a background retry racing a
+ * login delivery never pays the same leg twice.</p>
+ *
+ * <p>Changes only mark the outbox dirty; the file is rewritten on the
+ * storage I/O thread, and changes made before that write runs share it.
+ * A crash in that window can lose a just-queued leg or repeat a
+ * just-delivered one.</p>
+ */
+public final class RewardOutbox {
+
+    private static final PluginLogger LOGGER = PluginLogger.forEnclosingClass();
+
+    private static final int MAGIC = 0x4554424F; // "ETBO"
+    private static final int FORMAT_VERSION = 1;
+
+    private static final long BASE_BACKOFF_MS = 30_000;
+    private static final long MAX_BACKOFF_MS = 30 * 60_000;
+
+    /** What a pending entry pays out. */
+    public enum Kind { COINS, XP, ITEM }
+
+    /**
+     * A pending reward leg.
+     *
+     * @param payload reason for COINS/XP, item spec ({@code id:count}) for ITEM
+     * @param amount  coins or XP; unused for ITEM
+     */
+    public record Entry(@Nonnull String key,
+                        @Nonnull UUID playerUuid,
+                        @Nonnull Kind kind,
+                        @Nonnull String payload,
+                        double amount,
+                        int attempts,
+                        long nextAttemptMillis) {
+
+        @Nonnull
+        Entry retried(long now) {
+            long backoff = Math.min(MAX_BACKOFF_MS, BASE_BACKOFF_MS << Math.min(attempts, 16));
+            return new Entry(key, playerUuid, kind, payload, amount, attempts + 1, now + backoff);
+        }
+    }
+
+    private final Path file;
+    private final Executor io;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private volatile boolean dirty;
+    private final AtomicBoolean writeQueued = new AtomicBoolean();
+
+    /**
+     * @param io executor for file writes (the storage I/O thread)
+     */
+    public RewardOutbox(@Nonnull Path dataDirectory, @Nonnull Executor io) {
+        this.file = dataDirectory.resolve("outbox.dat");
+        this.io = io;
+    }
+
+    public void load() {
+        if (!Files.exists(file)) return;
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                LOGGER.warn("Unrecognized reward outbox {} — ignored.", file.getFileName());
+                return;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String key = in.readUTF();
+                UUID uuid = new UUID(in.readLong(), in.readLong());
+                Kind kind = Kind.values()[in.readUnsignedByte()];
+                String payload = in.readUTF();
+                double amount = in.readDouble();
+                int attempts = in.readInt();
+                entries.put(key, new Entry(key, uuid, kind, payload, amount, attempts, 0));
+            }
+            if (!entries.isEmpty()) {
+                LOGGER.info("Reward outbox: {} pending reward(s) to deliver.", entries.size());
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error("Failed to read reward outbox: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Queue a reward leg for retry.
+     *
+     * @return false if an entry with the same key is already pending
+     */
+    public boolean enqueue(@Nonnull UUID playerUuid, @Nonnull String key, @Nonnull Kind kind,
+                           @Nonnull String payload, double amount) {
+        Entry entry = new Entry(key, playerUuid, kind, payload, amount, 0,
+                System.currentTimeMillis() + BASE_BACKOFF_MS);
+        if (entries.putIfAbsent(key, entry) != null) return false;
+        markDirty();
+        LOGGER.info("[OUTBOX] Queued {} {} for {} ({})", kind, key, playerUuid, payload);
+        return true;
+    }
+
+    /** Entries whose backoff has expired. */
+    @Nonnull
+    public List<Entry> due(long now) {
+        List<Entry> out = new ArrayList<>();
+        for (Entry e : entries.values()) {
+            if (e.nextAttemptMillis() <= now) out.add(e);
+        }
+        return out;
+    }
+
+    /** All entries of one player, regardless of backoff. */
+    @Nonnull
+    public List<Entry> forPlayer(@Nonnull UUID playerUuid) {
+        List<Entry> out = new ArrayList<>();
+        for (Entry e : entries.values()) {
+            if (e.playerUuid().equals(playerUuid)) out.add(e);
+        }
+        return out;
+    }
+
+    /**
+     * Claim an entry for delivery. Only one caller wins; the loser must
+     * skip the entry.
+     */
+    public boolean take(@Nonnull Entry entry) {
+        if (!entries.remove(entry.key(), entry)) return false;
+        markDirty();
+        return true;
+    }
+
+    /** Return a taken entry whose delivery failed, with its backoff advanced. */
+    public void release(@Nonnull Entry entry) {
+        Entry next = entry.retried(System.currentTimeMillis());
+        if (entries.putIfAbsent(entry.key(), next) == null) markDirty();
+        if (next.attempts() % 10 == 0) {
+            LOGGER.warn("[OUTBOX] {} for {} still undelivered after {} attempts.",
+                    entry.key(), entry.playerUuid(), next.attempts());
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /** Write the outbox if it changed since the last write. */
+    public void persistIfDirty() {
+        if (dirty) persist();
+    }
+
+    // ═════════════════════════════════════════════════════════
+    //  PRIVATE
+    // ═════════════════════════════════════════════════════════
+
+    private void markDirty() {
+        dirty = true;
+        if (!writeQueued.compareAndSet(false, true)) return; // a queued write picks this change up
+        io.execute(() -> {
+            writeQueued.set(false);
+            persistIfDirty();
+        });
+    }
+
+    private synchronized void persist() {
+        dirty = false;
+        List<Entry> snapshot = new ArrayList<>(entries.values());
+        try {
+            if (snapshot.isEmpty()) {
+                Files.deleteIfExists(file);
+                return;
+            }
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + snapshot.size() * 96);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(snapshot.size());
+            for (Entry e : snapshot) {
+                out.writeUTF(e.key());
+                out.writeLong(e.playerUuid().getMostSignificantBits());
+                out.writeLong(e.playerUuid().getLeastSignificantBits());
+                out.writeByte(e.kind().ordinal());
+                out.writeUTF(e.payload());
+                out.writeDouble(e.amount());
+                out.writeInt(e.attempts());
+            }
+            out.flush();
+            JsonRewardStorage.writeAtomically(file, bytes.toByteArray());
+        } catch (IOException e) {
+            dirty = true;
+            LOGGER.error("Failed to write reward outbox: {}", e.getMessage());
+        }
+    }
+}
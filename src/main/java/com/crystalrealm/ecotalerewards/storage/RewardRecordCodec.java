@@ -0,0 +1,155 @@
+package com.crystalrealm.ecotalerewards.storage;
+
+import com.crystalrealm.ecotalerewards.model.PlayerRewardData;
+import com.crystalrealm.ecotalerewards.util.PluginLogger;
+
+import javax.annotation.Nonnull;
+import java.nio.ByteBuffer;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * Fixed-size binary record format shared by {@link BinaryRewardStorage}
+ * and {@link JournaledRewardStorage}.
+ *
+ * <pre>
+ *   0  state (1 = used)      1  flags (bit 0 = pending return reward)
+ *   4  uuid msb              12 uuid lsb
+ *   20 currentDay            24 streak
+ *   28 longestStreak         32 totalClaimed
+ *   36 absenceDays           40 lastLogin epoch day
+ *   44 lastClaim epoch day   48 claimed-days bitmap (MAX_DAYS bits)
+ *   124 CRC32 of bytes 0..123
+ * </pre>
+ */
+final class RewardRecordCodec {
+
+    private static final PluginLogger LOGGER = PluginLogger.forEnclosingClass();
+
+    static final int RECORD_SIZE = 128;
+
+    /** Highest calendar day the claimed-days bitmap can hold. */
+    static final int MAX_DAYS = 512;
+
+    static final int OFF_STATE = 0;
+    static final int OFF_FLAGS = 1;
+    static final int OFF_UUID_MSB = 4;
+    static final int OFF_UUID_LSB = 12;
+    static final int OFF_CURRENT_DAY = 20;
+    static final int OFF_STREAK = 24;
+    static final int OFF_LONGEST_STREAK = 28;
+    static final int OFF_TOTAL_CLAIMED = 32;
+    static final int OFF_ABSENCE_DAYS = 36;
+    static final int OFF_LAST_LOGIN = 40;
+    static final int OFF_LAST_CLAIM = 44;
+    static final int OFF_CLAIMED_BITMAP = 48;
+    static final int OFF_CRC = RECORD_SIZE - 4;
+
+    static final byte STATE_USED = 1;
+    static final byte FLAG_PENDING_RETURN = 1;
+
+    private static final int BITMAP_WORDS = MAX_DAYS / 64;
+
+    private static volatile boolean dayLimitWarned;
+
+    private RewardRecordCodec() {}
+
+    @Nonnull
+    static byte[] encode(@Nonnull PlayerRewardData data) {
+        byte[] record = new byte[RECORD_SIZE];
+        ByteBuffer buf = ByteBuffer.wrap(record);
+
+        buf.put(OFF_STATE, STATE_USED);
+        buf.put(OFF_FLAGS, data.isPendingReturnReward() ? FLAG_PENDING_RETURN : 0);
+        buf.putLong(OFF_UUID_MSB, data.getPlayerUuid().getMostSignificantBits());
+        buf.putLong(OFF_UUID_LSB, data.getPlayerUuid().getLeastSignificantBits());
+        buf.putInt(OFF_CURRENT_DAY, data.getCurrentDay());
+        buf.putInt(OFF_STREAK, data.getStreak());
+        buf.putInt(OFF_LONGEST_STREAK, data.getLongestStreak());
+        buf.putInt(OFF_TOTAL_CLAIMED, data.getTotalClaimed());
+        buf.putInt(OFF_ABSENCE_DAYS, data.getAbsenceDays());
+        buf.putInt(OFF_LAST_LOGIN, data.getLastLoginEpochDay());
+        buf.putInt(OFF_LAST_CLAIM, data.getLastClaimEpochDay());
+
+        long[] bits = data.getClaimedDayBits();
+        for (int i = 0; i < bits.length; i++) {
+            if (bits[i] == 0) continue;
+            if (i >= BITMAP_WORDS) {
+                setClaimedBit(buf, i * 64 + Long.numberOfTrailingZeros(bits[i]) + 1); // logs the limit
+                break;
+            }
+            buf.putLong(OFF_CLAIMED_BITMAP + i * 8, bits[i]);
+        }
+
+        seal(record);
+        return record;
+    }
+
+    @Nonnull
+    static PlayerRewardData decode(@Nonnull UUID uuid, @Nonnull byte[] record) {
+        ByteBuffer buf = ByteBuffer.wrap(record);
+        PlayerRewardData data = new PlayerRewardData(uuid);
+        data.setCurrentDay(buf.getInt(OFF_CURRENT_DAY));
+        data.setStreak(buf.getInt(OFF_STREAK));
+        data.setLongestStreak(buf.getInt(OFF_LONGEST_STREAK));
+        data.setPendingReturnReward((buf.get(OFF_FLAGS) & FLAG_PENDING_RETURN) != 0);
+        data.setAbsenceDays(buf.getInt(OFF_ABSENCE_DAYS));
+        data.setLastLoginEpochDay(buf.getInt(OFF_LAST_LOGIN));
+        data.setLastClaimEpochDay(buf.getInt(OFF_LAST_CLAIM));
+
+        long[] bits = new long[BITMAP_WORDS];
+        for (int i = 0; i < BITMAP_WORDS; i++) {
+            bits[i] = buf.getLong(OFF_CLAIMED_BITMAP + i * 8);
+        }
+        data.restoreClaimedDayBits(bits);
+        data.setTotalClaimed(buf.getInt(OFF_TOTAL_CLAIMED));
+        return data;
+    }
+
+    /** Record of a player with no progress yet. */
+    @Nonnull
+    static byte[] blank(@Nonnull UUID uuid) {
+        return encode(new PlayerRewardData(uuid));
+    }
+
+    @Nonnull
+    static UUID uuidOf(@Nonnull byte[] record) {
+        ByteBuffer buf = ByteBuffer.wrap(record);
+        return new UUID(buf.getLong(OFF_UUID_MSB), buf.getLong(OFF_UUID_LSB));
+    }
+
+    /** True if the slot holds a record with an intact checksum. */
+    static boolean isValid(@Nonnull byte[] record) {
+        return record.length == RECORD_SIZE && record[OFF_STATE] == STATE_USED
+                && ByteBuffer.wrap(record).getInt(OFF_CRC) == checksum(record);
+    }
+
+    /** Recompute the checksum after editing a record in place. */
+    static void seal(@Nonnull byte[] record) {
+        ByteBuffer.wrap(record).putInt(OFF_CRC, checksum(record));
+    }
+
+    static void setClaimedBit(@Nonnull ByteBuffer buf, int day) {
+        if (day < 1 || day > MAX_DAYS) {
+            if (!dayLimitWarned) {
+                dayLimitWarned = true;
+                LOGGER.warn("Calendar day {} exceeds the binary record limit of {} — not persisted.", day, MAX_DAYS);
+            }
+            return;
+        }
+        int off = OFF_CLAIMED_BITMAP + ((day - 1) >>> 6) * 8;
+        buf.putLong(off, buf.getLong(off) | 1L << ((day - 1) & 63));
+    }
+
+    static void clearClaimedBits(@Nonnull ByteBuffer buf) {
+        for (int i = 0; i < BITMAP_WORDS; i++) {
+            buf.putLong(OFF_CLAIMED_BITMAP + i * 8, 0L);
+        }
+    }
+
+    private static int checksum(@Nonnull byte[] record) {
+        CRC32 crc = new CRC32();
+        crc.update(record, 0, OFF_CRC);
+        return (int) crc.getValue();
+    }
+}
@@ -6,10 +6,13 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.Collection;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * DAO interface for player reward data persistence.
- * Implementations: {@link JsonRewardStorage} (file-based JSON).
+ * Implementations: {@link JsonRewardStorage} (file-based JSON),
+ * {@link BinaryRewardStorage} (memory-mapped binary segments),
+ * {@link JournaledRewardStorage} (append-only log + snapshots).
  */
 public interface RewardStorage {
 
@@ -20,6 +23,15 @@ public interface RewardStorage {
     @Nonnull
     PlayerRewardData loadOrCreate(@Nonnull UUID playerUuid);
 
+    /**
+     * Load or create data for a player without blocking the caller.
+     * Completes immediately when the player is already cached.
+     */
+    @Nonnull
+    default CompletableFuture<PlayerRewardData> loadAsync(@Nonnull UUID playerUuid) {
+        return CompletableFuture.completedFuture(loadOrCreate(playerUuid));
+    }
+
     /** Get cached data (may be null if not loaded). */
     @Nullable
     PlayerRewardData getCached(@Nonnull UUID playerUuid);
@@ -30,19 +42,34 @@ public interface RewardStorage {
     /** Save all cached data to disk. */
     void saveAll();
 
-    /** Remove player data from cache. */
+    /** Flush and remove player data from cache (skipped while the player has an active session). */
     void evict(@Nonnull UUID playerUuid);
 
     /** Get all currently cached player UUIDs. */
     @Nonnull
     Collection<UUID> getCachedPlayerUuids();
 
-    /** Get count of tracked players. */
+    /** Get count of tracked players (constant time — served from the player index). */
     int getTrackedPlayerCount();
 
+    /** Get every player with stored data, without touching the filesystem. */
+    @Nonnull
+    Collection<UUID> getTrackedPlayerUuids();
+
     /** Delete a player's data completely. */
     void deletePlayer(@Nonnull UUID playerUuid);
 
+    /** Number of dirty records waiting to be written. */
+    default int getPendingWriteCount() { return 0; }
+
+    /** Duration of the most recent flush in milliseconds, or -1 if none ran yet. */
+    default long getLastFlushMillis() { return -1; }
+
+    /** Run a background write on the storage I/O thread, or inline if there is none. */
+    default void submitIo(@Nonnull Runnable task) {
+        task.run();
+    }
+
     /** Shutdown — flush and close. */
     void shutdown();
 }
@@ -3,6 +3,9 @@ package com.crystalrealm.ecotalerewards.streaks;
 import com.crystalrealm.ecotalerewards.config.RewardsConfig;
 import com.crystalrealm.ecotalerewards.model.PlayerRewardData;
 import com.crystalrealm.ecotalerewards.model.StreakMilestone;
+import com.crystalrealm.ecotalerewards.rewards.PayoutRow;
+import com.crystalrealm.ecotalerewards.rewards.PayoutScale;
+import com.crystalrealm.ecotalerewards.storage.ClaimJournal;
 import com.crystalrealm.ecotalerewards.util.PluginLogger;
 
 import javax.annotation.Nonnull;
@@ -20,6 +23,8 @@ public class StreakService {
 
     private final RewardsConfig config;
     private final List<StreakMilestone> milestones = new ArrayList<>();
+    private ClaimJournal journal = ClaimJournal.NONE;
+    private volatile PayoutScale scale;
 
     public StreakService(@Nonnull RewardsConfig config) {
         this.config = config;
@@ -28,6 +33,8 @@ public class StreakService {
 
     private void loadMilestones() {
         milestones.clear();
+        PayoutScale compiled = PayoutScale.compile(config);
+        scale = compiled;
         if (!config.getStreak().isEnabled()) return;
 
         Map<String, RewardsConfig.MilestoneEntry> entries = config.getStreak().getMilestones();
@@ -35,13 +42,16 @@ public class StreakService {
             try {
                 int days = Integer.parseInt(entry.getKey());
                 RewardsConfig.MilestoneEntry m = entry.getValue();
+                BigDecimal coins = BigDecimal.valueOf(m.getBonusCoins());
                 milestones.add(new StreakMilestone(
                         days,
-                        BigDecimal.valueOf(m.getBonusCoins()),
+                        coins,
                         m.getBonusXP(),
                         m.getRewardMultiplier(),
                         m.getCommands() != null ? m.getCommands() : List.of(),
-                        m.getDescription() != null ? m.getDescription() : ""
+                        m.getDescription() != null ? m.getDescription() : "",
+                        PayoutRow.vipOnly(compiled, coins, m.getBonusXP(),
+                                "StreakMilestone " + days + " days", "streak" + days)
                 ));
             } catch (NumberFormatException ignored) {
                 LOGGER.warn("Invalid milestone key: {}", entry.getKey());
@@ -51,6 +61,13 @@ public class StreakService {
         LOGGER.info("Loaded {} streak milestones.", milestones.size());
     }
 
+    /**
+     * Journal that records state transitions (see {@link ClaimJournal}).
+     */
+    public void setJournal(@Nonnull ClaimJournal journal) {
+        this.journal = journal;
+    }
+
     public void reload() {
         loadMilestones();
     }
@@ -61,6 +78,7 @@ public class StreakService {
     public void incrementStreak(@Nonnull PlayerRewardData data) {
         if (!config.getStreak().isEnabled()) return;
         data.incrementStreak();
+        journal.recordStreak(data);
         LOGGER.debug("Streak incremented for {}: now {}", data.getPlayerUuid(), data.getStreak());
     }
 
@@ -85,18 +103,15 @@ public class StreakService {
             data.setStreak(0);
             LOGGER.info("Streak fully reset for {} (absent {} days)", data.getPlayerUuid(), absenceDays);
         }
+        journal.recordStreak(data);
     }
 
     /**
      * Calculate the current streak reward multiplier.
-     * Formula: base + (streak * perDay), capped at max.
+     * Formula: base + (streak * perDay), capped at max — read from the compiled scale.
      */
     public double calculateMultiplier(int streak) {
-        if (!config.getStreak().isEnabled() || streak <= 0) return 1.0;
-
-        RewardsConfig.StreakSection s = config.getStreak();
-        double mult = s.getBaseStreakMultiplier() + (streak * s.getMultiplierPerDay());
-        return Math.min(mult, s.getMaxMultiplier());
+        return scale.streakMultiplier(streak);
     }
 
     /**
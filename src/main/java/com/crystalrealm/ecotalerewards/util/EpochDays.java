@@ -0,0 +1,43 @@
+package com.crystalrealm.ecotalerewards.util;
+
+import javax.annotation.Nullable;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * Dates as primitive epoch days (days since 1970-01-01, server time zone).
+ * {@link #today()} is cached until the next local midnight, so hot paths
+ * compare ints instead of allocating {@link LocalDate}s.
+ */
+public final class EpochDays {
+
+    /** Marker for "no date". */
+    public static final int NONE = Integer.MIN_VALUE;
+
+    private record Today(int day, long rolloverMillis) {}
+
+    private static volatile Today cached = new Today(NONE, Long.MIN_VALUE);
+
+    private EpochDays() {}
+
+    /** Current server-local epoch day. */
+    public static int today() {
+        Today t = cached;
+        if (System.currentTimeMillis() >= t.rolloverMillis()) {
+            LocalDate now = LocalDate.now();
+            long rollover = now.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            t = new Today((int) now.toEpochDay(), rollover);
+            cached = t;
+        }
+        return t.day();
+    }
+
+    public static int of(@Nullable LocalDate date) {
+        return date != null ? (int) date.toEpochDay() : NONE;
+    }
+
+    @Nullable
+    public static LocalDate toDate(int epochDay) {
+        return epochDay != NONE ? LocalDate.ofEpochDay(epochDay) : null;
+    }
+}
@@ -0,0 +1,234 @@
+package com.crystalrealm.ecotalerewards.util;
+
+import com.crystalrealm.ecotalerewards.lang.LangArgs;
+import com.crystalrealm.ecotalerewards.lang.Placeholder;
+import com.hypixel.hytale.server.core.Message;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * MiniMessage string compiled once into styled spans of Hytale JSON rich
+ * text. Tags are resolved at compile time and literal text is pre-escaped;
+ * {@link Placeholder}s stay as slots, so rendering is a single pass that
+ * only escapes the slot values.
+ *
+ * <p>Output is identical to {@link MiniMessageParser#toJson(String)} on the
+ * substituted string, except that slot values are always literal text.
+ * Templates without slots keep their JSON and a ready-made {@link Message}.</p>
+ */
+public final class MessageTemplate {
+
+    static final String EMPTY_JSON = "{\"RawText\":\"\"}";
+    private static final String CHILDREN_OPEN = "{\"RawText\":\"\",\"Children\":[";
+    private static final String LINE_BREAK = "{\"RawText\":\"\\n\"}";
+
+    /** One styled run: literal parts around slots, {@code parts.length == slots.length + 1}. */
+    private record Span(String[] parts, Placeholder[] slots, String style) {}
+
+    private final Span[] spans;
+    private final int baseLength;
+    @Nullable private final String json;
+    @Nullable private volatile Message message;
+
+    private MessageTemplate(@Nonnull Span[] spans, int baseLength, @Nullable String json) {
+        this.spans = spans;
+        this.baseLength = baseLength;
+        this.json = json;
+    }
+
+    @Nonnull
+    public static MessageTemplate compile(@Nullable String miniMessage) {
+        String input = miniMessage == null ? "" : miniMessage;
+        List<Span> spans = new ArrayList<>();
+        List<String> parts = new ArrayList<>();
+        List<Placeholder> slots = new ArrayList<>();
+        StringBuilder text = new StringBuilder();
+        String color = null;
+        boolean bold = false, italic = false, underline = false;
+        boolean hasSlots = false;
+
+        int i = 0;
+        int n = input.length();
+        while (i < n) {
+            char c = input.charAt(i);
+            int end;
+            Placeholder slot;
+            if (c == '<' && (end = tagEnd(input, i)) > 0) {
+                flush(spans, parts, slots, text, style(color, bold, italic, underline));
+                boolean closing = input.charAt(i + 1) == '/';
+                String tag = input.substring(closing ? i + 2 : i + 1, end);
+                if (closing) {
+                    switch (tag) {
+                        case "bold" -> bold = false;
+                        case "italic" -> italic = false;
+                        case "underlined" -> underline = false;
+                        default -> color = null;
+                    }
+                } else {
+                    switch (tag) {
+                        case "bold" -> bold = true;
+                        case "italic" -> italic = true;
+                        case "underlined" -> underline = true;
+                        default -> {
+                            if (tag.charAt(0) == '#') color = tag.toLowerCase();
+                            else if (MiniMessageParser.colorHex(tag) != null) color = MiniMessageParser.colorHex(tag);
+                        }
+                    }
+                }
+                i = end + 1;
+            } else if (c == '{' && (end = slotEnd(input, i)) > 0
+                    && (slot = Placeholder.byKey(input.substring(i + 1, end))) != null) {
+                parts.add(text.toString());
+                text.setLength(0);
+                slots.add(slot);
+                hasSlots = true;
+                i = end + 1;
+            } else {
+                MiniMessageParser.escapeJson(c, text);
+                i++;
+            }
+        }
+        flush(spans, parts, slots, text, style(color, bold, italic, underline));
+
+        Span[] compiled = spans.toArray(new Span[0]);
+        int baseLength = 0;
+        for (Span span : compiled) {
+            for (String part : span.parts()) baseLength += part.length();
+            baseLength += span.style().length() + 16;
+        }
+        MessageTemplate template = new MessageTemplate(compiled, baseLength, null);
+        return hasSlots ? template : new MessageTemplate(compiled, baseLength, template.renderJson());
+    }
+
+    public boolean isStatic() {
+        return json != null;
+    }
+
+    @Nonnull
+    public String renderJson() {
+        return renderJson(null);
+    }
+
+    /** Render to Hytale JSON text; slots without a value are written back as {@code {name}}. */
+    @Nonnull
+    public String renderJson(@Nullable LangArgs args) {
+        if (json != null) return json;
+        boolean wrapped = spans.length > 1;
+        StringBuilder sb = new StringBuilder(baseLength + 64 + (wrapped ? CHILDREN_OPEN.length() + 2 : 0));
+        if (wrapped) sb.append(CHILDREN_OPEN);
+        int start = sb.length();
+        int count = 0;
+        for (Span span : spans) {
+            int mark = sb.length();
+            if (count > 0) sb.append(',');
+            sb.append("{\"RawText\":\"");
+            int textStart = sb.length();
+            String[] parts = span.parts();
+            Placeholder[] slots = span.slots();
+            sb.append(parts[0]);
+            for (int s = 0; s < slots.length; s++) {
+                String value = args != null ? args.get(slots[s].ordinal()) : null;
+                if (value != null) MiniMessageParser.escapeJson(value, sb);
+                else sb.append('{').append(slots[s].key()).append('}');
+                sb.append(parts[s + 1]);
+            }
+            if (sb.length() == textStart) {
+                sb.setLength(mark);
+                continue;
+            }
+            sb.append('"').append(span.style()).append('}');
+            count++;
+        }
+        if (count == 0) return EMPTY_JSON;
+        if (!wrapped) return sb.toString();
+        if (count == 1) return sb.substring(start);
+        return sb.append("]}").toString();
+    }
+
+    @Nonnull
+    public Message render() {
+        return render(null);
+    }
+
+    /** Render to a Hytale message; static templates return the same cached instance. */
+    @Nonnull
+    public Message render(@Nullable LangArgs args) {
+        if (json == null) return Message.parse(renderJson(args));
+        Message cached = message;
+        if (cached == null) {
+            message = cached = Message.parse(json);
+        }
+        return cached;
+    }
+
+    /** One message showing each rendered JSON text on its own line. */
+    @Nonnull
+    public static Message joinLines(@Nonnull List<String> jsonLines) {
+        if (jsonLines.size() == 1) return Message.parse(jsonLines.get(0));
+        int length = CHILDREN_OPEN.length() + 2;
+        for (String line : jsonLines) length += line.length() + LINE_BREAK.length() + 2;
+        StringBuilder sb = new StringBuilder(length).append(CHILDREN_OPEN);
+        for (int i = 0; i < jsonLines.size(); i++) {
+            if (i > 0) sb.append(',').append(LINE_BREAK).append(',');
+            sb.append(jsonLines.get(i));
+        }
+        return Message.parse(sb.append("]}").toString());
+    }
+
+    // ═════════════════════════════════════════════════════════
+    //  PRIVATE
+    // ═════════════════════════════════════════════════════════
+
+    private static void flush(List<Span> spans, List<String> parts, List<Placeholder> slots,
+                              StringBuilder text, String style) {
+        if (slots.isEmpty() && text.length() == 0) return;
+        parts.add(text.toString());
+        spans.add(new Span(parts.toArray(new String[0]), slots.toArray(new Placeholder[0]), style));
+        parts.clear();
+        slots.clear();
+        text.setLength(0);
+    }
+
+    @Nonnull
+    private static String style(@Nullable String hex, boolean bold, boolean italic, boolean underline) {
+        if (hex == null && !bold && !italic && !underline) return "";
+        StringBuilder sb = new StringBuilder();
+        if (hex != null) sb.append(",\"Color\":\"").append(hex).append('"');
+        if (bold) sb.append(",\"Bold\":true");
+        if (italic) sb.append(",\"Italic\":true");
+        if (underline) sb.append(",\"Underline\":true");
+        return sb.toString();
+    }
+
+    /** Index of the closing {@code >} of a tag at {@code at}, or -1. Same grammar as {@link MiniMessageParser}. */
+    static int tagEnd(@Nonnull String s, int at) {
+        int i = at + 1;
+        int n = s.length();
+        if (i < n && s.charAt(i) == '/') i++;
+        if (i >= n) return -1;
+        if (s.charAt(i) == '#') {
+            if (i + 7 >= n || s.charAt(i + 7) != '>') return -1;
+            for (int k = i + 1; k <= i + 6; k++) {
+                if (Character.digit(s.charAt(k), 16) < 0) return -1;
+            }
+            return i + 7;
+        }
+        int start = i;
+        while (i < n && isNameChar(s.charAt(i))) i++;
+        return i > start && i < n && s.charAt(i) == '>' ? i : -1;
+    }
+
+    private static int slotEnd(@Nonnull String s, int at) {
+        int i = at + 1;
+        int n = s.length();
+        while (i < n && isNameChar(s.charAt(i))) i++;
+        return i > at + 1 && i < n && s.charAt(i) == '}' ? i : -1;
+    }
+
+    private static boolean isNameChar(char c) {
+        return (c >= 'a' && c <= 'z') || c == '_';
+    }
+}
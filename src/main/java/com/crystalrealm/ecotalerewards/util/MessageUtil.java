@@ -1,5 +1,7 @@
 package com.crystalrealm.ecotalerewards.util;
 
+import com.hypixel.hytale.server.core.Message;
+
 import java.lang.reflect.Method;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
@@ -18,6 +20,18 @@ public final class MessageUtil {
     private static final DecimalFormat COIN_FORMAT;
     private static final Map<UUID, Object> PLAYER_REF_CACHE = new ConcurrentHashMap<>();
 
+    /** {@code sendMessage(Message)} resolved once per PlayerRef class. */
+    private static final ClassValue<Method> SEND_METHODS = new ClassValue<>() {
+        @Override
+        protected Method computeValue(Class<?> type) {
+            try {
+                return type.getMethod("sendMessage", Message.class);
+            } catch (NoSuchMethodException e) {
+                return null;
+            }
+        }
+    };
+
     static {
         DecimalFormatSymbols symbols = new DecimalFormatSymbols(Locale.US);
         symbols.setDecimalSeparator('.');
@@ -52,24 +66,31 @@ public final class MessageUtil {
      * Sends a MiniMessage string to a player via cached PlayerRef.
      */
     public static void sendMessage(UUID playerUuid, String miniMessage) {
+        sendMessage(playerUuid, MessageTemplate.compile(miniMessage).render());
+    }
+
+    /**
+     * Sends a rendered message to a player via cached PlayerRef.
+     */
+    public static void sendMessage(UUID playerUuid, Message message) {
         try {
             Object playerRef = PLAYER_REF_CACHE.get(playerUuid);
             if (playerRef != null) {
-                trySendViaPlayerRef(playerRef, miniMessage);
+                trySendViaPlayerRef(playerRef, message);
             }
         } catch (Throwable e) {
             LOGGER.debug("sendMessage failed for {}: {}", playerUuid, e.getMessage());
         }
     }
 
-    private static void trySendViaPlayerRef(Object playerRef, String text) {
+    private static void trySendViaPlayerRef(Object playerRef, Message message) {
         try {
-            String jsonText = MiniMessageParser.toJson(text);
-            Class<?> msgClass = Class.forName("com.hypixel.hytale.server.core.Message");
-            Method parseMethod = msgClass.getMethod("parse", String.class);
-            Object parsedMsg = parseMethod.invoke(null, jsonText);
-            Method sendMethod = playerRef.getClass().getMethod("sendMessage", msgClass);
-            sendMethod.invoke(playerRef, parsedMsg);
+            Method sendMethod = SEND_METHODS.get(playerRef.getClass());
+            if (sendMethod == null) {
+                LOGGER.warn("[sendMsg] {} has no sendMessage(Message)", playerRef.getClass().getName());
+                return;
+            }
+            sendMethod.invoke(playerRef, message);
         } catch (Throwable e) {
             LOGGER.warn("[sendMsg] failed: {}", e.getMessage());
         }
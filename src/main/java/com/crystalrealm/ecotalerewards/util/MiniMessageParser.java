@@ -1,7 +1,6 @@
 package com.crystalrealm.ecotalerewards.util;
 
 import java.util.*;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
@@ -37,55 +36,11 @@ public final class MiniMessageParser {
     /**
      * Convert MiniMessage string to Hytale JSON text.
      * Uses PascalCase keys: RawText, Children, Color, Bold, Italic, Underline.
+     * For repeated messages compile a {@link MessageTemplate} once instead.
      */
     public static String toJson(String input) {
-        if (input == null || input.isEmpty()) return "{\"RawText\":\"\"}";
-        if (!input.contains("<")) return "{\"RawText\":\"" + escapeJson(input) + "\"}";
-
-        List<String> components = new ArrayList<>();
-        String color = null;
-        boolean bold = false, italic = false, underline = false;
-        Matcher m = TAG_PATTERN.matcher(input);
-        int lastEnd = 0;
-
-        while (m.find()) {
-            if (m.start() > lastEnd) {
-                String text = input.substring(lastEnd, m.start());
-                if (!text.isEmpty()) components.add(buildComponent(text, color, bold, italic, underline));
-            }
-            boolean closing = "/".equals(m.group(1));
-            String tag = m.group(2);
-            if (closing) {
-                if ("bold".equals(tag)) bold = false;
-                else if ("italic".equals(tag)) italic = false;
-                else if ("underlined".equals(tag)) underline = false;
-                else if (tag.startsWith("#")) color = null;
-                else color = null;
-            } else {
-                if ("bold".equals(tag)) bold = true;
-                else if ("italic".equals(tag)) italic = true;
-                else if ("underlined".equals(tag)) underline = true;
-                else if (tag.startsWith("#")) color = tag.toLowerCase();
-                else if (COLOR_HEX.containsKey(tag)) color = COLOR_HEX.get(tag);
-            }
-            lastEnd = m.end();
-        }
-
-        if (lastEnd < input.length()) {
-            String text = input.substring(lastEnd);
-            if (!text.isEmpty()) components.add(buildComponent(text, color, bold, italic, underline));
-        }
-
-        if (components.isEmpty()) return "{\"RawText\":\"\"}";
-        if (components.size() == 1) return components.get(0);
-
-        StringBuilder sb = new StringBuilder("{\"RawText\":\"\",\"Children\":[");
-        for (int i = 0; i < components.size(); i++) {
-            if (i > 0) sb.append(",");
-            sb.append(components.get(i));
-        }
-        sb.append("]}");
-        return sb.toString();
+        if (input == null || input.isEmpty()) return MessageTemplate.EMPTY_JSON;
+        return MessageTemplate.compile(input).renderJson();
     }
 
     /**
@@ -96,29 +51,25 @@ public final class MiniMessageParser {
         return TAG_PATTERN.matcher(input).replaceAll("");
     }
 
-    private static String buildComponent(String text, String hex, boolean bold, boolean italic, boolean underline) {
-        StringBuilder sb = new StringBuilder("{\"RawText\":\"").append(escapeJson(text)).append("\"");
-        if (hex != null) sb.append(",\"Color\":\"").append(hex).append("\"");
-        if (bold) sb.append(",\"Bold\":true");
-        if (italic) sb.append(",\"Italic\":true");
-        if (underline) sb.append(",\"Underline\":true");
-        sb.append("}");
-        return sb.toString();
+    /** Hex value of a named color, or null. */
+    static String colorHex(String name) {
+        return COLOR_HEX.get(name);
     }
 
-    private static String escapeJson(String text) {
-        StringBuilder sb = new StringBuilder(text.length());
+    static void escapeJson(String text, StringBuilder sb) {
         for (int i = 0; i < text.length(); i++) {
-            char c = text.charAt(i);
-            switch (c) {
-                case '\\': sb.append("\\\\"); break;
-                case '"':  sb.append("\\\""); break;
-                case '\n': sb.append("\\n"); break;
-                case '\r': sb.append("\\r"); break;
-                case '\t': sb.append("\\t"); break;
-                default:   sb.append(c); break;
-            }
+            escapeJson(text.charAt(i), sb);
+        }
+    }
+
+    static void escapeJson(char c, StringBuilder sb) {
+        switch (c) {
+            case '\\': sb.append("\\\\"); break;
+            case '"':  sb.append("\\\""); break;
+            case '\n': sb.append("\\n"); break;
+            case '\r': sb.append("\\r"); break;
+            case '\t': sb.append("\\t"); break;
+            default:   sb.append(c); break;
         }
-        return sb.toString();
     }
 }
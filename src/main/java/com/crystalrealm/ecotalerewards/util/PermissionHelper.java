@@ -8,13 +8,17 @@ import javax.annotation.Nullable;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 /**
  * Reads {@code permissions.json} and resolves group-based permissions manually,
@@ -29,10 +33,13 @@ public final class PermissionHelper {
 
     private static volatile PermissionHelper instance;
 
-    /** UUID → list of group names */
-    private final Map<String, List<String>> userGroups = new ConcurrentHashMap<>();
-    /** Group name → set of permissions */
-    private final Map<String, Set<String>> groupPermissions = new ConcurrentHashMap<>();
+    /** Player → effective permissions of all their groups (players with a group list only). */
+    private volatile Map<UUID, PermissionTrie> userPermissions = Map.of();
+    /** Permissions of the "Default" group, used for players without groups. */
+    private volatile PermissionTrie defaultPermissions = PermissionTrie.EMPTY;
+
+    /** Permission node → its ancestor wildcards, nearest first ({@code a.b.c} → {@code a.b.*}, {@code a.*}). */
+    private static final Map<String, String[]> WILDCARD_ANCESTORS = new ConcurrentHashMap<>();
 
     private Path permissionsFile;
 
@@ -77,143 +84,232 @@ public final class PermissionHelper {
         }
     }
 
+    // ── Decision cache ──────────────────────────────────────
+
+    /** Cached result of one (player, node) check. */
+    private record Decision(boolean allowed, long expiresAt) {}
+
+    /** UUID → node → decision. Cleared on LuckPerms recalculation and permissions.json reload. */
+    private final Map<UUID, Map<String, Decision>> decisions = new ConcurrentHashMap<>();
+    private volatile long cacheTtlMillis = 60_000;
+    /** Bumped on every invalidation so a check racing one does not cache a stale result. */
+    private final AtomicLong generation = new AtomicLong();
+
+    /** TTL of cached decisions; 0 disables caching. */
+    public void setCacheTtlSeconds(int seconds) {
+        cacheTtlMillis = Math.max(0, seconds) * 1000L;
+        invalidateAll();
+    }
+
+    /** Drop cached decisions of one player (logout, external changes). */
+    public void invalidate(@Nonnull UUID uuid) {
+        generation.incrementAndGet();
+        decisions.remove(uuid);
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        decisions.clear();
+    }
+
     // ── LuckPerms API (reflection) ─────────────────────────
 
-    private Object luckPermsApi;         // net.luckperms.api.LuckPerms
     private Object luckPermsUserManager; // net.luckperms.api.model.user.UserManager
-    private boolean luckPermsAvailable = false;
-    private boolean luckPermsChecked = false;
+    private volatile boolean luckPermsAvailable = false;
+    private volatile boolean luckPermsChecked = false;
+
+    // Resolved once on the API interfaces (implementations may be non-public)
+    private Method getUserMethod;
+    private Method loadUserMethod;
+    private Method getCachedDataMethod;
+    private Method getPermissionDataMethod;
+    private Method checkPermissionMethod;
+    private Method asBooleanMethod;
+
+    /** Players whose LuckPerms user is being loaded in the background. */
+    private final Set<UUID> loadingUsers = ConcurrentHashMap.newKeySet();
 
     /**
      * Try to initialize LuckPerms API access via reflection.
      * Called lazily on first permission check.
      */
-    private void initLuckPerms() {
+    private synchronized void initLuckPerms() {
         if (luckPermsChecked) return;
-        luckPermsChecked = true;
         try {
             Class<?> providerClass = Class.forName("net.luckperms.api.LuckPermsProvider");
-            luckPermsApi = providerClass.getMethod("get").invoke(null);
-            luckPermsUserManager = luckPermsApi.getClass().getMethod("getUserManager").invoke(luckPermsApi);
+            Object luckPermsApi = providerClass.getMethod("get").invoke(null);
+            Class<?> apiClass = Class.forName("net.luckperms.api.LuckPerms");
+            Class<?> userManagerClass = Class.forName("net.luckperms.api.model.user.UserManager");
+            Class<?> userClass = Class.forName("net.luckperms.api.model.user.User");
+            Class<?> cachedDataClass = Class.forName("net.luckperms.api.cacheddata.CachedDataManager");
+            Class<?> permDataClass = Class.forName("net.luckperms.api.cacheddata.CachedPermissionData");
+            Class<?> triStateClass = Class.forName("net.luckperms.api.util.Tristate");
+
+            luckPermsUserManager = apiClass.getMethod("getUserManager").invoke(luckPermsApi);
+            getUserMethod = userManagerClass.getMethod("getUser", UUID.class);
+            loadUserMethod = userManagerClass.getMethod("loadUser", UUID.class);
+            getCachedDataMethod = userClass.getMethod("getCachedData");
+            getPermissionDataMethod = cachedDataClass.getMethod("getPermissionData");
+            checkPermissionMethod = permDataClass.getMethod("checkPermission", String.class);
+            asBooleanMethod = triStateClass.getMethod("asBoolean");
             luckPermsAvailable = true;
             LOGGER.info("LuckPerms API detected — using it for permission resolution");
+            subscribeLuckPermsEvents(apiClass.getMethod("getEventBus").invoke(luckPermsApi), userClass);
         } catch (ClassNotFoundException e) {
             LOGGER.info("LuckPerms not found — using permissions.json only");
         } catch (Exception e) {
             LOGGER.warn("LuckPerms API init failed: {} — using permissions.json", e.getMessage());
+        } finally {
+            luckPermsChecked = true;
+        }
+    }
+
+    /**
+     * Invalidate cached decisions when LuckPerms recalculates a user
+     * (that user) or a group (everyone).
+     */
+    private void subscribeLuckPermsEvents(@Nonnull Object eventBus, @Nonnull Class<?> userClass) {
+        try {
+            Class<?> busClass = Class.forName("net.luckperms.api.event.EventBus");
+            Method subscribe = busClass.getMethod("subscribe", Class.class, Consumer.class);
+
+            Class<?> userEvent = Class.forName("net.luckperms.api.event.user.UserDataRecalculateEvent");
+            Method getUser = userEvent.getMethod("getUser");
+            Method getUniqueId = userClass.getMethod("getUniqueId");
+            Consumer<Object> onUser = event -> {
+                try {
+                    invalidate((UUID) getUniqueId.invoke(getUser.invoke(event)));
+                } catch (Exception e) {
+                    invalidateAll();
+                }
+            };
+            subscribe.invoke(eventBus, userEvent, onUser);
+
+            Class<?> groupEvent = Class.forName("net.luckperms.api.event.group.GroupDataRecalculateEvent");
+            Consumer<Object> onGroup = event -> invalidateAll();
+            subscribe.invoke(eventBus, groupEvent, onGroup);
+            LOGGER.info("LuckPerms recalculation events hooked — permission cache invalidates on change");
+        } catch (Exception e) {
+            LOGGER.warn("LuckPerms event hook failed: {} — cached permissions expire by TTL only", e.getMessage());
         }
     }
 
     /**
      * Check a permission via LuckPerms API (reflection).
-     * Returns null if LuckPerms is unavailable or the check fails.
+     * Returns null if LuckPerms is unavailable, the check fails, or the
+     * user is not loaded yet — then a background load is started and the
+     * caller falls back to permissions.json; the loaded user's decisions
+     * replace it once the load completes.
      */
     @Nullable
     private Boolean checkLuckPerms(@Nonnull UUID uuid, @Nonnull String permission) {
-        initLuckPerms();
+        if (!luckPermsChecked) initLuckPerms();
         if (!luckPermsAvailable || luckPermsUserManager == null) return null;
 
         try {
             // UserManager.getUser(UUID) — returns User or null (only if loaded)
-            Object user = luckPermsUserManager.getClass()
-                    .getMethod("getUser", UUID.class)
-                    .invoke(luckPermsUserManager, uuid);
-
+            Object user = getUserMethod.invoke(luckPermsUserManager, uuid);
             if (user == null) {
-                // User not loaded — try loadUser(UUID).join()
-                Object future = luckPermsUserManager.getClass()
-                        .getMethod("loadUser", UUID.class)
-                        .invoke(luckPermsUserManager, uuid);
-                user = future.getClass().getMethod("join").invoke(future);
+                loadUserAsync(uuid);
+                return null;
             }
 
-            if (user == null) return null;
-
-            // User.getCachedData() → CachedDataManager
-            Object cachedData = user.getClass().getMethod("getCachedData").invoke(user);
-            // CachedDataManager.getPermissionData() → CachedPermissionData
-            Object permData = cachedData.getClass().getMethod("getPermissionData").invoke(cachedData);
-            // CachedPermissionData.checkPermission(String) → TriState
-            Object triState = permData.getClass().getMethod("checkPermission", String.class)
-                    .invoke(permData, permission);
-            // TriState.asBoolean() → boolean
-            return (Boolean) triState.getClass().getMethod("asBoolean").invoke(triState);
+            Object cachedData = getCachedDataMethod.invoke(user);
+            Object permData = getPermissionDataMethod.invoke(cachedData);
+            Object triState = checkPermissionMethod.invoke(permData, permission);
+            return (Boolean) asBooleanMethod.invoke(triState);
         } catch (Exception e) {
             LOGGER.debug("LuckPerms permission check failed for {}: {}", uuid, e.getMessage());
             return null;
         }
     }
 
+    /** Start loading a LuckPerms user without blocking; invalidates the player's cache when done. */
+    private void loadUserAsync(@Nonnull UUID uuid) {
+        if (!loadingUsers.add(uuid)) return;
+        try {
+            CompletableFuture<?> future = (CompletableFuture<?>) loadUserMethod.invoke(luckPermsUserManager, uuid);
+            future.whenComplete((user, error) -> {
+                loadingUsers.remove(uuid);
+                invalidate(uuid);
+                if (error != null) {
+                    LOGGER.debug("LuckPerms user load failed for {}: {}", uuid, error.getMessage());
+                }
+            });
+        } catch (Exception e) {
+            loadingUsers.remove(uuid);
+            LOGGER.debug("LuckPerms loadUser failed for {}: {}", uuid, e.getMessage());
+        }
+    }
+
     // ── Permission check ────────────────────────────────────
 
     /**
      * Check if a player (by UUID) has the given permission,
      * resolving through LuckPerms API first, then falling back
      * to groups and wildcard matching from permissions.json.
+     * Decisions are cached per (player, node) for the cache TTL.
      *
      * @param uuid       player UUID
      * @param permission permission node to check
      * @return true if the player has this permission
      */
     public boolean hasPermission(@Nonnull UUID uuid, @Nonnull String permission) {
+        long ttl = cacheTtlMillis;
+        if (ttl <= 0) return resolve(uuid, permission);
+
+        long now = System.currentTimeMillis();
+        Map<String, Decision> forPlayer = decisions.get(uuid);
+        Decision cached = forPlayer != null ? forPlayer.get(permission) : null;
+        if (cached != null && cached.expiresAt() > now) return cached.allowed();
+
+        long gen = generation.get();
+        boolean allowed = resolve(uuid, permission);
+        if (gen == generation.get()) {
+            decisions.computeIfAbsent(uuid, k -> new ConcurrentHashMap<>())
+                    .put(permission, new Decision(allowed, now + ttl));
+        }
+        return allowed;
+    }
+
+    private boolean resolve(@Nonnull UUID uuid, @Nonnull String permission) {
         // 1. Try LuckPerms API first
         Boolean lpResult = checkLuckPerms(uuid, permission);
         if (lpResult != null) return lpResult;
 
         // 2. Fallback: permissions.json
-        String uuidStr = uuid.toString();
-        List<String> groups = userGroups.get(uuidStr);
-        if (groups == null || groups.isEmpty()) {
-            // Check Default group as fallback
-            Set<String> defaultPerms = groupPermissions.get("Default");
-            if (defaultPerms != null) {
-                return matchesAny(defaultPerms, permission);
-            }
-            return false;
-        }
-
-        for (String group : groups) {
-            Set<String> perms = groupPermissions.get(group);
-            if (perms != null && matchesAny(perms, permission)) {
-                return true;
-            }
-        }
-        return false;
+        PermissionTrie granted = userPermissions.get(uuid);
+        return (granted != null ? granted : defaultPermissions).matches(permission);
     }
 
     // ── Wildcard matching ───────────────────────────────────
 
     /**
-     * Check if the requested permission matches any entry in the set.
-     * Handles wildcards like {@code ecotalerewards.*} and {@code *}.
+     * Ancestor wildcards of a node, computed once per node:
+     * {@code ecotalerewards.vip.gold} → {@code ecotalerewards.vip.*}, {@code ecotalerewards.*}.
+     * For checks against APIs that only match exact nodes.
      */
-    private boolean matchesAny(@Nonnull Set<String> grantedPerms, @Nonnull String requested) {
-        // 1. Exact match
-        if (grantedPerms.contains(requested)) return true;
-
-        // 2. Global wildcard
-        if (grantedPerms.contains("*")) return true;
-
-        // 3. Check each wildcard entry in the granted set
-        //    e.g. "ecotalerewards.*" should match "ecotalerewards.use"
-        for (String granted : grantedPerms) {
-            if (granted.endsWith(".*")) {
-                String prefix = granted.substring(0, granted.length() - 2);
-                if (requested.startsWith(prefix + ".") || requested.equals(prefix)) {
-                    return true;
-                }
+    @Nonnull
+    public static String[] wildcardAncestors(@Nonnull String permission) {
+        return WILDCARD_ANCESTORS.computeIfAbsent(permission, perm -> {
+            List<String> out = new ArrayList<>();
+            for (int dot = perm.lastIndexOf('.'); dot > 0; dot = perm.lastIndexOf('.', dot - 1)) {
+                out.add(perm.substring(0, dot) + ".*");
             }
-        }
-
-        return false;
+            return out.toArray(new String[0]);
+        });
     }
 
     // ── File loading ────────────────────────────────────────
 
+    /**
+     * Parse permissions.json and compile it: one trie per group, merged into
+     * one effective trie per player (players sharing a group list share it).
+     */
     @SuppressWarnings("unchecked")
     private void load() {
-        userGroups.clear();
-        groupPermissions.clear();
+        Map<UUID, List<String>> userGroups = new HashMap<>();
+        Map<String, PermissionTrie> groupTries = new HashMap<>();
 
         try (Reader reader = new InputStreamReader(
                 Files.newInputStream(permissionsFile), StandardCharsets.UTF_8)) {
@@ -225,11 +321,13 @@ public final class PermissionHelper {
             Map<String, Object> users = (Map<String, Object>) root.get("users");
             if (users != null) {
                 for (Map.Entry<String, Object> entry : users.entrySet()) {
-                    String uuid = entry.getKey();
                     Map<String, Object> userData = (Map<String, Object>) entry.getValue();
                     List<String> groups = (List<String>) userData.get("groups");
-                    if (groups != null) {
-                        userGroups.put(uuid, new ArrayList<>(groups));
+                    if (groups == null || groups.isEmpty()) continue;
+                    try {
+                        userGroups.put(UUID.fromString(entry.getKey()), List.copyOf(groups));
+                    } catch (IllegalArgumentException e) {
+                        LOGGER.warn("permissions.json: invalid user UUID {}", entry.getKey());
                     }
                 }
             }
@@ -238,28 +336,42 @@ public final class PermissionHelper {
             Map<String, Object> groups = (Map<String, Object>) root.get("groups");
             if (groups != null) {
                 for (Map.Entry<String, Object> entry : groups.entrySet()) {
-                    String groupName = entry.getKey();
                     List<String> perms = (List<String>) entry.getValue();
-                    if (perms != null) {
-                        Set<String> permSet = new HashSet<>();
-                        for (String p : perms) {
-                            if (p != null && !p.startsWith("#")) {
-                                permSet.add(p.trim());
-                            }
+                    if (perms == null) continue;
+                    PermissionTrie trie = new PermissionTrie();
+                    for (String p : perms) {
+                        if (p != null && !p.startsWith("#")) {
+                            trie.add(p.trim());
                         }
-                        groupPermissions.put(groupName, permSet);
                     }
+                    groupTries.put(entry.getKey(), trie);
                 }
             }
 
             LOGGER.info("permissions.json loaded: {} users, {} groups",
-                    userGroups.size(), groupPermissions.size());
+                    userGroups.size(), groupTries.size());
 
         } catch (IOException e) {
             LOGGER.error("Failed to load permissions.json: {}", e.getMessage());
         } catch (Exception e) {
             LOGGER.error("Error parsing permissions.json: {}", e.getMessage());
         }
+
+        Map<List<String>, PermissionTrie> byGroupList = new HashMap<>();
+        Map<UUID, PermissionTrie> compiled = new HashMap<>();
+        for (Map.Entry<UUID, List<String>> entry : userGroups.entrySet()) {
+            compiled.put(entry.getKey(), byGroupList.computeIfAbsent(entry.getValue(), list -> {
+                PermissionTrie merged = new PermissionTrie();
+                for (String group : list) {
+                    PermissionTrie trie = groupTries.get(group);
+                    if (trie != null) merged.merge(trie);
+                }
+                return merged;
+            }));
+        }
+        userPermissions = Map.copyOf(compiled);
+        defaultPermissions = groupTries.getOrDefault("Default", PermissionTrie.EMPTY);
+        invalidateAll();
     }
 
     @Nullable
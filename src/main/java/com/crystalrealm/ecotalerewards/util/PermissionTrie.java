@@ -0,0 +1,102 @@
+package com.crystalrealm.ecotalerewards.util;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+
+/**
+ * Granted permission nodes compiled into a trie of dot-separated segments.
+ * A node ending in {@code .*} marks its prefix as a wildcard (granting the
+ * prefix itself and everything below it); {@code *} marks the root.
+ *
+ * <p>{@link #matches} walks the requested node segment by segment,
+ * comparing regions in place, so a check allocates nothing. Built once and
+ * read-only afterwards.</p>
+ */
+final class PermissionTrie {
+
+    static final PermissionTrie EMPTY = new PermissionTrie();
+
+    private static final class Node {
+        String[] keys = new String[0];
+        Node[] children = new Node[0];
+        boolean granted;
+        boolean wildcard;
+
+        @Nonnull
+        Node child(@Nonnull String key) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i].equals(key)) return children[i];
+            }
+            keys = Arrays.copyOf(keys, keys.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            keys[keys.length - 1] = key;
+            return children[children.length - 1] = new Node();
+        }
+    }
+
+    private final Node root = new Node();
+
+    /** Add a granted node, e.g. {@code ecotalerewards.use}, {@code ecotalerewards.*}, {@code *}. */
+    void add(@Nonnull String permission) {
+        if (permission.equals("*")) {
+            root.wildcard = true;
+            return;
+        }
+        boolean wildcard = permission.endsWith(".*");
+        String path = wildcard ? permission.substring(0, permission.length() - 2) : permission;
+        Node node = root;
+        int start = 0;
+        while (true) {
+            int dot = path.indexOf('.', start);
+            int end = dot >= 0 ? dot : path.length();
+            node = node.child(path.substring(start, end));
+            if (dot < 0) break;
+            start = dot + 1;
+        }
+        if (wildcard) node.wildcard = true;
+        else node.granted = true;
+    }
+
+    /** Copy every grant of {@code other} into this trie. */
+    void merge(@Nonnull PermissionTrie other) {
+        merge(root, other.root);
+    }
+
+    /** True if the node is granted exactly or by a wildcard on one of its prefixes. */
+    boolean matches(@Nonnull String requested) {
+        Node node = root;
+        if (node.wildcard) return true;
+        int start = 0;
+        int length = requested.length();
+        while (true) {
+            int dot = requested.indexOf('.', start);
+            int end = dot >= 0 ? dot : length;
+            node = find(node, requested, start, end - start);
+            if (node == null) return false;
+            if (node.wildcard) return true;
+            if (dot < 0) return node.granted;
+            start = dot + 1;
+        }
+    }
+
+    // ═════════════════════════════════════════════════════════
+    //  PRIVATE
+    // ═════════════════════════════════════════════════════════
+
+    private static Node find(@Nonnull Node node, @Nonnull String s, int offset, int len) {
+        String[] keys = node.keys;
+        for (int i = 0; i < keys.length; i++) {
+            String key = keys[i];
+            if (key.length() == len && s.regionMatches(offset, key, 0, len)) return node.children[i];
+        }
+        return null;
+    }
+
+    private static void merge(@Nonnull Node into, @Nonnull Node from) {
+        into.granted |= from.granted;
+        into.wildcard |= from.wildcard;
+        for (int i = 0; i < from.keys.length; i++) {
+            merge(into.child(from.keys[i]), from.children[i]);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.hypixel.hytale.server.core.event.events.player;
+
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+
+/**
+ * Stub — Fired when a player leaves the server.
+ * Real class: com.hypixel.hytale.server.core.event.events.player.PlayerDisconnectEvent
+ */
+public class PlayerDisconnectEvent {
+
+    /**
+     * Get the disconnecting player's reference.
+     *
+     * @return the player ref
+     */
+    public PlayerRef getPlayerRef() {
+        throw new UnsupportedOperationException("Stub");
+    }
+}
@@ -7,6 +7,10 @@ import com.hypixel.hytale.server.core.inventory.transaction.ItemStackTransaction
  * Stub — Hytale item container base class.
  */
 public class ItemContainer {
+    public boolean canAddItemStack(ItemStack stack) {
+        throw new UnsupportedOperationException("Stub");
+    }
+
     public ItemStackTransaction addItemStack(ItemStack stack) {
         throw new UnsupportedOperationException("Stub");
     }